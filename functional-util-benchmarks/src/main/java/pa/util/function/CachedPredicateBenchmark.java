@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmarks of a cached regex predicate on 1024 repeating inputs (so every evaluation is a hit)
+ * compared to the uncached predicate. Run with -prof gc to check that a hit does not allocate.
+ *
+ * @author Grzegorz Krupinski
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class CachedPredicateBenchmark {
+
+    private static final int KEYS = 1024;
+
+    private String[] inputs;
+    private Predicate<String> regex;
+    private Predicate<String> cached;
+
+    @Setup
+    public void setup() {
+        inputs = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            inputs[i] = "user-" + i + "@example" + (i % 7) + ".com";
+        }
+        Pattern pattern = Pattern.compile("^[a-z]+-\\d*[13579]@example[0-3]\\.com$");
+        regex = s -> pattern.matcher(s).matches();
+        cached = Predicates.cached(regex, 4 * KEYS);
+        for (String input : inputs) {
+            cached.test(input);
+        }
+    }
+
+    @Benchmark
+    public boolean uncached() {
+        return regex.test(inputs[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+
+    @Benchmark
+    public boolean cached() {
+        return cached.test(inputs[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmarks of membership tests over 64K elements: OR of equality lambdas compared to OR of eq predicates
+ * (fused into one hash set lookup) and to IntPredicates.in
+ *
+ * @author Grzegorz Krupinski
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MembershipBenchmark {
+
+    private static final int SIZE = 65_536;
+    private static final Function<Integer, Integer> KEY = Function.identity();
+
+    @Param({"8", "256"})
+    public int count;
+
+    private int[] ints;
+    private Integer[] boxed;
+    private Predicate<Integer> orLambdas;
+    private Predicate<Integer> orEq;
+    private IntPredicate in;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        Random random = new Random(1);
+        ints = random.ints(SIZE, 0, 4 * count).toArray();
+        boxed = IntStream.of(ints).boxed().toArray(Integer[]::new);
+        int[] values = random.ints(count, 0, 4 * count).toArray();
+        Predicate<Integer>[] lambdas = new Predicate[count];
+        Predicate<Integer>[] eqs = new Predicate[count];
+        for (int i = 0; i < count; i++) {
+            int value = values[i];
+            lambdas[i] = x -> x == value;
+            eqs[i] = Predicates.eq(KEY, value);
+        }
+        orLambdas = Predicates.or(lambdas);
+        orEq = Predicates.or(eqs);
+        in = IntPredicates.in(values);
+    }
+
+    @Benchmark
+    public long orLambdas() {
+        long n = 0;
+        for (Integer x : boxed) {
+            if (orLambdas.test(x)) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @Benchmark
+    public long orEq() {
+        long n = 0;
+        for (Integer x : boxed) {
+            if (orEq.test(x)) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @Benchmark
+    public long intIn() {
+        long n = 0;
+        for (int x : ints) {
+            if (in.test(x)) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Benchmarks of NullSafeUtils methods
+ *
+ * @author Grzegorz Krupinski
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NullSafeUtilsBenchmark {
+
+    /**
+     * Simple three level object graph: order.customer.address.zip
+     */
+    public static class Order {
+        Customer customer;
+
+        public Customer getCustomer() {
+            return customer;
+        }
+    }
+
+    public static class Customer {
+        Address address;
+
+        public Address getAddress() {
+            return address;
+        }
+    }
+
+    public static class Address {
+        String zip;
+
+        public String getZip() {
+            return zip;
+        }
+    }
+
+    private static final Function<Order, String> ZIP_FUNCTION = o -> o.getCustomer().getAddress().getZip();
+    private static final NullSafePath<Order, String> ZIP = NullSafeUtils.compile(Order.class, "customer.address.zip");
+    private static final Function<Order, String> NULL_SAFE_ZIP = o -> {
+        Customer customer = o == null ? null : o.getCustomer();
+        Address address = customer == null ? null : customer.getAddress();
+        return address == null ? null : address.getZip();
+    };
+
+    Order order = order("00-950");
+    Order emptyOrder = new Order();
+
+    int number = 1000;
+    String empty = null;
+
+    Object a = "a";
+    Object b = "b";
+    Object c = "c";
+    Object d = "d";
+
+    private final Supplier<Object> supplierA = () -> a;
+    private final Supplier<Object> supplierB = () -> b;
+    private final Supplier<Object> supplierC = () -> c;
+    private final Supplier<Object> supplierD = () -> d;
+
+    static Order order(String zip) {
+        Order order = new Order();
+        order.customer = new Customer();
+        order.customer.address = new Address();
+        order.customer.address.zip = zip;
+        return order;
+    }
+
+    @Benchmark
+    public String getSuccess() {
+        Order o = order;
+        return NullSafeUtils.get(() -> o.getCustomer().getAddress().getZip());
+    }
+
+    @Benchmark
+    public String getNpe() {
+        Order o = emptyOrder;
+        return NullSafeUtils.get(() -> o.getCustomer().getAddress().getZip());
+    }
+
+    @Benchmark
+    public String pathSuccess() {
+        return NullSafeUtils.path(order, Order::getCustomer, Customer::getAddress, Address::getZip);
+    }
+
+    @Benchmark
+    public String pathNull() {
+        return NullSafeUtils.path(emptyOrder, Order::getCustomer, Customer::getAddress, Address::getZip);
+    }
+
+    @Benchmark
+    public String compiledPathSuccess() {
+        return ZIP.get(order);
+    }
+
+    @Benchmark
+    public String compiledPathNull() {
+        return ZIP.get(emptyOrder);
+    }
+
+    /**
+     * Hand-written null checks - the baseline of compiled paths
+     */
+    @Benchmark
+    public String lambdaPathSuccess() {
+        return NULL_SAFE_ZIP.apply(order);
+    }
+
+    @Benchmark
+    public String lambdaPathNull() {
+        return NULL_SAFE_ZIP.apply(emptyOrder);
+    }
+
+    @Benchmark
+    public Integer getBoxed() {
+        return NullSafeUtils.get(() -> number, -1);
+    }
+
+    @Benchmark
+    public int getInt() {
+        return NullSafeUtils.getInt(() -> number, -1);
+    }
+
+    @Benchmark
+    public int getIntException() {
+        return NullSafeUtils.getInt(() -> empty.length(), -1);
+    }
+
+    @Benchmark
+    public boolean isTrueBoxed() {
+        Supplier<Boolean> supplier = () -> number > 0;
+        return NullSafeUtils.isTrue(supplier);
+    }
+
+    @Benchmark
+    public boolean isTrue() {
+        return NullSafeUtils.isTrue(() -> number > 0);
+    }
+
+    @Benchmark
+    public String applyRootFunction() {
+        return NullSafeUtils.apply(order, ZIP_FUNCTION);
+    }
+
+    @Benchmark
+    public boolean allNotNullVarargs() {
+        return NullSafeUtils.allNotNull(new Object[]{a, b, c, d});
+    }
+
+    @Benchmark
+    public boolean allNotNullFixedArity() {
+        return NullSafeUtils.allNotNull(a, b, c, d);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public boolean allNotNullSuppliers() {
+        return NullSafeUtils.allNotNull(new Supplier[]{supplierA, supplierB, supplierC, supplierD});
+    }
+
+    @Benchmark
+    public boolean allNotNullSuppliersFixedArity() {
+        return NullSafeUtils.allNotNull(supplierA, supplierB, supplierC, supplierD);
+    }
+
+}
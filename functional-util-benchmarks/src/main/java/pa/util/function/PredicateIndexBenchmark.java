@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Benchmarks of matching an event against rules of the form
+ * and(eq(customer), in(status), betweenLong(amount)) - PredicateIndex compared to testing every rule
+ *
+ * @author Grzegorz Krupinski
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PredicateIndexBenchmark {
+
+    private static final String[] STATUSES = {"NEW", "PAID", "SENT", "CLOSED"};
+    private static final Function<long[], Long> CUSTOMER = e -> e[0];
+    private static final Function<long[], String> STATUS = e -> STATUSES[(int) e[1]];
+    private static final ToLongFunction<long[]> AMOUNT = e -> e[2];
+
+    @Param({"5000", "50000"})
+    public int rules;
+
+    private final List<Predicate<long[]>> list = new ArrayList<>();
+    private final PredicateIndex<long[], Integer> index = new PredicateIndex<>();
+    private long[][] events;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        for (int i = 0; i < rules; i++) {
+            long from = random.nextInt(10_000);
+            Predicate<long[]> rule = Predicates.and(Predicates.eq(CUSTOMER, (long) random.nextInt(1000)),
+                    Predicates.in(STATUS, Arrays.asList(STATUSES[random.nextInt(4)], STATUSES[random.nextInt(4)])),
+                    Predicates.betweenLong(AMOUNT, from, from + random.nextInt(1000)));
+            list.add(rule);
+            index.add(i, rule);
+        }
+        events = new long[1024][];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new long[]{random.nextInt(1000), random.nextInt(4), random.nextInt(11_000)};
+        }
+    }
+
+    @Benchmark
+    public int scan() {
+        int matched = 0;
+        for (long[] event : events) {
+            for (Predicate<long[]> rule : list) {
+                if (rule.test(event)) {
+                    matched++;
+                }
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public int index() {
+        int matched = 0;
+        for (long[] event : events) {
+            matched += index.match(event).size();
+        }
+        return matched;
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Benchmarks of PredicateParser: parsing (and simplification) of a typical rule and evaluation of the parsed rule
+ * compared to the same rule built with Predicates
+ *
+ * @author Grzegorz Krupinski
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PredicateParserBenchmark {
+
+    private static final String RULE = "status in (NEW, PAID) and not (amount between 10 and 20) xor flagged";
+    private static final String[] STATUSES = {"NEW", "PAID", "SENT", "CLOSED"};
+    private static final Function<long[], String> STATUS = e -> STATUSES[(int) e[0]];
+    private static final ToLongFunction<long[]> AMOUNT = e -> e[1];
+    private static final Predicate<long[]> FLAGGED = e -> e[2] != 0;
+
+    private final PredicateParser<long[]> parser = new PredicateParser<>(new Attributes<long[]>()
+            .add("status", STATUS)
+            .addLong("amount", AMOUNT)
+            .addPredicate("flagged", FLAGGED));
+
+    private Predicate<long[]> parsed;
+    private Predicate<long[]> built;
+    private long[][] events;
+
+    @Setup
+    public void setup() {
+        parsed = parser.parse(RULE);
+        built = Predicates.xor(Predicates.and(Predicates.in(STATUS, Arrays.asList("NEW", "PAID")),
+                Predicates.not(Predicates.betweenLong(AMOUNT, 10, 20))), FLAGGED);
+        Random random = new Random(1);
+        events = new long[1024][];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new long[]{random.nextInt(4), random.nextInt(40), random.nextInt(2)};
+        }
+    }
+
+    @Benchmark
+    public Predicate<long[]> parse() {
+        return parser.parse(RULE);
+    }
+
+    /**
+     * @return count of 1024 events matched by the parsed rule
+     */
+    @Benchmark
+    public int evaluateParsed() {
+        return count(parsed);
+    }
+
+    /**
+     * @return count of 1024 events matched by the rule built with Predicates
+     */
+    @Benchmark
+    public int evaluateBuilt() {
+        return count(built);
+    }
+
+    private int count(Predicate<long[]> rule) {
+        int count = 0;
+        for (long[] event : events) {
+            if (rule.test(event)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Benchmarks of Predicates logical operations evaluated over a stream of 1M elements.
+ * <p>
+ * AND operands always pass and OR operands always fail, so every operand is evaluated
+ * (the worst case of short-circuit evaluation).
+ *
+ * @author Grzegorz Krupinski
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PredicatesBenchmark {
+
+    private static final int SIZE = 1_000_000;
+
+    @Param({"2", "8", "64"})
+    public int arity;
+
+    private Integer[] data;
+    private final long[] bitmap = new long[(SIZE + 63) / 64];
+
+    private Predicate<Integer> and;
+    private Predicate<Integer> or;
+    private Predicate<Integer> xor;
+    private Predicate<Integer> andInstrumented;
+    private Predicate<Integer> andCompiled;
+    private Predicate<Integer> xorCompiled;
+
+    @Setup
+    public void setup() {
+        data = new Integer[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            data[i] = i;
+        }
+        and = Predicates.and(operands(arity, true));
+        or = Predicates.or(operands(arity, false));
+        xor = Predicates.xor(operands(arity, true));
+        andCompiled = Predicates.compile(and);
+        xorCompiled = Predicates.compile(xor);
+        Predicate<Integer>[] instrumented = operands(arity, true);
+        for (int i = 0; i < arity; i++) {
+            instrumented[i] = Predicates.instrumented("operand" + i, instrumented[i]);
+        }
+        andInstrumented = Predicates.instrumented("and", Predicates.and(instrumented));
+    }
+
+    /**
+     * Creates operands of four different shapes, so the call sites are not monomorphic
+     *
+     * @param arity  operand count
+     * @param result result of each operand for non-negative input
+     * @return array of operands
+     */
+    @SuppressWarnings("unchecked")
+    static Predicate<Integer>[] operands(int arity, boolean result) {
+        Predicate<Integer>[] operands = new Predicate[arity];
+        for (int i = 0; i < arity; i++) {
+            int k = -1 - i;
+            switch (i % 4) {
+                case 0:
+                    operands[i] = x -> (x != k) == result;
+                    break;
+                case 1:
+                    operands[i] = x -> (x > k) == result;
+                    break;
+                case 2:
+                    operands[i] = x -> (x + k != x) == result;
+                    break;
+                default:
+                    operands[i] = x -> (x >= 0) == result;
+            }
+        }
+        return operands;
+    }
+
+    @Benchmark
+    public long and() {
+        return Arrays.stream(data).filter(and).count();
+    }
+
+    @Benchmark
+    public long andCompiled() {
+        return Arrays.stream(data).filter(andCompiled).count();
+    }
+
+    @Benchmark
+    public long xorCompiled() {
+        return Arrays.stream(data).filter(xorCompiled).count();
+    }
+
+    /**
+     * Overhead of instrumentation - the AND node and all of its operands are instrumented
+     *
+     * @return count
+     */
+    @Benchmark
+    public long andInstrumented() {
+        return Arrays.stream(data).filter(andInstrumented).count();
+    }
+
+    @Benchmark
+    public long or() {
+        return Arrays.stream(data).filter(or).count();
+    }
+
+    @Benchmark
+    public long xor() {
+        return Arrays.stream(data).filter(xor).count();
+    }
+
+    @Benchmark
+    public int andBatch() {
+        return Predicates.testAll(and, data, 0, SIZE, bitmap);
+    }
+
+    @Benchmark
+    public int orBatch() {
+        return Predicates.testAll(or, data, 0, SIZE, bitmap);
+    }
+
+    @Benchmark
+    public int xorBatch() {
+        return Predicates.testAll(xor, data, 0, SIZE, bitmap);
+    }
+
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Logical AND or OR, which reorders its operands at runtime by measured cost and pass rate.
+ * <p>
+ * One of sampleRate evaluations (chosen at random) is measured: cost and result of every evaluated operand
+ * is recorded in striped counters (also the number of samples, so threads do not contend on a shared counter).
+ * After every period of sampled evaluations operands are sorted by the executor (not by the evaluating thread)
+ * by cost / P(reject) for AND and cost / P(accept) for OR, so cheap and decisive operands run first.
+ * Estimates of an operand are updated only after MIN_SAMPLES evaluations of it (which may take several periods
+ * for operands rarely reached), so a single noisy measurement does not reorder operands.
+ * The new order is published with a single volatile write; evaluation itself is never synchronized.
+ * <p>
+ * Operands have to be independent and free of side effects, because the order of evaluation changes.
+ *
+ * @param <T> type
+ * @author Grzegorz Krupinski
+ */
+final class AdaptivePredicate<T> implements BatchPredicate<T> {
+
+    static final int SAMPLE_RATE = 16;
+    static final int PERIOD = 1024;
+    static final int MIN_SAMPLES = 16;
+
+    /**
+     * Operands in order of evaluation and their indexes in the original order
+     */
+    private static final class Order<T> {
+        final Predicate<T>[] operands;
+        final int[] index;
+
+        Order(Predicate<T>[] operands, int[] index) {
+            this.operands = operands;
+            this.index = index;
+        }
+    }
+
+    private final boolean and;
+    private final Predicate<T>[] operands;
+    private final int sampleRate;
+    private final int period;
+    private final Executor executor;
+
+    private final LongAdder[] evaluated;
+    private final LongAdder[] passed;
+    private final LongAdder[] nanos;
+    private final long[] pendingCount;
+    private final long[] pendingPassed;
+    private final long[] pendingNanos;
+    private final double[] passRate;
+    private final double[] cost;
+
+    private final LongAdder samples = new LongAdder();
+    private volatile long nextReorder;
+    private final AtomicBoolean reordering = new AtomicBoolean();
+    private volatile Order<T> order;
+
+    AdaptivePredicate(boolean and, Predicate<T>[] operands, int sampleRate, int period) {
+        this(and, operands, sampleRate, period, ForkJoinPool.commonPool());
+    }
+
+    AdaptivePredicate(boolean and, Predicate<T>[] operands, int sampleRate, int period, Executor executor) {
+        this.and = and;
+        this.operands = operands;
+        this.sampleRate = sampleRate;
+        this.period = period;
+        this.executor = executor;
+        this.nextReorder = period;
+        int n = operands.length;
+        evaluated = adders(n);
+        passed = adders(n);
+        nanos = adders(n);
+        pendingCount = new long[n];
+        pendingPassed = new long[n];
+        pendingNanos = new long[n];
+        passRate = new double[n];
+        cost = new double[n];
+        int[] index = new int[n];
+        for (int i = 0; i < n; i++) {
+            index[i] = i;
+            passRate[i] = 0.5;
+        }
+        order = new Order<>(operands.clone(), index);
+    }
+
+    private static LongAdder[] adders(int n) {
+        LongAdder[] adders = new LongAdder[n];
+        for (int i = 0; i < n; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    @Override
+    public boolean test(T t) {
+        Order<T> current = order;
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            for (Predicate<T> p : current.operands) {
+                if (p.test(t) != and) {
+                    return !and;
+                }
+            }
+            return and;
+        }
+        return sample(current, t);
+    }
+
+    private boolean sample(Order<T> current, T t) {
+        boolean result = and;
+        for (int i = 0; i < current.operands.length; i++) {
+            int k = current.index[i];
+            long start = System.nanoTime();
+            boolean r = current.operands[i].test(t);
+            nanos[k].add(System.nanoTime() - start);
+            evaluated[k].increment();
+            if (r) {
+                passed[k].increment();
+            }
+            if (r != and) {
+                result = !and;
+                break;
+            }
+        }
+        samples.increment();
+        long count = samples.sum();
+        if (count >= nextReorder && reordering.compareAndSet(false, true)) {
+            nextReorder = count + period;
+            try {
+                executor.execute(this::reorder);
+            } catch (RejectedExecutionException ex) {
+                reordering.set(false);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sorts operands by measured rank - only one thread reorders, others keep evaluating the current order
+     */
+    private void reorder() {
+        try {
+            int n = operands.length;
+            Integer[] sorted = new Integer[n];
+            double[] rank = new double[n];
+            for (int k = 0; k < n; k++) {
+                pendingCount[k] += evaluated[k].sumThenReset();
+                pendingPassed[k] += passed[k].sumThenReset();
+                pendingNanos[k] += nanos[k].sumThenReset();
+                if (pendingCount[k] >= MIN_SAMPLES) {
+                    passRate[k] = (pendingPassed[k] + 1.0) / (pendingCount[k] + 2.0);
+                    cost[k] = (double) pendingNanos[k] / pendingCount[k];
+                    pendingCount[k] = 0;
+                    pendingPassed[k] = 0;
+                    pendingNanos[k] = 0;
+                }
+                double decisive = and ? 1.0 - passRate[k] : passRate[k];
+                rank[k] = (cost[k] + 1.0) / decisive;
+                sorted[k] = k;
+            }
+            Order<T> current = order;
+            int[] position = new int[n];
+            for (int i = 0; i < n; i++) {
+                position[current.index[i]] = i;
+            }
+            Arrays.sort(sorted, Comparator.<Integer>comparingDouble(k -> rank[k]).thenComparingInt(k -> position[k]));
+            @SuppressWarnings("unchecked")
+            Predicate<T>[] reordered = new Predicate[n];
+            int[] index = new int[n];
+            for (int i = 0; i < n; i++) {
+                index[i] = sorted[i];
+                reordered[i] = operands[sorted[i]];
+            }
+            order = new Order<>(reordered, index);
+        } finally {
+            reordering.set(false);
+        }
+    }
+
+    @Override
+    public long test(T[] batch, int offset, long mask) {
+        long result = 0L;
+        for (Predicate<T> p : order.operands) {
+            if (mask == 0L) {
+                break;
+            }
+            long hit = Predicates.test(p, batch, offset, mask);
+            if (and) {
+                mask = hit;
+            } else {
+                result |= hit;
+                mask &= ~hit;
+            }
+        }
+        return and ? mask : result;
+    }
+
+    @Override
+    public Predicate<T> negate() {
+        return new NotPredicate<>(this);
+    }
+
+    /**
+     * @return true for AND, false for OR
+     */
+    boolean isAnd() {
+        return and;
+    }
+
+    /**
+     * @return operands in the current order of evaluation
+     */
+    Predicate<T>[] operands() {
+        return order.operands.clone();
+    }
+
+    /**
+     * Estimates of operands in the current order of evaluation (NaN if an operand was not measured yet)
+     *
+     * @param passRates estimated pass rates (output)
+     * @param costs     estimated mean costs in nanoseconds (output)
+     * @return operands in the current order of evaluation
+     */
+    Predicate<T>[] operands(double[] passRates, double[] costs) {
+        Order<T> current = order;
+        for (int i = 0; i < current.index.length; i++) {
+            int k = current.index[i];
+            boolean measured = cost[k] > 0;
+            passRates[i] = measured ? passRate[k] : Double.NaN;
+            costs[i] = measured ? cost[k] : Double.NaN;
+        }
+        return current.operands.clone();
+    }
+
+}
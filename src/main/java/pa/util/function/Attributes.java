@@ -0,0 +1,285 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Registry of named attributes of elements: object, long and double key extractors and named predicates (flags).
+ * Predicates built by the registry use the registered extractor instances, so they are fused by OR,
+ * indexed by {@link PredicateIndex} and can be encoded by {@link PredicateCodec}.
+ * Values of object attributes are compared by equals, long and double attributes are compared without boxing
+ * (eq and in give sets of one-point intervals).
+ * Register attributes before the registry is shared between threads.
+ *
+ * @param <T> type of elements
+ * @author Grzegorz Krupinski
+ */
+public final class Attributes<T> {
+
+    enum Kind {
+        OBJECT, LONG, DOUBLE, PREDICATE
+    }
+
+    static final class Attribute {
+        final String name;
+        final Kind kind;
+        final Object extractor;
+
+        Attribute(String name, Kind kind, Object extractor) {
+            this.name = name;
+            this.kind = kind;
+            this.extractor = extractor;
+        }
+    }
+
+    private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    private final Map<String, Attribute> byName = new HashMap<>();
+    private final Map<Object, Attribute> byExtractor = new IdentityHashMap<>();
+
+    /**
+     * Registers an object attribute
+     *
+     * @param name      unique name
+     * @param extractor key extractor
+     * @return this registry
+     */
+    public Attributes<T> add(String name, Function<? super T, ?> extractor) {
+        return register(name, Kind.OBJECT, extractor);
+    }
+
+    /**
+     * Registers a long attribute
+     *
+     * @param name      unique name
+     * @param extractor key extractor
+     * @return this registry
+     */
+    public Attributes<T> addLong(String name, ToLongFunction<? super T> extractor) {
+        return register(name, Kind.LONG, extractor);
+    }
+
+    /**
+     * Registers a double attribute
+     *
+     * @param name      unique name
+     * @param extractor key extractor
+     * @return this registry
+     */
+    public Attributes<T> addDouble(String name, ToDoubleFunction<? super T> extractor) {
+        return register(name, Kind.DOUBLE, extractor);
+    }
+
+    /**
+     * Registers a named predicate (a boolean attribute)
+     *
+     * @param name      unique name
+     * @param predicate predicate
+     * @return this registry
+     */
+    public Attributes<T> addPredicate(String name, Predicate<T> predicate) {
+        return register(name, Kind.PREDICATE, predicate);
+    }
+
+    private Attributes<T> register(String name, Kind kind, Object extractor) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(extractor);
+        if (byName.containsKey(name) || byExtractor.containsKey(extractor)) {
+            throw new IllegalArgumentException("Attribute already registered: " + name);
+        }
+        Attribute attribute = new Attribute(name, kind, extractor);
+        byName.put(name, attribute);
+        byExtractor.put(extractor, attribute);
+        return this;
+    }
+
+    /**
+     * Equality of the attribute and the value
+     *
+     * @param name  name of an object, long or double attribute
+     * @param value value (a Number for double attributes, an integral Number for long attributes)
+     * @return eq predicate
+     * @throws IllegalArgumentException if the attribute is not registered or the value does not match it
+     */
+    public Predicate<T> eq(String name, Object value) {
+        return in(name, Collections.singletonList(value));
+    }
+
+    /**
+     * Membership of the attribute in the values
+     *
+     * @param name   name of an object, long or double attribute
+     * @param values values (Numbers for double attributes, integral Numbers for long attributes)
+     * @return in predicate
+     * @throws IllegalArgumentException if the attribute is not registered or a value does not match it
+     */
+    @SuppressWarnings("unchecked")
+    public Predicate<T> in(String name, Collection<?> values) {
+        Attribute attribute = attribute(name);
+        switch (attribute.kind) {
+            case OBJECT:
+                Function<? super T, Object> extractor = (Function<? super T, Object>) attribute.extractor;
+                return values.size() == 1 ? Predicates.eq(extractor, values.iterator().next())
+                        : Predicates.in(extractor, values);
+            case LONG:
+                long[] longs = new long[values.size()];
+                int i = 0;
+                for (Object value : values) {
+                    longs[i++] = integral(name, number(name, value));
+                }
+                return LongRangePredicate.of((ToLongFunction<? super T>) attribute.extractor,
+                        new LongIntervalSet(longs, longs, i));
+            case DOUBLE:
+                double[] doubles = new double[values.size()];
+                int j = 0;
+                for (Object value : values) {
+                    doubles[j++] = number(name, value).doubleValue();
+                }
+                // NaN values are dropped by the interval set, so it may be empty
+                return DoubleRangePredicate.of((ToDoubleFunction<? super T>) attribute.extractor,
+                        new DoubleIntervalSet(doubles, doubles, j));
+            default:
+                throw new IllegalArgumentException("Attribute " + name + " is a predicate");
+        }
+    }
+
+    /**
+     * Range of the attribute: from &lt;= value &lt;= to. Fractional bounds of a long attribute are rounded
+     * into the range, e.g. between("amount", 10.5, 20) is 11 &lt;= amount &lt;= 20.
+     *
+     * @param name name of a long or double attribute
+     * @param from lower bound (inclusive)
+     * @param to   upper bound (inclusive)
+     * @return range predicate
+     * @throws IllegalArgumentException if the attribute is not a registered long or double attribute
+     */
+    @SuppressWarnings("unchecked")
+    public Predicate<T> between(String name, Number from, Number to) {
+        Attribute attribute = attribute(name);
+        switch (attribute.kind) {
+            case LONG:
+                return Predicates.betweenLong((ToLongFunction<? super T>) attribute.extractor,
+                        bound(name, from, true), bound(name, to, false));
+            case DOUBLE:
+                return Predicates.betweenDouble((ToDoubleFunction<? super T>) attribute.extractor,
+                        from.doubleValue(), to.doubleValue());
+            default:
+                throw new IllegalArgumentException("Attribute " + name + " is not numeric");
+        }
+    }
+
+    /**
+     * @param name name of a named predicate
+     * @return registered predicate
+     * @throws IllegalArgumentException if the predicate is not registered
+     */
+    @SuppressWarnings("unchecked")
+    public Predicate<T> predicate(String name) {
+        Attribute attribute = attribute(name);
+        if (attribute.kind != Kind.PREDICATE) {
+            throw new IllegalArgumentException("Attribute " + name + " is not a predicate");
+        }
+        return (Predicate<T>) attribute.extractor;
+    }
+
+    Attribute attribute(String name) {
+        Attribute attribute = byName.get(name);
+        if (attribute == null) {
+            throw new IllegalArgumentException("Unknown attribute: " + name);
+        }
+        return attribute;
+    }
+
+    /**
+     * @param extractor extractor or named predicate
+     * @return registered attribute or null
+     */
+    Attribute attributeOf(Object extractor) {
+        return byExtractor.get(extractor);
+    }
+
+    private static Number number(String name, Object value) {
+        if (!(value instanceof Number)) {
+            throw new IllegalArgumentException("Attribute " + name + " requires a number: " + value);
+        }
+        return (Number) value;
+    }
+
+    /**
+     * Exact long value of the number
+     *
+     * @throws IllegalArgumentException if the number is not integral or out of long range
+     */
+    private static long integral(String name, Number value) {
+        try {
+            if (value instanceof BigDecimal) {
+                return ((BigDecimal) value).longValueExact();
+            }
+            if (value instanceof BigInteger) {
+                return ((BigInteger) value).longValueExact();
+            }
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Attribute " + name + " requires an integral number: " + value, ex);
+        }
+        if (value instanceof Double || value instanceof Float) {
+            double d = value.doubleValue();
+            if (d != Math.rint(d) || d < -0x1p63 || d >= 0x1p63) {
+                throw new IllegalArgumentException("Attribute " + name + " requires an integral number: " + value);
+            }
+            return (long) d;
+        }
+        return value.longValue();
+    }
+
+    /**
+     * Long bound of a range: a fractional lower bound is rounded up and a fractional upper bound down,
+     * so the range contains the same long values
+     */
+    private static long bound(String name, Number value, boolean lower) {
+        if (value instanceof BigInteger) {
+            value = new BigDecimal((BigInteger) value);
+        }
+        if (value instanceof BigDecimal) {
+            BigDecimal rounded = ((BigDecimal) value).setScale(0, lower ? RoundingMode.CEILING : RoundingMode.FLOOR);
+            return rounded.max(LONG_MIN).min(LONG_MAX).longValue();
+        }
+        if (value instanceof Double || value instanceof Float) {
+            double d = value.doubleValue();
+            if (Double.isNaN(d)) {
+                throw new IllegalArgumentException("Attribute " + name + " requires a number: " + value);
+            }
+            return (long) (lower ? Math.ceil(d) : Math.floor(d));
+        }
+        return value.longValue();
+    }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.function.Predicate;
+
+/**
+ * Predicate, which can be evaluated on up to 64 elements of an array at once.
+ * Results are combined word-at-a-time as a bitmap (bit i is the result of element offset + i).
+ *
+ * @param <T> type
+ * @author Grzegorz Krupinski
+ * @see Predicates#testAll(Predicate, Object[], int, int, long[])
+ */
+interface BatchPredicate<T> extends Predicate<T> {
+
+    /**
+     * Evaluates predicate on elements selected by mask
+     *
+     * @param batch  array of elements
+     * @param offset index of the element of bit 0
+     * @param mask   selected elements - only these elements are evaluated
+     * @return bitmap of selected elements, which satisfy the predicate
+     */
+    long test(T[] batch, int offset, long mask);
+
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Predicate with a bounded cache of results. The cache is split into stripes (each with its own lock),
+ * a stripe keeps recently added inputs in a small LRU window and the rest in a main LRU segment.
+ * An input leaving the window replaces the least recently used input of the main segment only if it was
+ * used more often, frequencies are estimated by a count-min sketch which is halved periodically
+ * (W-TinyLFU policy). A hit does not allocate.
+ * Inputs must have consistent equals and hashCode.
+ *
+ * @param <T> type
+ * @author Grzegorz Krupinski
+ * @see Predicates#cached(Predicate, int, java.time.Duration)
+ */
+public final class CachedPredicate<T> implements Predicate<T> {
+
+    private static final int MIN_STRIPE_CAPACITY = 16;
+    private static final Entry TRUE = new Entry(true, 0);
+    private static final Entry FALSE = new Entry(false, 0);
+
+    private static final class Entry {
+        final boolean result;
+        final long expiresAt;
+
+        Entry(boolean result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Count-min sketch of 4 bit counters, 16 counters in each long
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            int length = Integer.highestOneBit(Math.max(capacity, 8) - 1) << 1;
+            table = new long[length];
+            sampleSize = 10 * length;
+        }
+
+        int frequency(int hash) {
+            int frequency = 15;
+            for (int i = 0; i < SEEDS.length; i++) {
+                long h = mix(hash, i);
+                frequency = Math.min(frequency, (int) ((table[index(h)] >>> shift(h)) & 15));
+            }
+            return frequency;
+        }
+
+        void increment(int hash) {
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                long h = mix(hash, i);
+                int index = index(h);
+                int shift = shift(h);
+                if (((table[index] >>> shift) & 15) != 15) {
+                    table[index] += 1L << shift;
+                    added = true;
+                }
+            }
+            if (added && ++additions == sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & RESET_MASK;
+                }
+                additions >>>= 1;
+            }
+        }
+
+        private static long mix(int hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            return h ^ (h >>> 32);
+        }
+
+        private int index(long h) {
+            return (int) h & (table.length - 1);
+        }
+
+        private static int shift(long h) {
+            return (int) (h >>> 40 & 15) << 2;
+        }
+    }
+
+    private static final class Stripe {
+        private final LinkedHashMap<Object, Entry> window = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<Object, Entry> main = new LinkedHashMap<>(16, 0.75f, true);
+        private final int windowCapacity;
+        private final int mainCapacity;
+        private final FrequencySketch sketch;
+        private final LongAdder evictions;
+
+        Stripe(int capacity, LongAdder evictions) {
+            this.evictions = evictions;
+            windowCapacity = Math.max(1, capacity / 100);
+            mainCapacity = capacity - windowCapacity;
+            sketch = new FrequencySketch(capacity);
+        }
+
+        Entry get(Object key, int hash) {
+            sketch.increment(hash);
+            Entry entry = window.get(key);
+            return entry != null ? entry : main.get(key);
+        }
+
+        void remove(Object key) {
+            if (window.remove(key) == null) {
+                main.remove(key);
+            }
+        }
+
+        void put(Object key, Entry entry) {
+            if (main.containsKey(key)) {
+                main.put(key, entry);
+                return;
+            }
+            window.put(key, entry);
+            if (window.size() > windowCapacity) {
+                Iterator<Map.Entry<Object, Entry>> eldest = window.entrySet().iterator();
+                Map.Entry<Object, Entry> candidate = eldest.next();
+                eldest.remove();
+                admit(candidate.getKey(), candidate.getValue());
+            }
+        }
+
+        private void admit(Object key, Entry entry) {
+            if (main.size() < mainCapacity) {
+                main.put(key, entry);
+                return;
+            }
+            evictions.increment();
+            if (mainCapacity == 0) {
+                return;
+            }
+            Iterator<Map.Entry<Object, Entry>> eldest = main.entrySet().iterator();
+            Object victim = eldest.next().getKey();
+            if (sketch.frequency(hash(key)) > sketch.frequency(hash(victim))) {
+                eldest.remove();
+                main.put(key, entry);
+            }
+        }
+
+        int size() {
+            return window.size() + main.size();
+        }
+    }
+
+    final Predicate<T> predicate;
+    private final long ttlNanos;
+    private final Stripe[] stripes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    CachedPredicate(Predicate<T> predicate, int maxEntries, long ttlNanos) {
+        this.predicate = predicate;
+        this.ttlNanos = ttlNanos;
+        int count = Math.min(Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1,
+                Integer.highestOneBit(Math.max(1, maxEntries / MIN_STRIPE_CAPACITY)));
+        stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(maxEntries / count + (i < maxEntries % count ? 1 : 0), evictions);
+        }
+    }
+
+    @Override
+    public boolean test(T t) {
+        int hash = hash(t);
+        Stripe stripe = stripes[hash & (stripes.length - 1)];
+        long now = ttlNanos > 0 ? System.nanoTime() : 0;
+        synchronized (stripe) {
+            Entry entry = stripe.get(t, hash);
+            if (entry != null) {
+                if (ttlNanos == 0 || now - entry.expiresAt < 0) {
+                    hits.increment();
+                    return entry.result;
+                }
+                stripe.remove(t);
+            }
+        }
+        misses.increment();
+        boolean result = predicate.test(t);
+        Entry entry = ttlNanos > 0 ? new Entry(result, now + ttlNanos) : result ? TRUE : FALSE;
+        synchronized (stripe) {
+            stripe.put(t, entry);
+        }
+        return result;
+    }
+
+    private static int hash(Object key) {
+        int h = Objects.hashCode(key) * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return number of evaluations answered from the cache
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of evaluations of the cached predicate
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of results evicted from the cache (or not admitted to it)
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return fraction of evaluations answered from the cache (0 if not evaluated)
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    /**
+     * @return number of cached results (including expired ones)
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "CachedPredicate[hits=" + getHitCount() + ", misses=" + getMissCount()
+                + ", evictions=" + getEvictionCount() + ", size=" + size() + "]";
+    }
+
+}
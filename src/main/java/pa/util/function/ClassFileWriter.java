@@ -0,0 +1,240 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Base of the class file generators: opcodes, the constant pool and emission of fields and methods
+ * with a single Code attribute (no exception table and no stack map frames). The generated class is
+ * public final, extends Object and implements the given interfaces.
+ *
+ * @author Grzegorz Krupinski
+ * @see PredicateCompiler
+ * @see PathAccessor
+ */
+abstract class ClassFileWriter {
+
+    static final int ICONST_0 = 0x03;
+    static final int ICONST_1 = 0x04;
+    static final int BIPUSH = 0x10;
+    static final int SIPUSH = 0x11;
+    static final int LDC = 0x12;
+    static final int ILOAD = 0x15;
+    static final int ALOAD_0 = 0x2a;
+    static final int ALOAD_1 = 0x2b;
+    static final int AALOAD = 0x32;
+    static final int ISTORE = 0x36;
+    static final int IXOR = 0x82;
+    static final int IFEQ = 0x99;
+    static final int IFNE = 0x9a;
+    static final int IF_ICMPNE = 0xa0;
+    static final int GOTO = 0xa7;
+    static final int IRETURN = 0xac;
+    static final int ARETURN = 0xb0;
+    static final int RETURN = 0xb1;
+    static final int GETSTATIC = 0xb2;
+    static final int PUTSTATIC = 0xb3;
+    static final int GETFIELD = 0xb4;
+    static final int PUTFIELD = 0xb5;
+    static final int INVOKEVIRTUAL = 0xb6;
+    static final int INVOKESPECIAL = 0xb7;
+    static final int INVOKEINTERFACE = 0xb9;
+    static final int CHECKCAST = 0xc0;
+
+    static final int PUBLIC = 0x0001;
+    static final int PRIVATE = 0x0002;
+    static final int STATIC = 0x0008;
+    static final int FINAL = 0x0010;
+
+    private static final int SUPER = 0x0020;
+
+    private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+    private final Map<String, Integer> poolIndex = new HashMap<>();
+    private int poolSize = 0;
+    private final ByteArrayOutputStream fields = new ByteArrayOutputStream();
+    private int fieldCount = 0;
+    private final ByteArrayOutputStream methods = new ByteArrayOutputStream();
+    private int methodCount = 0;
+
+    /**
+     * Adds a field without attributes
+     */
+    final void field(int access, String name, String descriptor) {
+        DataOutputStream out = new DataOutputStream(fields);
+        try {
+            out.writeShort(access);
+            out.writeShort(utf8(name));
+            out.writeShort(utf8(descriptor));
+            out.writeShort(0);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        fieldCount++;
+    }
+
+    /**
+     * Adds a method with the given code
+     */
+    final void method(int access, String name, String descriptor, int maxStack, int maxLocals, byte[] code) {
+        DataOutputStream out = new DataOutputStream(methods);
+        try {
+            out.writeShort(access);
+            out.writeShort(utf8(name));
+            out.writeShort(utf8(descriptor));
+            out.writeShort(1);
+            out.writeShort(utf8("Code"));
+            out.writeInt(12 + code.length);
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(code.length);
+            out.write(code);
+            out.writeShort(0);
+            out.writeShort(0);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        methodCount++;
+    }
+
+    /**
+     * @param version    major version of the class file
+     * @param name       internal name of the class
+     * @param interfaces internal names of the implemented interfaces
+     * @return class file with the added fields and methods
+     */
+    final byte[] toClassFile(int version, String name, String... interfaces) {
+        int thisClass = classRef(name);
+        int superClass = classRef("java/lang/Object");
+        int[] interfaceClasses = new int[interfaces.length];
+        for (int i = 0; i < interfaces.length; i++) {
+            interfaceClasses[i] = classRef(interfaces[i]);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(version);
+            out.writeShort(poolSize + 1);
+            pool.writeTo(out);
+            out.writeShort(PUBLIC | FINAL | SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(interfaceClasses.length);
+            for (int interfaceClass : interfaceClasses) {
+                out.writeShort(interfaceClass);
+            }
+            out.writeShort(fieldCount);
+            fields.writeTo(out);
+            out.writeShort(methodCount);
+            methods.writeTo(out);
+            out.writeShort(0);
+            out.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    static byte hi(int value) {
+        return (byte) (value >>> 8);
+    }
+
+    static byte lo(int value) {
+        return (byte) value;
+    }
+
+    final int fieldRef(String owner, String name, String descriptor) {
+        return ref(9, owner, name, descriptor);
+    }
+
+    final int methodRef(String owner, String name, String descriptor) {
+        return ref(10, owner, name, descriptor);
+    }
+
+    final int interfaceMethodRef(String owner, String name, String descriptor) {
+        return ref(11, owner, name, descriptor);
+    }
+
+    private int ref(int tag, String owner, String name, String descriptor) {
+        String key = tag + ":" + owner + "." + name + ":" + descriptor;
+        Integer index = poolIndex.get(key);
+        if (index == null) {
+            int ownerIndex = classRef(owner);
+            int nameAndType = nameAndType(name, descriptor);
+            index = entry(key, tag, ownerIndex, nameAndType);
+        }
+        return index;
+    }
+
+    private int nameAndType(String name, String descriptor) {
+        String key = "12:" + name + ":" + descriptor;
+        Integer index = poolIndex.get(key);
+        if (index == null) {
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            index = entry(key, 12, nameIndex, descriptorIndex);
+        }
+        return index;
+    }
+
+    final int classRef(String name) {
+        String key = "7:" + name;
+        Integer index = poolIndex.get(key);
+        if (index == null) {
+            int nameIndex = utf8(name);
+            index = entry(key, 7, nameIndex);
+        }
+        return index;
+    }
+
+    private int utf8(String value) {
+        String key = "1:" + value;
+        Integer index = poolIndex.get(key);
+        if (index == null) {
+            DataOutputStream out = new DataOutputStream(pool);
+            try {
+                out.writeByte(1);
+                out.writeUTF(value);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            index = ++poolSize;
+            poolIndex.put(key, index);
+        }
+        return index;
+    }
+
+    private int entry(String key, int tag, int... values) {
+        pool.write(tag);
+        for (int value : values) {
+            pool.write(value >>> 8);
+            pool.write(value);
+        }
+        int index = ++poolSize;
+        poolIndex.put(key, index);
+        return index;
+    }
+
+}
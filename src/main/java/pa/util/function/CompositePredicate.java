@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Base class of n-ary predicates, which evaluate a flat array of operands in a loop
+ * instead of a chain of nested lambdas
+ *
+ * @param <T> type
+ * @author Grzegorz Krupinski
+ */
+abstract class CompositePredicate<T> implements BatchPredicate<T> {
+
+    final Predicate<T>[] operands;
+
+    CompositePredicate(Predicate<T>[] operands) {
+        this.operands = operands;
+    }
+
+    @Override
+    public Predicate<T> negate() {
+        return new NotPredicate<>(this);
+    }
+
+    /**
+     * Composite predicates are equal if they are of the same type and have equal operands
+     *
+     * @param o other object
+     * @return true if equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(operands, ((CompositePredicate<?>) o).operands);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * getClass().hashCode() + Arrays.hashCode(operands);
+    }
+
+}
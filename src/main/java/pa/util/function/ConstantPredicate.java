@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.function.Predicate;
+
+/**
+ * Constant predicate - TRUE or FALSE
+ *
+ * @param <T> type
+ * @author Grzegorz Krupinski
+ */
+final class ConstantPredicate<T> implements BatchPredicate<T> {
+
+    private static final ConstantPredicate<?> TRUE = new ConstantPredicate<>(true);
+    private static final ConstantPredicate<?> FALSE = new ConstantPredicate<>(false);
+
+    final boolean value;
+
+    private ConstantPredicate(boolean value) {
+        this.value = value;
+    }
+
+    /**
+     * @param value constant value
+     * @param <T>   type
+     * @return TRUE or FALSE predicate
+     */
+    @SuppressWarnings("unchecked")
+    static <T> ConstantPredicate<T> of(boolean value) {
+        return (ConstantPredicate<T>) (value ? TRUE : FALSE);
+    }
+
+    @Override
+    public boolean test(T t) {
+        return value;
+    }
+
+    @Override
+    public long test(T[] batch, int offset, long mask) {
+        return value ? mask : 0L;
+    }
+
+    @Override
+    public Predicate<T> negate() {
+        return of(!value);
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Set of closed double intervals. Overlapping intervals are merged when the set is built,
+ * so membership is a binary search over sorted disjoint intervals.
+ *
+ * @author Grzegorz Krupinski
+ */
+final class DoubleIntervalSet {
+
+    final double[] starts;
+    final double[] ends;
+
+    /**
+     * @param starts starts of intervals (inclusive)
+     * @param ends   ends of intervals (inclusive), an interval with end lower than start (or NaN) is empty
+     * @param count  number of intervals
+     */
+    DoubleIntervalSet(double[] starts, double[] ends, int count) {
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(starts[a], starts[b]));
+        double[] s = new double[count];
+        double[] e = new double[count];
+        int n = 0;
+        for (int i : order) {
+            if (!(starts[i] <= ends[i])) {
+                continue;
+            }
+            if (n > 0 && starts[i] <= e[n - 1]) {
+                e[n - 1] = Math.max(e[n - 1], ends[i]);
+            } else {
+                s[n] = starts[i];
+                e[n] = ends[i];
+                n++;
+            }
+        }
+        this.starts = Arrays.copyOf(s, n);
+        this.ends = Arrays.copyOf(e, n);
+    }
+
+    static DoubleIntervalSet of(double from, double to) {
+        return new DoubleIntervalSet(new double[]{from}, new double[]{to}, 1);
+    }
+
+    static DoubleIntervalSet union(List<DoubleIntervalSet> sets) {
+        int count = 0;
+        for (DoubleIntervalSet set : sets) {
+            count += set.starts.length;
+        }
+        double[] s = new double[count];
+        double[] e = new double[count];
+        int n = 0;
+        for (DoubleIntervalSet set : sets) {
+            System.arraycopy(set.starts, 0, s, n, set.starts.length);
+            System.arraycopy(set.ends, 0, e, n, set.ends.length);
+            n += set.starts.length;
+        }
+        return new DoubleIntervalSet(s, e, count);
+    }
+
+    boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    boolean contains(double value) {
+        if (Double.isNaN(value)) {
+            return false;
+        }
+        int lo = 0;
+        int hi = starts.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (value < starts[mid]) {
+                hi = mid - 1;
+            } else if (value > ends[mid]) {
+                lo = mid + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DoubleIntervalSet && Arrays.equals(starts, ((DoubleIntervalSet) o).starts)
+                && Arrays.equals(ends, ((DoubleIntervalSet) o).ends);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(starts) + Arrays.hashCode(ends);
+    }
+
+}
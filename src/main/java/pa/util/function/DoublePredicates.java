@@ -0,0 +1,459 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.DoublePredicate;
+
+/**
+ * DoublePredicates is a utility class, which provides methods to operate on double predicates (without boxing).
+ * It offers the same operations as {@link Predicates}.
+ * <p>
+ * Logical operations: NOT, AND, OR, NAND, NOR, XAND, XOR
+ * <p>
+ * Extra operations: NONE(=NOR), ALL(=AND)
+ * <p>
+ * Multi arguments (more than two arguments) logical operations: AND, OR, NAND, NOR, XAND, XOR
+ * <p>
+ * Extra operations: NONE(=NOR), ALL(=AND)
+ *
+ * @author Grzegorz Krupinski
+ */
+public final class DoublePredicates {
+
+    private static final DoublePredicate TRUE = (double t) -> true;
+    private static final DoublePredicate FALSE = (double t) -> false;
+
+    private DoublePredicates() {
+    }
+
+    /**
+     * Predicate TRUE - useful in tests
+     *
+     * @return always true
+     */
+    public static DoublePredicate pTrue() {
+        return TRUE;
+    }
+
+    /**
+     * Predicate FALSE - useful in tests
+     *
+     * @return always false
+     */
+    public static DoublePredicate pFalse() {
+        return FALSE;
+    }
+
+    /**
+     * Predicate to change member reference into DoublePredicate (you can use methods
+     * of DoublePredicate class e.g. negate())
+     *
+     * @param p predicate or member reference
+     * @return DoublePredicate
+     */
+    public static DoublePredicate predicate(DoublePredicate p) {
+        return p;
+    }
+
+    /**
+     * Logical negation - NOT
+     *
+     * @param p predicate
+     * @return NOT predicate
+     */
+    public static DoublePredicate not(DoublePredicate p) {
+        if (p instanceof Not) {
+            return ((Not) p).operand;
+        }
+        return new Not(Objects.requireNonNull(p));
+    }
+
+    /**
+     * Logical NOR (not OR=none)
+     *
+     * @param p1 param1
+     * @param p2 param2
+     * @return if none
+     */
+    public static DoublePredicate none(DoublePredicate p1, DoublePredicate p2) {
+        return nor(p1, p2);
+    }
+
+    /**
+     * Logical conjunction - AND (=all)
+     *
+     * @param p1 param1
+     * @param p2 param2
+     * @return if all
+     */
+    public static DoublePredicate all(DoublePredicate p1, DoublePredicate p2) {
+        return and(p1, p2);
+    }
+
+    /**
+     * Logical implication - COND
+     *
+     * @param p param1
+     * @param q param2
+     * @return if p then q
+     */
+    public static DoublePredicate cond(DoublePredicate p, DoublePredicate q) {
+        return or(not(p), q);
+    }
+
+    /**
+     * Logical conjunction - AND
+     *
+     * @param p1 predicate 1
+     * @param p2 predicate 2
+     * @return AND predicate
+     */
+    public static DoublePredicate and(DoublePredicate p1, DoublePredicate p2) {
+        return and(new DoublePredicate[]{p1, p2});
+    }
+
+    /**
+     * Logical NAND
+     *
+     * @param p1 predicate 1
+     * @param p2 predicate 2
+     * @return NAND predicate
+     */
+    public static DoublePredicate nand(DoublePredicate p1, DoublePredicate p2) {
+        return nand(new DoublePredicate[]{p1, p2});
+    }
+
+    /**
+     * Exclusive conjunction - XAND
+     *
+     * @param p1 predicate 1
+     * @param p2 predicate 2
+     * @return XAND predicate
+     */
+    public static DoublePredicate xand(DoublePredicate p1, DoublePredicate p2) {
+        return xand(new DoublePredicate[]{p1, p2});
+    }
+
+    /**
+     * Logical disjunction - OR
+     *
+     * @param p1 predicate 1
+     * @param p2 predicate 2
+     * @return OR predicate
+     */
+    public static DoublePredicate or(DoublePredicate p1, DoublePredicate p2) {
+        return or(new DoublePredicate[]{p1, p2});
+    }
+
+    /**
+     * Logical NOR
+     *
+     * @param p1 predicate 1
+     * @param p2 predicate 2
+     * @return NOR predicate
+     */
+    public static DoublePredicate nor(DoublePredicate p1, DoublePredicate p2) {
+        return nor(new DoublePredicate[]{p1, p2});
+    }
+
+    /**
+     * Exclusive disjunction - XOR
+     *
+     * @param p1 predicate 1
+     * @param p2 predicate 2
+     * @return XOR predicate
+     */
+    public static DoublePredicate xor(DoublePredicate p1, DoublePredicate p2) {
+        return xor(new DoublePredicate[]{p1, p2});
+    }
+
+    /**
+     * Logical NOR (=NONE)
+     *
+     * @param predicates list of predicates
+     * @return NOR predicate
+     */
+    public static DoublePredicate none(DoublePredicate... predicates) {
+        return nor(predicates);
+    }
+
+    /**
+     * Logical AND (=ALL)
+     *
+     * @param predicates list of predicates
+     * @return AND predicate
+     */
+    public static DoublePredicate all(DoublePredicate... predicates) {
+        return and(predicates);
+    }
+
+    /**
+     * Logical AND
+     *
+     * @param predicates list of predicates
+     * @return AND predicate
+     */
+    public static DoublePredicate and(DoublePredicate... predicates) {
+        DoublePredicate[] operands = flatten(And.class, predicates);
+        return operands.length == 1 ? operands[0] : new And(operands);
+    }
+
+    /**
+     * Logical NAND
+     *
+     * @param predicates list of predicates
+     * @return NAND predicate
+     */
+    public static DoublePredicate nand(DoublePredicate... predicates) {
+        return not(and(predicates));
+    }
+
+    /**
+     * Logical OR
+     *
+     * @param predicates list of predicates
+     * @return OR predicate
+     */
+    public static DoublePredicate or(DoublePredicate... predicates) {
+        DoublePredicate[] operands = fuseRanges(flatten(Or.class, predicates));
+        return operands.length == 1 ? operands[0] : new Or(operands);
+    }
+
+    /**
+     * Logical NOR
+     *
+     * @param predicates list of predicates
+     * @return NOR predicate
+     */
+    public static DoublePredicate nor(DoublePredicate... predicates) {
+        return not(or(predicates));
+    }
+
+    /**
+     * Exclusive conjunction - XAND (all predicates give the same result)
+     *
+     * @param predicates list of predicates
+     * @return XAND predicate
+     */
+    public static DoublePredicate xand(DoublePredicate... predicates) {
+        Predicates.checkPredicatesCount(predicates.length);
+        for (DoublePredicate p : predicates) {
+            Objects.requireNonNull(p);
+        }
+        return predicates.length == 1 ? pTrue() : new Xand(predicates.clone());
+    }
+
+    /**
+     * Exclusive disjunction - XOR (odd number of predicates is true)
+     *
+     * @param predicates list of predicates
+     * @return XOR predicate
+     */
+    public static DoublePredicate xor(DoublePredicate... predicates) {
+        DoublePredicate[] operands = flatten(Xor.class, predicates);
+        return operands.length == 1 ? operands[0] : new Xor(operands);
+    }
+
+    /**
+     * Range of values: from &lt;= value &lt;= to. OR of ranges is fused into one set of merged intervals
+     * (a binary search).
+     *
+     * @param from lower bound (inclusive)
+     * @param to   upper bound (inclusive)
+     * @return range predicate (FALSE if from &gt; to or a bound is NaN)
+     */
+    public static DoublePredicate between(double from, double to) {
+        return !(from <= to) ? FALSE : new Between(DoubleIntervalSet.of(from, to));
+    }
+
+    /**
+     * Fuses range operands of OR into one range predicate placed at the position of the first of them
+     *
+     * @param operands operands of OR
+     * @return array of operands
+     */
+    private static DoublePredicate[] fuseRanges(DoublePredicate[] operands) {
+        List<DoubleIntervalSet> ranges = new ArrayList<>();
+        for (DoublePredicate p : operands) {
+            if (p instanceof Between) {
+                ranges.add(((Between) p).intervals);
+            }
+        }
+        if (ranges.size() < 2) {
+            return operands;
+        }
+        List<DoublePredicate> fused = new ArrayList<>(operands.length - ranges.size() + 1);
+        boolean added = false;
+        for (DoublePredicate p : operands) {
+            if (!(p instanceof Between)) {
+                fused.add(p);
+            } else if (!added) {
+                fused.add(new Between(DoubleIntervalSet.union(ranges)));
+                added = true;
+            }
+        }
+        return fused.toArray(new DoublePredicate[0]);
+    }
+
+    /**
+     * Produces flat array of operands - operands of the same node type are absorbed
+     *
+     * @param node       node type, which operands are absorbed
+     * @param predicates array of predicates
+     * @return array of operands
+     */
+    private static DoublePredicate[] flatten(Class<? extends Composite> node, DoublePredicate[] predicates) {
+        Predicates.checkPredicatesCount(predicates.length);
+        List<DoublePredicate> operands = new ArrayList<>(predicates.length);
+        for (DoublePredicate p : predicates) {
+            Objects.requireNonNull(p);
+            if (node.isInstance(p)) {
+                Collections.addAll(operands, ((Composite) p).operands);
+            } else {
+                operands.add(p);
+            }
+        }
+        return operands.toArray(new DoublePredicate[0]);
+    }
+
+    /**
+     * Base class of n-ary predicates, which evaluate a flat array of operands in a loop
+     */
+    abstract static class Composite implements DoublePredicate {
+
+        final DoublePredicate[] operands;
+
+        Composite(DoublePredicate[] operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        public DoublePredicate negate() {
+            return new Not(this);
+        }
+    }
+
+    static final class And extends Composite {
+
+        And(DoublePredicate[] operands) {
+            super(operands);
+        }
+
+        @Override
+        public boolean test(double t) {
+            for (DoublePredicate p : operands) {
+                if (!p.test(t)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    static final class Or extends Composite {
+
+        Or(DoublePredicate[] operands) {
+            super(operands);
+        }
+
+        @Override
+        public boolean test(double t) {
+            for (DoublePredicate p : operands) {
+                if (p.test(t)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    static final class Xor extends Composite {
+
+        Xor(DoublePredicate[] operands) {
+            super(operands);
+        }
+
+        @Override
+        public boolean test(double t) {
+            boolean result = false;
+            for (DoublePredicate p : operands) {
+                result ^= p.test(t);
+            }
+            return result;
+        }
+    }
+
+    static final class Xand extends Composite {
+
+        Xand(DoublePredicate[] operands) {
+            super(operands);
+        }
+
+        @Override
+        public boolean test(double t) {
+            boolean first = operands[0].test(t);
+            for (int i = 1; i < operands.length; i++) {
+                if (operands[i].test(t) != first) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    static final class Not implements DoublePredicate {
+
+        final DoublePredicate operand;
+
+        Not(DoublePredicate operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public boolean test(double t) {
+            return !operand.test(t);
+        }
+
+        @Override
+        public DoublePredicate negate() {
+            return operand;
+        }
+    }
+
+    /**
+     * Membership in a set of merged intervals
+     */
+    static final class Between implements DoublePredicate {
+
+        final DoubleIntervalSet intervals;
+
+        Between(DoubleIntervalSet intervals) {
+            this.intervals = intervals;
+        }
+
+        @Override
+        public boolean test(double t) {
+            return intervals.contains(t);
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Membership of an extracted double key in a set of intervals. Predicates with the same extractor
+ * (the same instance) are fused by OR into one interval set.
+ *
+ * @param <T> type
+ * @author Grzegorz Krupinski
+ */
+final class DoubleRangePredicate<T> implements Predicate<T> {
+
+    final ToDoubleFunction<? super T> extractor;
+    final DoubleIntervalSet intervals;
+
+    DoubleRangePredicate(ToDoubleFunction<? super T> extractor, DoubleIntervalSet intervals) {
+        this.extractor = extractor;
+        this.intervals = intervals;
+    }
+
+    /**
+     * @return range predicate or FALSE if the interval set is empty
+     */
+    static <T> Predicate<T> of(ToDoubleFunction<? super T> extractor, DoubleIntervalSet intervals) {
+        return intervals.isEmpty() ? Predicates.pFalse() : new DoubleRangePredicate<>(extractor, intervals);
+    }
+
+    @Override
+    public boolean test(T t) {
+        return intervals.contains(extractor.applyAsDouble(t));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof DoubleRangePredicate)) {
+            return false;
+        }
+        DoubleRangePredicate<?> other = (DoubleRangePredicate<?>) o;
+        return extractor == other.extractor && intervals.equals(other.intervals);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(extractor) + intervals.hashCode();
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Equality of an extracted key and a value. Predicates with the same extractor (the same instance)
+ * are fused by OR into one {@link InPredicate}.
+ *
+ * @param <T> type
+ * @author Grzegorz Krupinski
+ */
+final class EqPredicate<T> implements Predicate<T> {
+
+    final Function<? super T, ?> extractor;
+    final Object value;
+
+    EqPredicate(Function<? super T, ?> extractor, Object value) {
+        this.extractor = extractor;
+        this.value = value;
+    }
+
+    @Override
+    public boolean test(T t) {
+        return Objects.equals(extractor.apply(t), value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof EqPredicate)) {
+            return false;
+        }
+        EqPredicate<?> other = (EqPredicate<?>) o;
+        return extractor == other.extractor && Objects.equals(value, other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(extractor) + Objects.hashCode(value);
+    }
+
+}
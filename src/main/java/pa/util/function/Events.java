@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+/**
+ * Diagnostic events - no-op on Java 8. On Java 11+ it is replaced by Java Flight Recorder events
+ * (swallowed exceptions and slow evaluations of instrumented predicates - only predicates wrapped by
+ * {@link Predicates#instrumented(String, java.util.function.Predicate)} are timed).
+ * Methods are called only on exception or sampled paths, so the base version costs nothing.
+ *
+ * @author Grzegorz Krupinski
+ */
+final class Events {
+
+    private Events() {
+    }
+
+    /**
+     * Records an exception swallowed by NullSafeUtils
+     *
+     * @param source    supplier, function or path, which has thrown the exception (only its class is recorded)
+     * @param exception exception
+     */
+    static void swallowed(Object source, RuntimeException exception) {
+        // no-op
+    }
+
+    /**
+     * Starts timing of a sampled evaluation of an instrumented predicate
+     *
+     * @return token passed to {@link #endEvaluation(Object, String, boolean)} (null if events are disabled)
+     */
+    static Object beginEvaluation() {
+        return null;
+    }
+
+    /**
+     * Ends timing of a sampled evaluation of an instrumented predicate
+     *
+     * @param token  token returned by {@link #beginEvaluation()}
+     * @param name   name of the instrumented predicate
+     * @param result result of the evaluation
+     */
+    static void endEvaluation(Object token, String name, boolean result) {
+        // no-op
+    }
+
+}
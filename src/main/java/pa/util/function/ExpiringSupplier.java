@@ -0,0 +1,194 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe memoizing supplier with a time to live. In the last quarter of the ttl the value is refreshed
+ * in the background while the old value is still returned, so the callers do not wait for the supplier.
+ * Only an expired (or missing) value is loaded synchronously.
+ * <p>
+ * At most one load runs at a time: callers of an expired value wait for the running load (also a background
+ * refresh) and get its result, a refresh still waiting in the executor is taken over by the caller.
+ * Null and failures (RuntimeException) are not cached - the last good value is returned instead, waiting
+ * callers of a failed first load get null. After a failed refresh the next one starts not earlier than
+ * after a backoff of a quarter of the refresh window.
+ *
+ * @param <S> type
+ * @author Grzegorz Krupinski
+ * @see NullSafeUtils#memoize(Supplier, java.time.Duration, Executor)
+ */
+final class ExpiringSupplier<S> implements Supplier<S> {
+
+    private static final class Entry<S> {
+        final S value;
+        final long refreshAt;
+        final long expiresAt;
+        final long generation;
+
+        Entry(S value, long refreshAt, long expiresAt, long generation) {
+            this.value = value;
+            this.refreshAt = refreshAt;
+            this.expiresAt = expiresAt;
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * Load run by the first thread claiming it, the other callers wait for its result
+     */
+    private static final class Load<S> extends CompletableFuture<S> {
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    private final Supplier<S> supplier;
+    private final long ttlNanos;
+    private final long refreshAheadNanos;
+    private final long backoffNanos;
+    private final Executor executor;
+    private final AtomicLong generations = new AtomicLong();
+    private final AtomicReference<Load<S>> loading = new AtomicReference<>();
+    private final AtomicReference<Entry<S>> entry = new AtomicReference<>();
+
+    ExpiringSupplier(Supplier<S> supplier, long ttlNanos, Executor executor) {
+        this.supplier = Objects.requireNonNull(supplier);
+        this.ttlNanos = ttlNanos;
+        this.refreshAheadNanos = Math.max(ttlNanos / 4, 1);
+        this.backoffNanos = Math.max(refreshAheadNanos / 4, 1);
+        this.executor = executor;
+    }
+
+    @Override
+    public S get() {
+        Entry<S> e = entry.get();
+        long now = System.nanoTime();
+        if (e != null && now - e.expiresAt < 0) {
+            if (now - e.refreshAt >= 0 && loading.get() == null) {
+                refreshAsync();
+            }
+            return e.value;
+        }
+        return load();
+    }
+
+    private S load() {
+        Load<S> load = loading.get();
+        if (load == null) {
+            Load<S> created = new Load<>();
+            load = loading.compareAndSet(null, created) ? created : loading.get();
+            if (load == null) {
+                // the other load has just finished
+                return get();
+            }
+        }
+        if (load.claim()) {
+            run(load);
+        }
+        return load.join();
+    }
+
+    private void refreshAsync() {
+        Load<S> load = new Load<>();
+        if (!loading.compareAndSet(null, load)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                if (load.claim()) {
+                    run(load);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // not completed - a caller, which has already taken the load, claims and runs it itself,
+            // otherwise the value is refreshed by the next caller
+            loading.compareAndSet(load, null);
+        }
+    }
+
+    private void run(Load<S> load) {
+        S result = null;
+        try {
+            long generation = generations.incrementAndGet();
+            S value = compute();
+            long now = System.nanoTime();
+            result = value != null ? publish(value, now, generation) : keepLastValue(now);
+        } finally {
+            loading.compareAndSet(load, null);
+            load.complete(result);
+        }
+    }
+
+    /**
+     * Publishes the value unless a newer load has been published already
+     *
+     * @return the current value
+     */
+    private S publish(S value, long now, long generation) {
+        Entry<S> next = new Entry<>(value, now + ttlNanos - refreshAheadNanos, now + ttlNanos, generation);
+        while (true) {
+            Entry<S> e = entry.get();
+            if (e != null && e.generation > generation) {
+                return e.value;
+            }
+            if (entry.compareAndSet(e, next)) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Keeps the last good value (an expired one for one more refresh window) and retries in the background
+     * after the backoff
+     *
+     * @return the last good value or null
+     */
+    private S keepLastValue(long now) {
+        Entry<S> e = entry.get();
+        if (e == null) {
+            return null;
+        }
+        long refreshAt = now + backoffNanos;
+        if (refreshAt - e.refreshAt > 0) {
+            long expiresAt = now - e.expiresAt >= 0 ? now + refreshAheadNanos : e.expiresAt;
+            entry.compareAndSet(e, new Entry<>(e.value, refreshAt, expiresAt, e.generation));
+        }
+        return e.value;
+    }
+
+    private S compute() {
+        try {
+            return supplier.get();
+        } catch (RuntimeException ex) {
+            Events.swallowed(supplier, ex);
+            return null;
+        }
+    }
+
+}
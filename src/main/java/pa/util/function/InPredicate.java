@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Membership of an extracted key in a hash set of values
+ *
+ * @param <T> type
+ * @author Grzegorz Krupinski
+ */
+final class InPredicate<T> implements Predicate<T> {
+
+    final Function<? super T, ?> extractor;
+    final Set<Object> values;
+
+    InPredicate(Function<? super T, ?> extractor, Set<Object> values) {
+        this.extractor = extractor;
+        this.values = values;
+    }
+
+    @Override
+    public boolean test(T t) {
+        return values.contains(extractor.apply(t));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof InPredicate)) {
+            return false;
+        }
+        InPredicate<?> other = (InPredicate<?>) o;
+        return extractor == other.extractor && values.equals(other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(extractor) + values.hashCode();
+    }
+
+}
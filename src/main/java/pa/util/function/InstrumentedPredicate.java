@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Predicate, which counts its invocations and true results in striped counters and measures latency
+ * of one of SAMPLE_RATE invocations (chosen at random)
+ *
+ * @param <T> type
+ * @author Grzegorz Krupinski
+ * @see Predicates#instrumented(String, Predicate)
+ * @see Predicates#stats(Predicate)
+ */
+final class InstrumentedPredicate<T> implements BatchPredicate<T> {
+
+    static final int SAMPLE_RATE = 64;
+
+    final String name;
+    final Predicate<T> delegate;
+
+    final LongAdder invocations = new LongAdder();
+    final LongAdder trueCount = new LongAdder();
+    final LongAdder samples = new LongAdder();
+    final LongAdder sampledNanos = new LongAdder();
+
+    InstrumentedPredicate(String name, Predicate<T> delegate) {
+        this.name = name;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean test(T t) {
+        boolean result;
+        if (ThreadLocalRandom.current().nextInt(SAMPLE_RATE) == 0) {
+            Object event = Events.beginEvaluation();
+            long start = System.nanoTime();
+            result = delegate.test(t);
+            sampledNanos.add(System.nanoTime() - start);
+            samples.increment();
+            Events.endEvaluation(event, name, result);
+        } else {
+            result = delegate.test(t);
+        }
+        invocations.increment();
+        if (result) {
+            trueCount.increment();
+        }
+        return result;
+    }
+
+    @Override
+    public long test(T[] batch, int offset, long mask) {
+        int count = Long.bitCount(mask);
+        long start = System.nanoTime();
+        long result = Predicates.test(delegate, batch, offset, mask);
+        sampledNanos.add(System.nanoTime() - start);
+        samples.add(count);
+        invocations.add(count);
+        trueCount.add(Long.bitCount(result));
+        return result;
+    }
+
+    @Override
+    public Predicate<T> negate() {
+        return new NotPredicate<>(this);
+    }
+
+}
@@ -0,0 +1,487 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * IntPredicates is a utility class, which provides methods to operate on int predicates (without boxing).
+ * It offers the same operations as {@link Predicates}.
+ * <p>
+ * Logical operations: NOT, AND, OR, NAND, NOR, XAND, XOR
+ * <p>
+ * Extra operations: NONE(=NOR), ALL(=AND)
+ * <p>
+ * Multi arguments (more than two arguments) logical operations: AND, OR, NAND, NOR, XAND, XOR
+ * <p>
+ * Extra operations: NONE(=NOR), ALL(=AND)
+ *
+ * @author Grzegorz Krupinski
+ */
+public final class IntPredicates {
+
+    private static final IntPredicate TRUE = (int t) -> true;
+    private static final IntPredicate FALSE = (int t) -> false;
+
+    private IntPredicates() {
+    }
+
+    /**
+     * Predicate TRUE - useful in tests
+     *
+     * @return always true
+     */
+    public static IntPredicate pTrue() {
+        return TRUE;
+    }
+
+    /**
+     * Predicate FALSE - useful in tests
+     *
+     * @return always false
+     */
+    public static IntPredicate pFalse() {
+        return FALSE;
+    }
+
+    /**
+     * Predicate to change member reference into IntPredicate (you can use methods
+     * of IntPredicate class e.g. negate())
+     *
+     * @param p predicate or member reference
+     * @return IntPredicate
+     */
+    public static IntPredicate predicate(IntPredicate p) {
+        return p;
+    }
+
+    /**
+     * Logical negation - NOT
+     *
+     * @param p predicate
+     * @return NOT predicate
+     */
+    public static IntPredicate not(IntPredicate p) {
+        if (p instanceof Not) {
+            return ((Not) p).operand;
+        }
+        return new Not(Objects.requireNonNull(p));
+    }
+
+    /**
+     * Logical NOR (not OR=none)
+     *
+     * @param p1 param1
+     * @param p2 param2
+     * @return if none
+     */
+    public static IntPredicate none(IntPredicate p1, IntPredicate p2) {
+        return nor(p1, p2);
+    }
+
+    /**
+     * Logical conjunction - AND (=all)
+     *
+     * @param p1 param1
+     * @param p2 param2
+     * @return if all
+     */
+    public static IntPredicate all(IntPredicate p1, IntPredicate p2) {
+        return and(p1, p2);
+    }
+
+    /**
+     * Logical implication - COND
+     *
+     * @param p param1
+     * @param q param2
+     * @return if p then q
+     */
+    public static IntPredicate cond(IntPredicate p, IntPredicate q) {
+        return or(not(p), q);
+    }
+
+    /**
+     * Logical conjunction - AND
+     *
+     * @param p1 predicate 1
+     * @param p2 predicate 2
+     * @return AND predicate
+     */
+    public static IntPredicate and(IntPredicate p1, IntPredicate p2) {
+        return and(new IntPredicate[]{p1, p2});
+    }
+
+    /**
+     * Logical NAND
+     *
+     * @param p1 predicate 1
+     * @param p2 predicate 2
+     * @return NAND predicate
+     */
+    public static IntPredicate nand(IntPredicate p1, IntPredicate p2) {
+        return nand(new IntPredicate[]{p1, p2});
+    }
+
+    /**
+     * Exclusive conjunction - XAND
+     *
+     * @param p1 predicate 1
+     * @param p2 predicate 2
+     * @return XAND predicate
+     */
+    public static IntPredicate xand(IntPredicate p1, IntPredicate p2) {
+        return xand(new IntPredicate[]{p1, p2});
+    }
+
+    /**
+     * Logical disjunction - OR
+     *
+     * @param p1 predicate 1
+     * @param p2 predicate 2
+     * @return OR predicate
+     */
+    public static IntPredicate or(IntPredicate p1, IntPredicate p2) {
+        return or(new IntPredicate[]{p1, p2});
+    }
+
+    /**
+     * Logical NOR
+     *
+     * @param p1 predicate 1
+     * @param p2 predicate 2
+     * @return NOR predicate
+     */
+    public static IntPredicate nor(IntPredicate p1, IntPredicate p2) {
+        return nor(new IntPredicate[]{p1, p2});
+    }
+
+    /**
+     * Exclusive disjunction - XOR
+     *
+     * @param p1 predicate 1
+     * @param p2 predicate 2
+     * @return XOR predicate
+     */
+    public static IntPredicate xor(IntPredicate p1, IntPredicate p2) {
+        return xor(new IntPredicate[]{p1, p2});
+    }
+
+    /**
+     * Logical NOR (=NONE)
+     *
+     * @param predicates list of predicates
+     * @return NOR predicate
+     */
+    public static IntPredicate none(IntPredicate... predicates) {
+        return nor(predicates);
+    }
+
+    /**
+     * Logical AND (=ALL)
+     *
+     * @param predicates list of predicates
+     * @return AND predicate
+     */
+    public static IntPredicate all(IntPredicate... predicates) {
+        return and(predicates);
+    }
+
+    /**
+     * Logical AND
+     *
+     * @param predicates list of predicates
+     * @return AND predicate
+     */
+    public static IntPredicate and(IntPredicate... predicates) {
+        IntPredicate[] operands = flatten(And.class, predicates);
+        return operands.length == 1 ? operands[0] : new And(operands);
+    }
+
+    /**
+     * Logical NAND
+     *
+     * @param predicates list of predicates
+     * @return NAND predicate
+     */
+    public static IntPredicate nand(IntPredicate... predicates) {
+        return not(and(predicates));
+    }
+
+    /**
+     * Logical OR
+     *
+     * @param predicates list of predicates
+     * @return OR predicate
+     */
+    public static IntPredicate or(IntPredicate... predicates) {
+        IntPredicate[] operands = flatten(Or.class, predicates);
+        return operands.length == 1 ? operands[0] : new Or(operands);
+    }
+
+    /**
+     * Logical NOR
+     *
+     * @param predicates list of predicates
+     * @return NOR predicate
+     */
+    public static IntPredicate nor(IntPredicate... predicates) {
+        return not(or(predicates));
+    }
+
+    /**
+     * Exclusive conjunction - XAND (all predicates give the same result)
+     *
+     * @param predicates list of predicates
+     * @return XAND predicate
+     */
+    public static IntPredicate xand(IntPredicate... predicates) {
+        Predicates.checkPredicatesCount(predicates.length);
+        for (IntPredicate p : predicates) {
+            Objects.requireNonNull(p);
+        }
+        return predicates.length == 1 ? pTrue() : new Xand(predicates.clone());
+    }
+
+    /**
+     * Exclusive disjunction - XOR (odd number of predicates is true)
+     *
+     * @param predicates list of predicates
+     * @return XOR predicate
+     */
+    public static IntPredicate xor(IntPredicate... predicates) {
+        IntPredicate[] operands = flatten(Xor.class, predicates);
+        return operands.length == 1 ? operands[0] : new Xor(operands);
+    }
+
+    /**
+     * Membership of the value in the set of values - a bitset for a dense range of values,
+     * otherwise an open-addressing hash set (no boxing in both cases)
+     *
+     * @param values accepted values
+     * @return in predicate
+     */
+    public static IntPredicate in(int... values) {
+        return values.length == 0 ? FALSE : new In(values);
+    }
+
+    /**
+     * Produces flat array of operands - operands of the same node type are absorbed
+     *
+     * @param node       node type, which operands are absorbed
+     * @param predicates array of predicates
+     * @return array of operands
+     */
+    private static IntPredicate[] flatten(Class<? extends Composite> node, IntPredicate[] predicates) {
+        Predicates.checkPredicatesCount(predicates.length);
+        List<IntPredicate> operands = new ArrayList<>(predicates.length);
+        for (IntPredicate p : predicates) {
+            Objects.requireNonNull(p);
+            if (node.isInstance(p)) {
+                Collections.addAll(operands, ((Composite) p).operands);
+            } else {
+                operands.add(p);
+            }
+        }
+        return operands.toArray(new IntPredicate[0]);
+    }
+
+    /**
+     * Base class of n-ary predicates, which evaluate a flat array of operands in a loop
+     */
+    abstract static class Composite implements IntPredicate {
+
+        final IntPredicate[] operands;
+
+        Composite(IntPredicate[] operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        public IntPredicate negate() {
+            return new Not(this);
+        }
+    }
+
+    static final class And extends Composite {
+
+        And(IntPredicate[] operands) {
+            super(operands);
+        }
+
+        @Override
+        public boolean test(int t) {
+            for (IntPredicate p : operands) {
+                if (!p.test(t)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    static final class Or extends Composite {
+
+        Or(IntPredicate[] operands) {
+            super(operands);
+        }
+
+        @Override
+        public boolean test(int t) {
+            for (IntPredicate p : operands) {
+                if (p.test(t)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    static final class Xor extends Composite {
+
+        Xor(IntPredicate[] operands) {
+            super(operands);
+        }
+
+        @Override
+        public boolean test(int t) {
+            boolean result = false;
+            for (IntPredicate p : operands) {
+                result ^= p.test(t);
+            }
+            return result;
+        }
+    }
+
+    static final class Xand extends Composite {
+
+        Xand(IntPredicate[] operands) {
+            super(operands);
+        }
+
+        @Override
+        public boolean test(int t) {
+            boolean first = operands[0].test(t);
+            for (int i = 1; i < operands.length; i++) {
+                if (operands[i].test(t) != first) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    static final class Not implements IntPredicate {
+
+        final IntPredicate operand;
+
+        Not(IntPredicate operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public boolean test(int t) {
+            return !operand.test(t);
+        }
+
+        @Override
+        public IntPredicate negate() {
+            return operand;
+        }
+    }
+
+    /**
+     * Set of int values: a bitset if the range of values is small compared to their count
+     * (at most 64 bits per value or 4096 bits), otherwise a hash set with linear probing
+     */
+    static final class In implements IntPredicate {
+
+        private static final int MIN_BITSET = 4096;
+
+        private final int min;
+        private final long range;
+        private final long[] bits;
+        private final int[] table;
+        private final boolean zero;
+
+        In(int[] values) {
+            int lo = values[0];
+            int hi = values[0];
+            for (int v : values) {
+                lo = Math.min(lo, v);
+                hi = Math.max(hi, v);
+            }
+            min = lo;
+            range = (long) hi - lo + 1;
+            boolean hasZero = false;
+            if (range <= Math.max(MIN_BITSET, 64L * values.length)) {
+                bits = new long[(int) ((range + 63) >>> 6)];
+                for (int v : values) {
+                    long offset = (long) v - lo;
+                    bits[(int) (offset >>> 6)] |= 1L << offset;
+                }
+                table = null;
+            } else {
+                bits = null;
+                table = new int[Integer.highestOneBit(values.length * 2 - 1) << 1];
+                for (int v : values) {
+                    if (v == 0) {
+                        hasZero = true;
+                        continue;
+                    }
+                    int i = index(v);
+                    while (table[i] != 0 && table[i] != v) {
+                        i = (i + 1) & (table.length - 1);
+                    }
+                    table[i] = v;
+                }
+            }
+            zero = hasZero;
+        }
+
+        private int index(int v) {
+            int h = v * 0x9e3779b9;
+            return (h ^ (h >>> 16)) & (table.length - 1);
+        }
+
+        @Override
+        public boolean test(int t) {
+            if (bits != null) {
+                long offset = (long) t - min;
+                return offset >= 0 && offset < range && (bits[(int) (offset >>> 6)] & (1L << offset)) != 0;
+            }
+            if (t == 0) {
+                return zero;
+            }
+            for (int i = index(t); ; i = (i + 1) & (table.length - 1)) {
+                int v = table[i];
+                if (v == t) {
+                    return true;
+                }
+                if (v == 0) {
+                    return false;
+                }
+            }
+        }
+    }
+
+}
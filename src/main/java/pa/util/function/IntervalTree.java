@@ -0,0 +1,188 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.function.Consumer;
+
+/**
+ * Interval tree - a treap ordered by starts of closed long intervals and augmented with the maximal end
+ * in each subtree. Insertion and removal take O(log n) expected time, a stabbing query takes O(log n + k)
+ * for k found intervals. Not thread-safe.
+ *
+ * @param <V> type of values
+ * @author Grzegorz Krupinski
+ */
+final class IntervalTree<V> {
+
+    static final class Node<V> {
+        final long start;
+        final long end;
+        final long seq;
+        final int priority;
+        final V value;
+        long maxEnd;
+        Node<V> left;
+        Node<V> right;
+
+        Node(long start, long end, long seq, int priority, V value) {
+            this.start = start;
+            this.end = end;
+            this.seq = seq;
+            this.priority = priority;
+            this.value = value;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node<V> root;
+    private long seq;
+    private int random = 0x2545f491;
+    private int size;
+
+    /**
+     * Inserts interval [start, end]
+     *
+     * @return node, which removes the interval by {@link #remove(Node)}
+     */
+    Node<V> insert(long start, long end, V value) {
+        random ^= random << 13;
+        random ^= random >>> 17;
+        random ^= random << 5;
+        Node<V> node = new Node<>(start, end, seq++, random, value);
+        root = insert(root, node);
+        size++;
+        return node;
+    }
+
+    void remove(Node<V> node) {
+        int before = size;
+        root = remove(root, node);
+        if (before == size) {
+            throw new IllegalStateException("Interval not found");
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Visits values of all intervals containing the point
+     */
+    void stab(long point, Consumer<? super V> visitor) {
+        stab(root, point, visitor);
+    }
+
+    private static <V> void stab(Node<V> t, long point, Consumer<? super V> visitor) {
+        while (t != null && t.maxEnd >= point) {
+            stab(t.left, point, visitor);
+            if (t.start > point) {
+                return;
+            }
+            if (point <= t.end) {
+                visitor.accept(t.value);
+            }
+            t = t.right;
+        }
+    }
+
+    private static <V> boolean before(Node<V> a, Node<V> b) {
+        return a.start < b.start || a.start == b.start && a.seq < b.seq;
+    }
+
+    private static <V> Node<V> insert(Node<V> t, Node<V> node) {
+        if (t == null) {
+            return node;
+        }
+        if (before(node, t)) {
+            t.left = insert(t.left, node);
+            if (t.left.priority > t.priority) {
+                t = rotateRight(t);
+            }
+        } else {
+            t.right = insert(t.right, node);
+            if (t.right.priority > t.priority) {
+                t = rotateLeft(t);
+            }
+        }
+        update(t);
+        return t;
+    }
+
+    private Node<V> remove(Node<V> t, Node<V> node) {
+        if (t == null) {
+            return null;
+        }
+        if (t == node) {
+            size--;
+            return merge(t.left, t.right);
+        }
+        if (before(node, t)) {
+            t.left = remove(t.left, node);
+        } else {
+            t.right = remove(t.right, node);
+        }
+        update(t);
+        return t;
+    }
+
+    private static <V> Node<V> merge(Node<V> a, Node<V> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    private static <V> Node<V> rotateRight(Node<V> t) {
+        Node<V> l = t.left;
+        t.left = l.right;
+        l.right = t;
+        update(t);
+        return l;
+    }
+
+    private static <V> Node<V> rotateLeft(Node<V> t) {
+        Node<V> r = t.right;
+        t.right = r.left;
+        r.left = t;
+        update(t);
+        return r;
+    }
+
+    private static <V> void update(Node<V> t) {
+        long max = t.end;
+        if (t.left != null && t.left.maxEnd > max) {
+            max = t.left.maxEnd;
+        }
+        if (t.right != null && t.right.maxEnd > max) {
+            max = t.right.maxEnd;
+        }
+        t.maxEnd = max;
+    }
+
+}
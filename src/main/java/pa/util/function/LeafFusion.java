@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Fusion of OR operands testing the same key (the same extractor instance): eq and in predicates are fused
+ * into one hash set lookup, range predicates into one interval set
+ * (e.g. or(eq(f, 1), p, eq(f, 2)) gives [in(f, [1, 2]), p])
+ *
+ * @author Grzegorz Krupinski
+ * @see Predicates#or(Predicate[])
+ */
+final class LeafFusion {
+
+    private enum Kind {
+        MEMBERSHIP, LONG_RANGE, DOUBLE_RANGE
+    }
+
+    /**
+     * Kind of fusion and the extractor (compared by identity)
+     */
+    private static final class Key {
+        final Kind kind;
+        final Object extractor;
+
+        Key(Kind kind, Object extractor) {
+            this.kind = kind;
+            this.extractor = extractor;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && kind == ((Key) o).kind && extractor == ((Key) o).extractor;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * kind.hashCode() + System.identityHashCode(extractor);
+        }
+    }
+
+    private LeafFusion() {
+    }
+
+    /**
+     * Fuses operands of OR, a fused predicate is placed at the position of the first of its operands
+     *
+     * @param <T>      type
+     * @param operands operands of OR
+     * @return the same array if nothing is fused, otherwise a new array of operands
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Predicate<T>[] fuse(Predicate<T>[] operands) {
+        Map<Key, List<Predicate<T>>> groups = new HashMap<>();
+        boolean fusable = false;
+        for (Predicate<T> p : operands) {
+            Key key = key(p);
+            if (key != null) {
+                List<Predicate<T>> group = groups.computeIfAbsent(key, k -> new ArrayList<>());
+                group.add(p);
+                fusable |= group.size() == 2;
+            }
+        }
+        if (!fusable) {
+            return operands;
+        }
+        List<Predicate<T>> fused = new ArrayList<>(operands.length);
+        for (Predicate<T> p : operands) {
+            Key key = key(p);
+            if (key == null) {
+                fused.add(p);
+                continue;
+            }
+            List<Predicate<T>> group = groups.remove(key);
+            if (group != null) {
+                fused.add(group.size() == 1 ? group.get(0) : fuse(key, group));
+            }
+        }
+        return fused.toArray(new Predicate[0]);
+    }
+
+    private static Key key(Predicate<?> p) {
+        if (p instanceof EqPredicate) {
+            return new Key(Kind.MEMBERSHIP, ((EqPredicate<?>) p).extractor);
+        }
+        if (p instanceof InPredicate) {
+            return new Key(Kind.MEMBERSHIP, ((InPredicate<?>) p).extractor);
+        }
+        if (p instanceof LongRangePredicate) {
+            return new Key(Kind.LONG_RANGE, ((LongRangePredicate<?>) p).extractor);
+        }
+        if (p instanceof DoubleRangePredicate) {
+            return new Key(Kind.DOUBLE_RANGE, ((DoubleRangePredicate<?>) p).extractor);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Predicate<T> fuse(Key key, List<Predicate<T>> group) {
+        switch (key.kind) {
+            case MEMBERSHIP:
+                Set<Object> values = new HashSet<>();
+                for (Predicate<T> p : group) {
+                    if (p instanceof EqPredicate) {
+                        values.add(((EqPredicate<T>) p).value);
+                    } else {
+                        values.addAll(((InPredicate<T>) p).values);
+                    }
+                }
+                return new InPredicate<>((Function<? super T, ?>) key.extractor, values);
+            case LONG_RANGE:
+                List<LongIntervalSet> longs = new ArrayList<>(group.size());
+                for (Predicate<T> p : group) {
+                    longs.add(((LongRangePredicate<T>) p).intervals);
+                }
+                return LongRangePredicate.of((ToLongFunction<? super T>) key.extractor,
+                        LongIntervalSet.union(longs));
+            default:
+                List<DoubleIntervalSet> doubles = new ArrayList<>(group.size());
+                for (Predicate<T> p : group) {
+                    doubles.add(((DoubleRangePredicate<T>) p).intervals);
+                }
+                return DoubleRangePredicate.of((ToDoubleFunction<? super T>) key.extractor,
+                        DoubleIntervalSet.union(doubles));
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Set of closed long intervals. Overlapping and adjacent intervals are merged when the set is built,
+ * so membership is a binary search over sorted disjoint intervals.
+ *
+ * @author Grzegorz Krupinski
+ */
+final class LongIntervalSet {
+
+    final long[] starts;
+    final long[] ends;
+
+    /**
+     * @param starts starts of intervals (inclusive)
+     * @param ends   ends of intervals (inclusive), an interval with end lower than start is empty
+     * @param count  number of intervals
+     */
+    LongIntervalSet(long[] starts, long[] ends, int count) {
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(starts[a], starts[b]));
+        long[] s = new long[count];
+        long[] e = new long[count];
+        int n = 0;
+        for (int i : order) {
+            if (starts[i] > ends[i]) {
+                continue;
+            }
+            if (n > 0 && (e[n - 1] == Long.MAX_VALUE || starts[i] <= e[n - 1] + 1)) {
+                e[n - 1] = Math.max(e[n - 1], ends[i]);
+            } else {
+                s[n] = starts[i];
+                e[n] = ends[i];
+                n++;
+            }
+        }
+        this.starts = Arrays.copyOf(s, n);
+        this.ends = Arrays.copyOf(e, n);
+    }
+
+    static LongIntervalSet of(long from, long to) {
+        return new LongIntervalSet(new long[]{from}, new long[]{to}, 1);
+    }
+
+    static LongIntervalSet union(List<LongIntervalSet> sets) {
+        int count = 0;
+        for (LongIntervalSet set : sets) {
+            count += set.starts.length;
+        }
+        long[] s = new long[count];
+        long[] e = new long[count];
+        int n = 0;
+        for (LongIntervalSet set : sets) {
+            System.arraycopy(set.starts, 0, s, n, set.starts.length);
+            System.arraycopy(set.ends, 0, e, n, set.ends.length);
+            n += set.starts.length;
+        }
+        return new LongIntervalSet(s, e, count);
+    }
+
+    boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    boolean contains(long value) {
+        int lo = 0;
+        int hi = starts.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (value < starts[mid]) {
+                hi = mid - 1;
+            } else if (value > ends[mid]) {
+                lo = mid + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof LongIntervalSet && Arrays.equals(starts, ((LongIntervalSet) o).starts)
+                && Arrays.equals(ends, ((LongIntervalSet) o).ends);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(starts) + Arrays.hashCode(ends);
+    }
+
+}
@@ -0,0 +1,545 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.LongPredicate;
+
+/**
+ * LongPredicates is a utility class, which provides methods to operate on long predicates (without boxing).
+ * It offers the same operations as {@link Predicates}.
+ * <p>
+ * Logical operations: NOT, AND, OR, NAND, NOR, XAND, XOR
+ * <p>
+ * Extra operations: NONE(=NOR), ALL(=AND)
+ * <p>
+ * Multi arguments (more than two arguments) logical operations: AND, OR, NAND, NOR, XAND, XOR
+ * <p>
+ * Extra operations: NONE(=NOR), ALL(=AND)
+ *
+ * @author Grzegorz Krupinski
+ */
+public final class LongPredicates {
+
+    private static final LongPredicate TRUE = (long t) -> true;
+    private static final LongPredicate FALSE = (long t) -> false;
+
+    private LongPredicates() {
+    }
+
+    /**
+     * Predicate TRUE - useful in tests
+     *
+     * @return always true
+     */
+    public static LongPredicate pTrue() {
+        return TRUE;
+    }
+
+    /**
+     * Predicate FALSE - useful in tests
+     *
+     * @return always false
+     */
+    public static LongPredicate pFalse() {
+        return FALSE;
+    }
+
+    /**
+     * Predicate to change member reference into LongPredicate (you can use methods
+     * of LongPredicate class e.g. negate())
+     *
+     * @param p predicate or member reference
+     * @return LongPredicate
+     */
+    public static LongPredicate predicate(LongPredicate p) {
+        return p;
+    }
+
+    /**
+     * Logical negation - NOT
+     *
+     * @param p predicate
+     * @return NOT predicate
+     */
+    public static LongPredicate not(LongPredicate p) {
+        if (p instanceof Not) {
+            return ((Not) p).operand;
+        }
+        return new Not(Objects.requireNonNull(p));
+    }
+
+    /**
+     * Logical NOR (not OR=none)
+     *
+     * @param p1 param1
+     * @param p2 param2
+     * @return if none
+     */
+    public static LongPredicate none(LongPredicate p1, LongPredicate p2) {
+        return nor(p1, p2);
+    }
+
+    /**
+     * Logical conjunction - AND (=all)
+     *
+     * @param p1 param1
+     * @param p2 param2
+     * @return if all
+     */
+    public static LongPredicate all(LongPredicate p1, LongPredicate p2) {
+        return and(p1, p2);
+    }
+
+    /**
+     * Logical implication - COND
+     *
+     * @param p param1
+     * @param q param2
+     * @return if p then q
+     */
+    public static LongPredicate cond(LongPredicate p, LongPredicate q) {
+        return or(not(p), q);
+    }
+
+    /**
+     * Logical conjunction - AND
+     *
+     * @param p1 predicate 1
+     * @param p2 predicate 2
+     * @return AND predicate
+     */
+    public static LongPredicate and(LongPredicate p1, LongPredicate p2) {
+        return and(new LongPredicate[]{p1, p2});
+    }
+
+    /**
+     * Logical NAND
+     *
+     * @param p1 predicate 1
+     * @param p2 predicate 2
+     * @return NAND predicate
+     */
+    public static LongPredicate nand(LongPredicate p1, LongPredicate p2) {
+        return nand(new LongPredicate[]{p1, p2});
+    }
+
+    /**
+     * Exclusive conjunction - XAND
+     *
+     * @param p1 predicate 1
+     * @param p2 predicate 2
+     * @return XAND predicate
+     */
+    public static LongPredicate xand(LongPredicate p1, LongPredicate p2) {
+        return xand(new LongPredicate[]{p1, p2});
+    }
+
+    /**
+     * Logical disjunction - OR
+     *
+     * @param p1 predicate 1
+     * @param p2 predicate 2
+     * @return OR predicate
+     */
+    public static LongPredicate or(LongPredicate p1, LongPredicate p2) {
+        return or(new LongPredicate[]{p1, p2});
+    }
+
+    /**
+     * Logical NOR
+     *
+     * @param p1 predicate 1
+     * @param p2 predicate 2
+     * @return NOR predicate
+     */
+    public static LongPredicate nor(LongPredicate p1, LongPredicate p2) {
+        return nor(new LongPredicate[]{p1, p2});
+    }
+
+    /**
+     * Exclusive disjunction - XOR
+     *
+     * @param p1 predicate 1
+     * @param p2 predicate 2
+     * @return XOR predicate
+     */
+    public static LongPredicate xor(LongPredicate p1, LongPredicate p2) {
+        return xor(new LongPredicate[]{p1, p2});
+    }
+
+    /**
+     * Logical NOR (=NONE)
+     *
+     * @param predicates list of predicates
+     * @return NOR predicate
+     */
+    public static LongPredicate none(LongPredicate... predicates) {
+        return nor(predicates);
+    }
+
+    /**
+     * Logical AND (=ALL)
+     *
+     * @param predicates list of predicates
+     * @return AND predicate
+     */
+    public static LongPredicate all(LongPredicate... predicates) {
+        return and(predicates);
+    }
+
+    /**
+     * Logical AND
+     *
+     * @param predicates list of predicates
+     * @return AND predicate
+     */
+    public static LongPredicate and(LongPredicate... predicates) {
+        LongPredicate[] operands = flatten(And.class, predicates);
+        return operands.length == 1 ? operands[0] : new And(operands);
+    }
+
+    /**
+     * Logical NAND
+     *
+     * @param predicates list of predicates
+     * @return NAND predicate
+     */
+    public static LongPredicate nand(LongPredicate... predicates) {
+        return not(and(predicates));
+    }
+
+    /**
+     * Logical OR
+     *
+     * @param predicates list of predicates
+     * @return OR predicate
+     */
+    public static LongPredicate or(LongPredicate... predicates) {
+        LongPredicate[] operands = fuseRanges(flatten(Or.class, predicates));
+        return operands.length == 1 ? operands[0] : new Or(operands);
+    }
+
+    /**
+     * Logical NOR
+     *
+     * @param predicates list of predicates
+     * @return NOR predicate
+     */
+    public static LongPredicate nor(LongPredicate... predicates) {
+        return not(or(predicates));
+    }
+
+    /**
+     * Exclusive conjunction - XAND (all predicates give the same result)
+     *
+     * @param predicates list of predicates
+     * @return XAND predicate
+     */
+    public static LongPredicate xand(LongPredicate... predicates) {
+        Predicates.checkPredicatesCount(predicates.length);
+        for (LongPredicate p : predicates) {
+            Objects.requireNonNull(p);
+        }
+        return predicates.length == 1 ? pTrue() : new Xand(predicates.clone());
+    }
+
+    /**
+     * Exclusive disjunction - XOR (odd number of predicates is true)
+     *
+     * @param predicates list of predicates
+     * @return XOR predicate
+     */
+    public static LongPredicate xor(LongPredicate... predicates) {
+        LongPredicate[] operands = flatten(Xor.class, predicates);
+        return operands.length == 1 ? operands[0] : new Xor(operands);
+    }
+
+    /**
+     * Membership of the value in the set of values - a bitset for a dense range of values,
+     * otherwise an open-addressing hash set (no boxing in both cases)
+     *
+     * @param values accepted values
+     * @return in predicate
+     */
+    public static LongPredicate in(long... values) {
+        return values.length == 0 ? FALSE : new In(values);
+    }
+
+    /**
+     * Range of values: from &lt;= value &lt;= to. OR of ranges is fused into one set of merged intervals
+     * (a binary search).
+     *
+     * @param from lower bound (inclusive)
+     * @param to   upper bound (inclusive)
+     * @return range predicate (FALSE if from &gt; to)
+     */
+    public static LongPredicate between(long from, long to) {
+        return from > to ? FALSE : new Between(LongIntervalSet.of(from, to));
+    }
+
+    /**
+     * Fuses range operands of OR into one range predicate placed at the position of the first of them
+     *
+     * @param operands operands of OR
+     * @return array of operands
+     */
+    private static LongPredicate[] fuseRanges(LongPredicate[] operands) {
+        List<LongIntervalSet> ranges = new ArrayList<>();
+        for (LongPredicate p : operands) {
+            if (p instanceof Between) {
+                ranges.add(((Between) p).intervals);
+            }
+        }
+        if (ranges.size() < 2) {
+            return operands;
+        }
+        List<LongPredicate> fused = new ArrayList<>(operands.length - ranges.size() + 1);
+        boolean added = false;
+        for (LongPredicate p : operands) {
+            if (!(p instanceof Between)) {
+                fused.add(p);
+            } else if (!added) {
+                fused.add(new Between(LongIntervalSet.union(ranges)));
+                added = true;
+            }
+        }
+        return fused.toArray(new LongPredicate[0]);
+    }
+
+    /**
+     * Produces flat array of operands - operands of the same node type are absorbed
+     *
+     * @param node       node type, which operands are absorbed
+     * @param predicates array of predicates
+     * @return array of operands
+     */
+    private static LongPredicate[] flatten(Class<? extends Composite> node, LongPredicate[] predicates) {
+        Predicates.checkPredicatesCount(predicates.length);
+        List<LongPredicate> operands = new ArrayList<>(predicates.length);
+        for (LongPredicate p : predicates) {
+            Objects.requireNonNull(p);
+            if (node.isInstance(p)) {
+                Collections.addAll(operands, ((Composite) p).operands);
+            } else {
+                operands.add(p);
+            }
+        }
+        return operands.toArray(new LongPredicate[0]);
+    }
+
+    /**
+     * Base class of n-ary predicates, which evaluate a flat array of operands in a loop
+     */
+    abstract static class Composite implements LongPredicate {
+
+        final LongPredicate[] operands;
+
+        Composite(LongPredicate[] operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        public LongPredicate negate() {
+            return new Not(this);
+        }
+    }
+
+    static final class And extends Composite {
+
+        And(LongPredicate[] operands) {
+            super(operands);
+        }
+
+        @Override
+        public boolean test(long t) {
+            for (LongPredicate p : operands) {
+                if (!p.test(t)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    static final class Or extends Composite {
+
+        Or(LongPredicate[] operands) {
+            super(operands);
+        }
+
+        @Override
+        public boolean test(long t) {
+            for (LongPredicate p : operands) {
+                if (p.test(t)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    static final class Xor extends Composite {
+
+        Xor(LongPredicate[] operands) {
+            super(operands);
+        }
+
+        @Override
+        public boolean test(long t) {
+            boolean result = false;
+            for (LongPredicate p : operands) {
+                result ^= p.test(t);
+            }
+            return result;
+        }
+    }
+
+    static final class Xand extends Composite {
+
+        Xand(LongPredicate[] operands) {
+            super(operands);
+        }
+
+        @Override
+        public boolean test(long t) {
+            boolean first = operands[0].test(t);
+            for (int i = 1; i < operands.length; i++) {
+                if (operands[i].test(t) != first) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    static final class Not implements LongPredicate {
+
+        final LongPredicate operand;
+
+        Not(LongPredicate operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public boolean test(long t) {
+            return !operand.test(t);
+        }
+
+        @Override
+        public LongPredicate negate() {
+            return operand;
+        }
+    }
+
+    /**
+     * Set of long values: a bitset if the range of values is small compared to their count
+     * (at most 64 bits per value or 4096 bits), otherwise a hash set with linear probing
+     */
+    static final class In implements LongPredicate {
+
+        private static final int MIN_BITSET = 4096;
+
+        private final long min;
+        private final long range;
+        private final long[] bits;
+        private final long[] table;
+        private final boolean zero;
+
+        In(long[] values) {
+            long lo = values[0];
+            long hi = values[0];
+            for (long v : values) {
+                lo = Math.min(lo, v);
+                hi = Math.max(hi, v);
+            }
+            min = lo;
+            range = hi - lo + 1;
+            boolean hasZero = false;
+            if (range > 0 && range <= Math.max(MIN_BITSET, 64L * values.length)) {
+                bits = new long[(int) ((range + 63) >>> 6)];
+                for (long v : values) {
+                    long offset = v - lo;
+                    bits[(int) (offset >>> 6)] |= 1L << offset;
+                }
+                table = null;
+            } else {
+                bits = null;
+                table = new long[Integer.highestOneBit(values.length * 2 - 1) << 1];
+                for (long v : values) {
+                    if (v == 0) {
+                        hasZero = true;
+                        continue;
+                    }
+                    int i = index(v);
+                    while (table[i] != 0 && table[i] != v) {
+                        i = (i + 1) & (table.length - 1);
+                    }
+                    table[i] = v;
+                }
+            }
+            zero = hasZero;
+        }
+
+        private int index(long v) {
+            long h = v * 0x9e3779b97f4a7c15L;
+            return (int) (h ^ (h >>> 32)) & (table.length - 1);
+        }
+
+        @Override
+        public boolean test(long t) {
+            if (bits != null) {
+                long offset = t - min;
+                return offset >= 0 && offset < range && (bits[(int) (offset >>> 6)] & (1L << offset)) != 0;
+            }
+            if (t == 0) {
+                return zero;
+            }
+            for (int i = index(t); ; i = (i + 1) & (table.length - 1)) {
+                long v = table[i];
+                if (v == t) {
+                    return true;
+                }
+                if (v == 0) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Membership in a set of merged intervals
+     */
+    static final class Between implements LongPredicate {
+
+        final LongIntervalSet intervals;
+
+        Between(LongIntervalSet intervals) {
+            this.intervals = intervals;
+        }
+
+        @Override
+        public boolean test(long t) {
+            return intervals.contains(t);
+        }
+    }
+
+}
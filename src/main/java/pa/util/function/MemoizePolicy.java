@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+/**
+ * Defines which results of a memoized supplier are cached
+ *
+ * @author Grzegorz Krupinski
+ * @see NullSafeUtils#memoize(java.util.function.Supplier, MemoizePolicy)
+ */
+public enum MemoizePolicy {
+
+    /**
+     * Every result is cached: a value, null and a failure (RuntimeException, returned as null).
+     * The supplier is called exactly once.
+     */
+    CACHE_ALL,
+
+    /**
+     * A value and null are cached, after a failure (RuntimeException) the supplier is called again
+     */
+    RETRY_ON_FAILURE,
+
+    /**
+     * Only a not null value is cached, after null or a failure the supplier is called again
+     */
+    RETRY_ON_NULL;
+
+    boolean caches(Object result, boolean failed) {
+        switch (this) {
+            case CACHE_ALL:
+                return true;
+            case RETRY_ON_FAILURE:
+                return !failed;
+            default:
+                return result != null;
+        }
+    }
+
+}
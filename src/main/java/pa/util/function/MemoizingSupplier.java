@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe memoizing supplier. The first call computes the value under a lock (so it is computed once
+ * even if many threads call it at the same time), later calls only read a volatile flag.
+ *
+ * @param <S> type
+ * @author Grzegorz Krupinski
+ * @see NullSafeUtils#memoize(Supplier, MemoizePolicy)
+ */
+final class MemoizingSupplier<S> implements Supplier<S> {
+
+    final MemoizePolicy policy;
+    private Supplier<S> supplier;
+    private S value;
+    private volatile boolean initialized;
+
+    MemoizingSupplier(Supplier<S> supplier, MemoizePolicy policy) {
+        this.supplier = supplier;
+        this.policy = policy;
+    }
+
+    @Override
+    public S get() {
+        if (!initialized) {
+            synchronized (this) {
+                if (!initialized) {
+                    S result;
+                    boolean failed = false;
+                    try {
+                        result = supplier.get();
+                    } catch (RuntimeException ex) {
+                        Events.swallowed(supplier, ex);
+                        result = null;
+                        failed = true;
+                    }
+                    if (policy.caches(result, failed)) {
+                        value = result;
+                        supplier = null;
+                        initialized = true;
+                    }
+                    return result;
+                }
+            }
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.function.Predicate;
+
+/**
+ * Logical negation - NOT
+ *
+ * @param <T> type
+ * @author Grzegorz Krupinski
+ */
+final class NotPredicate<T> implements BatchPredicate<T> {
+
+    final Predicate<T> operand;
+
+    NotPredicate(Predicate<T> operand) {
+        this.operand = operand;
+    }
+
+    @Override
+    public boolean test(T t) {
+        return !operand.test(t);
+    }
+
+    @Override
+    public long test(T[] batch, int offset, long mask) {
+        return mask & ~Predicates.test(operand, batch, offset, mask);
+    }
+
+    @Override
+    public Predicate<T> negate() {
+        return operand;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof NotPredicate && operand.equals(((NotPredicate<?>) o).operand);
+    }
+
+    @Override
+    public int hashCode() {
+        return ~operand.hashCode();
+    }
+
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * NullSafePath is a chain of property getters compiled once into a MethodHandle tree with null guards.
+ * Typical use is:
+ * <p>
+ * static final NullSafePath&lt;Order, String&gt; ZIP = NullSafeUtils.compile(Order.class, "customer.address.zip");
+ * <p>
+ * return ZIP.get(order);
+ * <p>
+ * A property is resolved (in this order) to a getter getX(), a boolean getter isX(), a method x() or a field x,
+ * using the declared (static) type of the previous property. No lambda is captured and no exception is thrown
+ * when an intermediate value is null. The MethodHandle is called from a static final field of a generated class
+ * (see PathAccessor), so JIT inlines the getters as in a hand-written chain of null checks.
+ * <p>
+ * Compiled paths are cached per root class and path string. The cache is held by the root class (ClassValue),
+ * so a path is cached only if the classes it refers to (types of properties and this library) are loaded
+ * by the class loader of the root class or its parents - a cached path never keeps another class loader alive.
+ * Other paths are compiled on every call, keep them in static final fields.
+ *
+ * @param <R> root type
+ * @param <T> value type
+ * @author Grzegorz Krupinski
+ */
+public final class NullSafePath<R, T> implements Function<R, T> {
+
+    private static final MethodHandle IS_NULL;
+    private static final MethodHandle NULL;
+
+    static {
+        try {
+            IS_NULL = MethodHandles.lookup().findStatic(Objects.class, "isNull",
+                    MethodType.methodType(boolean.class, Object.class));
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+        NULL = MethodHandles.dropArguments(MethodHandles.constant(Object.class, null), 0, Object.class);
+    }
+
+    private static final ClassValue<ConcurrentMap<String, NullSafePath<?, ?>>> CACHE =
+            new ClassValue<ConcurrentMap<String, NullSafePath<?, ?>>>() {
+                @Override
+                protected ConcurrentMap<String, NullSafePath<?, ?>> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    private final Class<R> rootClass;
+    private final String path;
+    private final Function<Object, Object> accessor;
+    private final boolean cacheable;
+
+    private NullSafePath(Class<R> rootClass, String path, MethodHandle handle, boolean cacheable) {
+        this.rootClass = rootClass;
+        this.path = path;
+        this.accessor = PathAccessor.define(handle);
+        this.cacheable = cacheable;
+    }
+
+    /**
+     * Returns compiled path from cache or compiles it
+     *
+     * @param rootClass root class
+     * @param path      dot separated list of properties e.g. "customer.address.zip"
+     * @param <R>       root type
+     * @param <T>       value type
+     * @return compiled path
+     * @throws IllegalArgumentException if a property cannot be resolved
+     */
+    @SuppressWarnings("unchecked")
+    static <R, T> NullSafePath<R, T> of(Class<R> rootClass, String path) {
+        Objects.requireNonNull(path);
+        ConcurrentMap<String, NullSafePath<?, ?>> cache = CACHE.get(rootClass);
+        NullSafePath<?, ?> cached = cache.get(path);
+        if (cached != null) {
+            return (NullSafePath<R, T>) cached;
+        }
+        NullSafePath<R, T> compiled = compile(rootClass, path);
+        if (!compiled.cacheable) {
+            return compiled;
+        }
+        cached = cache.putIfAbsent(path, compiled);
+        return cached != null ? (NullSafePath<R, T>) cached : compiled;
+    }
+
+    private static <R, T> NullSafePath<R, T> compile(Class<R> rootClass, String path) {
+        String[] properties = path.split("\\.", -1);
+        MethodHandle[] getters = new MethodHandle[properties.length];
+        ClassLoader loader = rootClass.getClassLoader();
+        boolean cacheable = isVisible(NullSafePath.class, loader);
+        Class<?> type = rootClass;
+        for (int i = 0; i < properties.length; i++) {
+            if (type.isPrimitive()) {
+                throw new IllegalArgumentException("Property '" + properties[i - 1] + "' of path '" + path
+                        + "' is primitive");
+            }
+            getters[i] = getter(type, properties[i]);
+            type = getters[i].type().returnType();
+            cacheable &= isVisible(getters[i].type().parameterType(0), loader) && isVisible(type, loader);
+        }
+
+        MethodHandle handle = null;
+        for (int i = getters.length - 1; i >= 0; i--) {
+            MethodHandle getter = getters[i].asType(MethodType.methodType(Object.class, Object.class));
+            handle = handle == null ? getter : MethodHandles.filterReturnValue(getter, handle);
+            handle = MethodHandles.guardWithTest(IS_NULL, NULL, handle);
+        }
+        return new NullSafePath<>(rootClass, path, handle, cacheable);
+    }
+
+    /**
+     * @return true if type is loaded by loader or its parents
+     */
+    private static boolean isVisible(Class<?> type, ClassLoader loader) {
+        ClassLoader typeLoader = type.getClassLoader();
+        if (typeLoader == null) {
+            return true;
+        }
+        for (ClassLoader l = loader; l != null; l = l.getParent()) {
+            if (l == typeLoader) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static MethodHandle getter(Class<?> type, String property) {
+        if (property.isEmpty()) {
+            throw new IllegalArgumentException("Empty property name in " + type.getName());
+        }
+        String suffix = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        try {
+            Method method = findMethod(type, "get" + suffix);
+            if (method == null) {
+                method = findMethod(type, "is" + suffix);
+                if (method != null && method.getReturnType() != boolean.class) {
+                    method = null;
+                }
+            }
+            if (method == null) {
+                method = findMethod(type, property);
+            }
+            if (method != null) {
+                return MethodHandles.lookup().unreflect(accessible(method));
+            }
+            Field field = findField(type, property);
+            if (field != null) {
+                return MethodHandles.lookup().unreflectGetter(accessible(field));
+            }
+        } catch (IllegalAccessException | RuntimeException ex) {
+            throw new IllegalArgumentException("Property '" + property + "' of " + type.getName()
+                    + " is not accessible", ex);
+        }
+        throw new IllegalArgumentException("Property '" + property + "' not found in " + type.getName());
+    }
+
+    private static Method findMethod(Class<?> type, String name) {
+        Method method;
+        try {
+            method = type.getMethod(name);
+        } catch (NoSuchMethodException ex) {
+            method = null;
+            for (Class<?> c = type; c != null && method == null; c = c.getSuperclass()) {
+                try {
+                    method = c.getDeclaredMethod(name);
+                } catch (NoSuchMethodException ignored) {
+                    // check superclass
+                }
+            }
+        }
+        if (method == null || Modifier.isStatic(method.getModifiers()) || method.getReturnType() == void.class) {
+            return null;
+        }
+        return method;
+    }
+
+    private static Field findField(Class<?> type, String name) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            try {
+                Field field = c.getDeclaredField(name);
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    return field;
+                }
+            } catch (NoSuchFieldException ignored) {
+                // check superclass
+            }
+        }
+        return null;
+    }
+
+    private static <A extends AccessibleObject> A accessible(A member) {
+        member.setAccessible(true);
+        return member;
+    }
+
+    /**
+     * Returns a value of the path or null
+     *
+     * @param root root object
+     * @return returns a value of the path or returns null if root or any intermediate value is null
+     * or RuntimeException is thrown
+     */
+    @SuppressWarnings("unchecked")
+    public T get(R root) {
+        try {
+            return (T) accessor.apply(root);
+        } catch (RuntimeException ex) {
+            Events.swallowed(this, ex);
+            return null;
+        } catch (Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new UndeclaredThrowableException(ex);
+        }
+    }
+
+    /**
+     * Returns a value of the path or default value
+     *
+     * @param root         root object
+     * @param defaultValue default value
+     * @return returns a value of the path or returns defaultValue if the value is null
+     * or RuntimeException is thrown
+     */
+    public T get(R root, T defaultValue) {
+        T result = get(root);
+        return result != null ? result : defaultValue;
+    }
+
+    /**
+     * Same as {@link #get(Object)}
+     *
+     * @param root root object
+     * @return value of the path or null
+     */
+    @Override
+    public T apply(R root) {
+        return get(root);
+    }
+
+    /**
+     * @return root class
+     */
+    public Class<R> getRootClass() {
+        return rootClass;
+    }
+
+    /**
+     * @return dot separated list of properties
+     */
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        return rootClass.getSimpleName() + "." + path;
+    }
+
+}
@@ -17,6 +17,20 @@
 
 package pa.util.function;
 
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -39,6 +53,8 @@ import java.util.function.Supplier;
  */
 public final class NullSafeUtils {
 
+    private static final Duration MAX_TTL = Duration.ofNanos(Long.MAX_VALUE / 4);
+
     /**
      * Returns a value provided by Supplier or null
      *
@@ -50,6 +66,7 @@ public final class NullSafeUtils {
         try {
             return supplier.get();
         } catch (RuntimeException ex) {
+            Events.swallowed(supplier, ex);
             return null;
         }
     }
@@ -68,10 +85,360 @@ public final class NullSafeUtils {
             S result = supplier.get();
             return result != null ? result : defaultValue;
         } catch (RuntimeException ex) {
+            Events.swallowed(supplier, ex);
             return defaultValue;
         }
     }
 
+    /**
+     * Returns a value of function applied to root or null. Unlike {@link #get(Supplier)} no lambda has to be
+     * captured per call - the function can be a constant, e.g.
+     * <p>
+     * static final Function&lt;Order, String&gt; ZIP = o -&gt; o.getCustomer().getAddress().getZip();
+     * <p>
+     * return apply(order, ZIP);
+     *
+     * @param root     root object
+     * @param function function of root
+     * @param <T>      root type
+     * @param <R>      result type
+     * @return returns a value given by function (including null) or returns null if RuntimeException is thrown
+     */
+    public static <T, R> R apply(T root, Function<? super T, ? extends R> function) {
+        try {
+            return function.apply(root);
+        } catch (RuntimeException ex) {
+            Events.swallowed(function, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Returns a value of function applied to root or default value (function can be a constant, see
+     * {@link #apply(Object, Function)})
+     *
+     * @param root         root object
+     * @param function     function of root
+     * @param defaultValue default value
+     * @param <T>          root type
+     * @param <R>          result type
+     * @return returns a value given by function or
+     * returns defaultValue if a value given by function is null or RuntimeException is thrown
+     */
+    public static <T, R> R apply(T root, Function<? super T, ? extends R> function, R defaultValue) {
+        try {
+            R result = function.apply(root);
+            return result != null ? result : defaultValue;
+        } catch (RuntimeException ex) {
+            Events.swallowed(function, ex);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Returns an int value provided by Supplier or default value (without boxing)
+     *
+     * @param supplier     supplier of a value
+     * @param defaultValue default value
+     * @return returns a value given by supplier or returns defaultValue if RuntimeException is thrown
+     */
+    public static int getInt(IntSupplier supplier, int defaultValue) {
+        try {
+            return supplier.getAsInt();
+        } catch (RuntimeException ex) {
+            Events.swallowed(supplier, ex);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Returns a long value provided by Supplier or default value (without boxing)
+     *
+     * @param supplier     supplier of a value
+     * @param defaultValue default value
+     * @return returns a value given by supplier or returns defaultValue if RuntimeException is thrown
+     */
+    public static long getLong(LongSupplier supplier, long defaultValue) {
+        try {
+            return supplier.getAsLong();
+        } catch (RuntimeException ex) {
+            Events.swallowed(supplier, ex);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Returns a double value provided by Supplier or default value (without boxing)
+     *
+     * @param supplier     supplier of a value
+     * @param defaultValue default value
+     * @return returns a value given by supplier or returns defaultValue if RuntimeException is thrown
+     */
+    public static double getDouble(DoubleSupplier supplier, double defaultValue) {
+        try {
+            return supplier.getAsDouble();
+        } catch (RuntimeException ex) {
+            Events.swallowed(supplier, ex);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Returns a value of accessor applied to root, or null if root is null.
+     * Unlike {@link #get(Supplier)} null is checked explicitly, so no exception is thrown on the null path.
+     * Typical use is:
+     * <p>
+     * path(object, A::getX)
+     *
+     * @param root root object
+     * @param f1   accessor
+     * @param <T>  root type
+     * @param <R>  result type
+     * @return returns a value given by accessor or returns null if root is null or RuntimeException is thrown
+     */
+    public static <T, R> R path(T root, Function<? super T, ? extends R> f1) {
+        if (root == null) {
+            return null;
+        }
+        try {
+            return f1.apply(root);
+        } catch (RuntimeException ex) {
+            Events.swallowed(f1, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Returns a value of accessor chain applied to root, or null if root or any intermediate value is null.
+     * Typical use is:
+     * <p>
+     * path(object, A::getX, X::getY)
+     *
+     * @param root root object
+     * @param f1   accessor 1
+     * @param f2   accessor 2
+     * @param <T>  root type
+     * @param <A>  type of accessor 1 value
+     * @param <R>  result type
+     * @return returns a value given by the last accessor or
+     * returns null if any value is null or RuntimeException is thrown
+     */
+    public static <T, A, R> R path(T root, Function<? super T, ? extends A> f1,
+                                   Function<? super A, ? extends R> f2) {
+        return path(path(root, f1), f2);
+    }
+
+    /**
+     * Returns a value of accessor chain applied to root, or null if root or any intermediate value is null.
+     * Typical use is:
+     * <p>
+     * path(object, A::getX, X::getY, Y::getZ)
+     *
+     * @param root root object
+     * @param f1   accessor 1
+     * @param f2   accessor 2
+     * @param f3   accessor 3
+     * @param <T>  root type
+     * @param <A>  type of accessor 1 value
+     * @param <B>  type of accessor 2 value
+     * @param <R>  result type
+     * @return returns a value given by the last accessor or
+     * returns null if any value is null or RuntimeException is thrown
+     */
+    public static <T, A, B, R> R path(T root, Function<? super T, ? extends A> f1,
+                                      Function<? super A, ? extends B> f2,
+                                      Function<? super B, ? extends R> f3) {
+        return path(path(path(root, f1), f2), f3);
+    }
+
+    /**
+     * Returns a value of accessor chain applied to root, or null if root or any intermediate value is null.
+     *
+     * @param root root object
+     * @param f1   accessor 1
+     * @param f2   accessor 2
+     * @param f3   accessor 3
+     * @param f4   accessor 4
+     * @param <T>  root type
+     * @param <A>  type of accessor 1 value
+     * @param <B>  type of accessor 2 value
+     * @param <C>  type of accessor 3 value
+     * @param <R>  result type
+     * @return returns a value given by the last accessor or
+     * returns null if any value is null or RuntimeException is thrown
+     */
+    public static <T, A, B, C, R> R path(T root, Function<? super T, ? extends A> f1,
+                                         Function<? super A, ? extends B> f2,
+                                         Function<? super B, ? extends C> f3,
+                                         Function<? super C, ? extends R> f4) {
+        return path(path(path(path(root, f1), f2), f3), f4);
+    }
+
+    /**
+     * Returns a value of accessor chain applied to root, or null if root or any intermediate value is null.
+     *
+     * @param root root object
+     * @param f1   accessor 1
+     * @param f2   accessor 2
+     * @param f3   accessor 3
+     * @param f4   accessor 4
+     * @param f5   accessor 5
+     * @param <T>  root type
+     * @param <A>  type of accessor 1 value
+     * @param <B>  type of accessor 2 value
+     * @param <C>  type of accessor 3 value
+     * @param <D>  type of accessor 4 value
+     * @param <R>  result type
+     * @return returns a value given by the last accessor or
+     * returns null if any value is null or RuntimeException is thrown
+     */
+    public static <T, A, B, C, D, R> R path(T root, Function<? super T, ? extends A> f1,
+                                            Function<? super A, ? extends B> f2,
+                                            Function<? super B, ? extends C> f3,
+                                            Function<? super C, ? extends D> f4,
+                                            Function<? super D, ? extends R> f5) {
+        return path(path(path(path(path(root, f1), f2), f3), f4), f5);
+    }
+
+    /**
+     * Returns thread-safe memoizing supplier - the value is computed once, later calls do not lock.
+     * A failure (RuntimeException) is returned as null and the supplier is called again by the next call
+     * (same as {@link MemoizePolicy#RETRY_ON_FAILURE}).
+     *
+     * @param supplier supplier of a value
+     * @param <S>      type
+     * @return memoizing supplier
+     */
+    public static <S> Supplier<S> memoize(Supplier<S> supplier) {
+        return memoize(supplier, MemoizePolicy.RETRY_ON_FAILURE);
+    }
+
+    /**
+     * Returns thread-safe memoizing supplier - the value is computed once, later calls do not lock.
+     * A failure (RuntimeException) is returned as null. A supplier already memoized with the same policy
+     * is returned as is, with another policy it is wrapped.
+     *
+     * @param supplier supplier of a value
+     * @param policy   defines if null and failures are cached or the supplier is called again
+     * @param <S>      type
+     * @return memoizing supplier
+     */
+    public static <S> Supplier<S> memoize(Supplier<S> supplier, MemoizePolicy policy) {
+        Objects.requireNonNull(supplier);
+        Objects.requireNonNull(policy);
+        if (supplier instanceof MemoizingSupplier && ((MemoizingSupplier<S>) supplier).policy == policy) {
+            return supplier;
+        }
+        return new MemoizingSupplier<>(supplier, policy);
+    }
+
+    /**
+     * Returns thread-safe memoizing supplier which caches the value for the given time.
+     * Before the expiry the value is refreshed in the common pool while the old value is still returned.
+     * Null and failures (RuntimeException) are not cached, the last good value is returned instead.
+     *
+     * @param supplier supplier of a value
+     * @param ttl      time to live of the value
+     * @param <S>      type
+     * @return memoizing supplier
+     */
+    public static <S> Supplier<S> memoize(Supplier<S> supplier, Duration ttl) {
+        return memoize(supplier, ttl, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns thread-safe memoizing supplier which caches the value for the given time.
+     * Before the expiry the value is refreshed by the executor while the old value is still returned.
+     * Null and failures (RuntimeException) are not cached, the last good value is returned instead.
+     *
+     * @param supplier supplier of a value
+     * @param ttl      time to live of the value
+     * @param executor executor of background refreshes
+     * @param <S>      type
+     * @return memoizing supplier
+     */
+    public static <S> Supplier<S> memoize(Supplier<S> supplier, Duration ttl, Executor executor) {
+        Objects.requireNonNull(supplier);
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+        long nanos = ttl.compareTo(MAX_TTL) < 0 ? ttl.toNanos() : MAX_TTL.toNanos();
+        return new ExpiringSupplier<>(supplier, nanos, Objects.requireNonNull(executor));
+    }
+
+    /**
+     * Compiles a chain of property getters into a null-safe path (cached per root class and path, unless it refers
+     * to classes of other class loaders than the root class - see {@link NullSafePath}). Typical use is:
+     * <p>
+     * static final NullSafePath&lt;Order, String&gt; ZIP = compile(Order.class, "customer.address.zip");
+     * <p>
+     * return ZIP.get(order);
+     *
+     * @param rootClass root class
+     * @param path      dot separated list of properties
+     * @param <R>       root type
+     * @param <T>       value type
+     * @return compiled path
+     * @throws IllegalArgumentException if a property cannot be resolved
+     */
+    public static <R, T> NullSafePath<R, T> compile(Class<R> rootClass, String path) {
+        return NullSafePath.of(rootClass, path);
+    }
+
+    /**
+     * Returns a future of a value provided by Supplier, evaluated by the executor.
+     * The future is completed with the default value if the supplier returns null, throws RuntimeException
+     * or does not finish in time (then it is cancelled - interrupted). Cancelling the future cancels the supplier.
+     *
+     * @param supplier     supplier of a value
+     * @param defaultValue default value
+     * @param timeout      time budget of the supplier
+     * @param executor     executor of the supplier
+     * @param <S>          type
+     * @return future of the value or the default value
+     */
+    public static <S> CompletableFuture<S> getAsync(Supplier<S> supplier, S defaultValue, Duration timeout,
+                                                    Executor executor) {
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("Timeout must not be negative");
+        }
+        CompletableFuture<S> result = new CompletableFuture<>();
+        FutureTask<Void> task = new FutureTask<>(() -> result.complete(get(supplier, defaultValue)), null);
+        long nanos = timeout.compareTo(MAX_TTL) < 0 ? timeout.toNanos() : MAX_TTL.toNanos();
+        ScheduledFuture<?> timer = TimeoutScheduler.SCHEDULER.schedule(() -> {
+            if (result.complete(defaultValue)) {
+                task.cancel(true);
+            }
+        }, nanos, TimeUnit.NANOSECONDS);
+        result.whenComplete((value, ex) -> {
+            timer.cancel(false);
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            result.complete(defaultValue);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a future of a value provided by Supplier, evaluated by a shared pool of daemon threads
+     * (virtual threads on Java 21+). The future is completed with the default value if the supplier returns null,
+     * throws RuntimeException or does not finish in time (then it is cancelled - interrupted).
+     *
+     * @param supplier     supplier of a value
+     * @param defaultValue default value
+     * @param timeout      time budget of the supplier
+     * @param <S>          type
+     * @return future of the value or the default value
+     */
+    public static <S> CompletableFuture<S> getAsync(Supplier<S> supplier, S defaultValue, Duration timeout) {
+        return getAsync(supplier, defaultValue, timeout, ParallelExecutor.EXECUTOR);
+    }
+
     /**
      * Returns a value provided by Supplier if condition is met, or null
      *
@@ -88,6 +455,7 @@ public final class NullSafeUtils {
             }
             return result;
         } catch (RuntimeException ex) {
+            Events.swallowed(supplier, ex);
             return null;
         }
     }
@@ -104,6 +472,7 @@ public final class NullSafeUtils {
             S result = supplier.get();
             return result == null;
         } catch (RuntimeException ex) {
+            Events.swallowed(supplier, ex);
             return true;
         }
     }
@@ -121,6 +490,7 @@ public final class NullSafeUtils {
             S result = supplier.get();
             return expected.equals(result);
         } catch (RuntimeException ex) {
+            Events.swallowed(supplier, ex);
             return false;
         }
     }
@@ -136,6 +506,22 @@ public final class NullSafeUtils {
             Boolean result = supplier.get();
             return result != null && result;
         } catch (RuntimeException ex) {
+            Events.swallowed(supplier, ex);
+            return false;
+        }
+    }
+
+    /**
+     * Returns true only if Supplier returned true (without boxing)
+     *
+     * @param supplier supplier of a value
+     * @return returns true only if Supplier returned true
+     */
+    public static boolean isTrue(BooleanSupplier supplier) {
+        try {
+            return supplier.getAsBoolean();
+        } catch (RuntimeException ex) {
+            Events.swallowed(supplier, ex);
             return false;
         }
     }
@@ -151,6 +537,22 @@ public final class NullSafeUtils {
             Boolean result = supplier.get();
             return result != null && !result;
         } catch (RuntimeException ex) {
+            Events.swallowed(supplier, ex);
+            return false;
+        }
+    }
+
+    /**
+     * Returns true only if Supplier returned false (without boxing)
+     *
+     * @param supplier supplier of a value
+     * @return returns true only if Supplier returned false
+     */
+    public static boolean isFalse(BooleanSupplier supplier) {
+        try {
+            return !supplier.getAsBoolean();
+        } catch (RuntimeException ex) {
+            Events.swallowed(supplier, ex);
             return false;
         }
     }
@@ -186,6 +588,106 @@ public final class NullSafeUtils {
         return true;
     }
 
+    /**
+     * Returns true if all Suppliers returned not null. Suppliers are evaluated in parallel by the executor and the remaining ones
+     * are cancelled as soon as the result is known.
+     *
+     * @param executor  executor of suppliers
+     * @param suppliers list of suppliers
+     * @return true if all Suppliers returned not null, false as soon as one of them returned null
+     * @throws java.util.concurrent.CancellationException if the current thread is interrupted (the interrupt flag is kept)
+     */
+    public static boolean allNotNullParallel(Executor executor, Supplier<Object>... suppliers) {
+        return ParallelSuppliers.check(executor, suppliers, false, true);
+    }
+
+    /**
+     * Returns true if all Suppliers returned not null. Suppliers are evaluated in parallel by a shared pool of daemon threads
+     * (virtual threads on Java 21+) and the remaining ones are cancelled as soon as the result is known.
+     *
+     * @param suppliers list of suppliers
+     * @return true if all Suppliers returned not null, false as soon as one of them returned null
+     * @throws java.util.concurrent.CancellationException if the current thread is interrupted (the interrupt flag is kept)
+     */
+    public static boolean allNotNullParallel(Supplier<Object>... suppliers) {
+        return allNotNullParallel(ParallelExecutor.EXECUTOR, suppliers);
+    }
+
+    /**
+     * Returns true if all Suppliers returned null. Suppliers are evaluated in parallel by the executor and the remaining ones
+     * are cancelled as soon as the result is known.
+     *
+     * @param executor  executor of suppliers
+     * @param suppliers list of suppliers
+     * @return true if all Suppliers returned null, false as soon as one of them returned not null
+     * @throws java.util.concurrent.CancellationException if the current thread is interrupted (the interrupt flag is kept)
+     */
+    public static boolean allNullParallel(Executor executor, Supplier<Object>... suppliers) {
+        return ParallelSuppliers.check(executor, suppliers, true, true);
+    }
+
+    /**
+     * Returns true if all Suppliers returned null. Suppliers are evaluated in parallel by a shared pool of daemon threads
+     * (virtual threads on Java 21+) and the remaining ones are cancelled as soon as the result is known.
+     *
+     * @param suppliers list of suppliers
+     * @return true if all Suppliers returned null, false as soon as one of them returned not null
+     * @throws java.util.concurrent.CancellationException if the current thread is interrupted (the interrupt flag is kept)
+     */
+    public static boolean allNullParallel(Supplier<Object>... suppliers) {
+        return allNullParallel(ParallelExecutor.EXECUTOR, suppliers);
+    }
+
+    /**
+     * Returns true if any Supplier returned null. Suppliers are evaluated in parallel by the executor and the remaining ones
+     * are cancelled as soon as the result is known.
+     *
+     * @param executor  executor of suppliers
+     * @param suppliers list of suppliers
+     * @return true as soon as one of Suppliers returned null
+     * @throws java.util.concurrent.CancellationException if the current thread is interrupted (the interrupt flag is kept)
+     */
+    public static boolean anyNullParallel(Executor executor, Supplier<Object>... suppliers) {
+        return ParallelSuppliers.check(executor, suppliers, true, false);
+    }
+
+    /**
+     * Returns true if any Supplier returned null. Suppliers are evaluated in parallel by a shared pool of daemon threads
+     * (virtual threads on Java 21+) and the remaining ones are cancelled as soon as the result is known.
+     *
+     * @param suppliers list of suppliers
+     * @return true as soon as one of Suppliers returned null
+     * @throws java.util.concurrent.CancellationException if the current thread is interrupted (the interrupt flag is kept)
+     */
+    public static boolean anyNullParallel(Supplier<Object>... suppliers) {
+        return anyNullParallel(ParallelExecutor.EXECUTOR, suppliers);
+    }
+
+    /**
+     * Returns true if any Supplier returned not null. Suppliers are evaluated in parallel by the executor and the remaining ones
+     * are cancelled as soon as the result is known.
+     *
+     * @param executor  executor of suppliers
+     * @param suppliers list of suppliers
+     * @return true as soon as one of Suppliers returned not null
+     * @throws java.util.concurrent.CancellationException if the current thread is interrupted (the interrupt flag is kept)
+     */
+    public static boolean anyNotNullParallel(Executor executor, Supplier<Object>... suppliers) {
+        return ParallelSuppliers.check(executor, suppliers, false, false);
+    }
+
+    /**
+     * Returns true if any Supplier returned not null. Suppliers are evaluated in parallel by a shared pool of daemon threads
+     * (virtual threads on Java 21+) and the remaining ones are cancelled as soon as the result is known.
+     *
+     * @param suppliers list of suppliers
+     * @return true as soon as one of Suppliers returned not null
+     * @throws java.util.concurrent.CancellationException if the current thread is interrupted (the interrupt flag is kept)
+     */
+    public static boolean anyNotNullParallel(Supplier<Object>... suppliers) {
+        return anyNotNullParallel(ParallelExecutor.EXECUTOR, suppliers);
+    }
+
     /**
      * Returns true if all Objects are not null
      *
@@ -257,4 +759,554 @@ public final class NullSafeUtils {
         return !allNull(suppliers);
     }
 
+    /**
+     * Returns true if all Objects are null (without varargs array)
+     *
+     * @param a object 1
+     * @param b object 2
+     * @return true if all Objects are null
+     */
+    public static boolean allNull(Object a, Object b) {
+        return a == null && b == null;
+    }
+
+    /**
+     * Returns true if all Objects are null (without varargs array)
+     *
+     * @param a object 1
+     * @param b object 2
+     * @param c object 3
+     * @return true if all Objects are null
+     */
+    public static boolean allNull(Object a, Object b, Object c) {
+        return a == null && b == null && c == null;
+    }
+
+    /**
+     * Returns true if all Objects are null (without varargs array)
+     *
+     * @param a object 1
+     * @param b object 2
+     * @param c object 3
+     * @param d object 4
+     * @return true if all Objects are null
+     */
+    public static boolean allNull(Object a, Object b, Object c, Object d) {
+        return a == null && b == null && c == null && d == null;
+    }
+
+    /**
+     * Returns true if all Objects are null (without varargs array)
+     *
+     * @param a object 1
+     * @param b object 2
+     * @param c object 3
+     * @param d object 4
+     * @param e object 5
+     * @return true if all Objects are null
+     */
+    public static boolean allNull(Object a, Object b, Object c, Object d, Object e) {
+        return a == null && b == null && c == null && d == null && e == null;
+    }
+
+    /**
+     * Returns true if all Objects are null (without varargs array)
+     *
+     * @param a object 1
+     * @param b object 2
+     * @param c object 3
+     * @param d object 4
+     * @param e object 5
+     * @param f object 6
+     * @return true if all Objects are null
+     */
+    public static boolean allNull(Object a, Object b, Object c, Object d, Object e, Object f) {
+        return a == null && b == null && c == null && d == null && e == null && f == null;
+    }
+
+    /**
+     * Returns true if all Suppliers returned null (without varargs array)
+     *
+     * @param a supplier 1
+     * @param b supplier 2
+     * @return true if all Suppliers returned null
+     */
+    public static boolean allNull(Supplier<Object> a, Supplier<Object> b) {
+        return get(a) == null
+                && get(b) == null;
+    }
+
+    /**
+     * Returns true if all Suppliers returned null (without varargs array)
+     *
+     * @param a supplier 1
+     * @param b supplier 2
+     * @param c supplier 3
+     * @return true if all Suppliers returned null
+     */
+    public static boolean allNull(Supplier<Object> a, Supplier<Object> b, Supplier<Object> c) {
+        return get(a) == null
+                && get(b) == null
+                && get(c) == null;
+    }
+
+    /**
+     * Returns true if all Suppliers returned null (without varargs array)
+     *
+     * @param a supplier 1
+     * @param b supplier 2
+     * @param c supplier 3
+     * @param d supplier 4
+     * @return true if all Suppliers returned null
+     */
+    public static boolean allNull(Supplier<Object> a, Supplier<Object> b, Supplier<Object> c, Supplier<Object> d) {
+        return get(a) == null
+                && get(b) == null
+                && get(c) == null
+                && get(d) == null;
+    }
+
+    /**
+     * Returns true if all Suppliers returned null (without varargs array)
+     *
+     * @param a supplier 1
+     * @param b supplier 2
+     * @param c supplier 3
+     * @param d supplier 4
+     * @param e supplier 5
+     * @return true if all Suppliers returned null
+     */
+    public static boolean allNull(Supplier<Object> a, Supplier<Object> b, Supplier<Object> c, Supplier<Object> d, Supplier<Object> e) {
+        return get(a) == null
+                && get(b) == null
+                && get(c) == null
+                && get(d) == null
+                && get(e) == null;
+    }
+
+    /**
+     * Returns true if all Suppliers returned null (without varargs array)
+     *
+     * @param a supplier 1
+     * @param b supplier 2
+     * @param c supplier 3
+     * @param d supplier 4
+     * @param e supplier 5
+     * @param f supplier 6
+     * @return true if all Suppliers returned null
+     */
+    public static boolean allNull(Supplier<Object> a, Supplier<Object> b, Supplier<Object> c, Supplier<Object> d, Supplier<Object> e, Supplier<Object> f) {
+        return get(a) == null
+                && get(b) == null
+                && get(c) == null
+                && get(d) == null
+                && get(e) == null
+                && get(f) == null;
+    }
+
+    /**
+     * Returns true if all Objects are not null (without varargs array)
+     *
+     * @param a object 1
+     * @param b object 2
+     * @return true if all Objects are not null
+     */
+    public static boolean allNotNull(Object a, Object b) {
+        return a != null && b != null;
+    }
+
+    /**
+     * Returns true if all Objects are not null (without varargs array)
+     *
+     * @param a object 1
+     * @param b object 2
+     * @param c object 3
+     * @return true if all Objects are not null
+     */
+    public static boolean allNotNull(Object a, Object b, Object c) {
+        return a != null && b != null && c != null;
+    }
+
+    /**
+     * Returns true if all Objects are not null (without varargs array)
+     *
+     * @param a object 1
+     * @param b object 2
+     * @param c object 3
+     * @param d object 4
+     * @return true if all Objects are not null
+     */
+    public static boolean allNotNull(Object a, Object b, Object c, Object d) {
+        return a != null && b != null && c != null && d != null;
+    }
+
+    /**
+     * Returns true if all Objects are not null (without varargs array)
+     *
+     * @param a object 1
+     * @param b object 2
+     * @param c object 3
+     * @param d object 4
+     * @param e object 5
+     * @return true if all Objects are not null
+     */
+    public static boolean allNotNull(Object a, Object b, Object c, Object d, Object e) {
+        return a != null && b != null && c != null && d != null && e != null;
+    }
+
+    /**
+     * Returns true if all Objects are not null (without varargs array)
+     *
+     * @param a object 1
+     * @param b object 2
+     * @param c object 3
+     * @param d object 4
+     * @param e object 5
+     * @param f object 6
+     * @return true if all Objects are not null
+     */
+    public static boolean allNotNull(Object a, Object b, Object c, Object d, Object e, Object f) {
+        return a != null && b != null && c != null && d != null && e != null && f != null;
+    }
+
+    /**
+     * Returns true if all Suppliers returned not null (without varargs array)
+     *
+     * @param a supplier 1
+     * @param b supplier 2
+     * @return true if all Suppliers returned not null
+     */
+    public static boolean allNotNull(Supplier<Object> a, Supplier<Object> b) {
+        return get(a) != null
+                && get(b) != null;
+    }
+
+    /**
+     * Returns true if all Suppliers returned not null (without varargs array)
+     *
+     * @param a supplier 1
+     * @param b supplier 2
+     * @param c supplier 3
+     * @return true if all Suppliers returned not null
+     */
+    public static boolean allNotNull(Supplier<Object> a, Supplier<Object> b, Supplier<Object> c) {
+        return get(a) != null
+                && get(b) != null
+                && get(c) != null;
+    }
+
+    /**
+     * Returns true if all Suppliers returned not null (without varargs array)
+     *
+     * @param a supplier 1
+     * @param b supplier 2
+     * @param c supplier 3
+     * @param d supplier 4
+     * @return true if all Suppliers returned not null
+     */
+    public static boolean allNotNull(Supplier<Object> a, Supplier<Object> b, Supplier<Object> c, Supplier<Object> d) {
+        return get(a) != null
+                && get(b) != null
+                && get(c) != null
+                && get(d) != null;
+    }
+
+    /**
+     * Returns true if all Suppliers returned not null (without varargs array)
+     *
+     * @param a supplier 1
+     * @param b supplier 2
+     * @param c supplier 3
+     * @param d supplier 4
+     * @param e supplier 5
+     * @return true if all Suppliers returned not null
+     */
+    public static boolean allNotNull(Supplier<Object> a, Supplier<Object> b, Supplier<Object> c, Supplier<Object> d, Supplier<Object> e) {
+        return get(a) != null
+                && get(b) != null
+                && get(c) != null
+                && get(d) != null
+                && get(e) != null;
+    }
+
+    /**
+     * Returns true if all Suppliers returned not null (without varargs array)
+     *
+     * @param a supplier 1
+     * @param b supplier 2
+     * @param c supplier 3
+     * @param d supplier 4
+     * @param e supplier 5
+     * @param f supplier 6
+     * @return true if all Suppliers returned not null
+     */
+    public static boolean allNotNull(Supplier<Object> a, Supplier<Object> b, Supplier<Object> c, Supplier<Object> d, Supplier<Object> e, Supplier<Object> f) {
+        return get(a) != null
+                && get(b) != null
+                && get(c) != null
+                && get(d) != null
+                && get(e) != null
+                && get(f) != null;
+    }
+
+    /**
+     * Returns true if any Object is null (without varargs array)
+     *
+     * @param a object 1
+     * @param b object 2
+     * @return true if at least one object is null
+     */
+    public static boolean anyNull(Object a, Object b) {
+        return !allNotNull(a, b);
+    }
+
+    /**
+     * Returns true if any Object is null (without varargs array)
+     *
+     * @param a object 1
+     * @param b object 2
+     * @param c object 3
+     * @return true if at least one object is null
+     */
+    public static boolean anyNull(Object a, Object b, Object c) {
+        return !allNotNull(a, b, c);
+    }
+
+    /**
+     * Returns true if any Object is null (without varargs array)
+     *
+     * @param a object 1
+     * @param b object 2
+     * @param c object 3
+     * @param d object 4
+     * @return true if at least one object is null
+     */
+    public static boolean anyNull(Object a, Object b, Object c, Object d) {
+        return !allNotNull(a, b, c, d);
+    }
+
+    /**
+     * Returns true if any Object is null (without varargs array)
+     *
+     * @param a object 1
+     * @param b object 2
+     * @param c object 3
+     * @param d object 4
+     * @param e object 5
+     * @return true if at least one object is null
+     */
+    public static boolean anyNull(Object a, Object b, Object c, Object d, Object e) {
+        return !allNotNull(a, b, c, d, e);
+    }
+
+    /**
+     * Returns true if any Object is null (without varargs array)
+     *
+     * @param a object 1
+     * @param b object 2
+     * @param c object 3
+     * @param d object 4
+     * @param e object 5
+     * @param f object 6
+     * @return true if at least one object is null
+     */
+    public static boolean anyNull(Object a, Object b, Object c, Object d, Object e, Object f) {
+        return !allNotNull(a, b, c, d, e, f);
+    }
+
+    /**
+     * Returns true if any Supplier returned null (without varargs array)
+     *
+     * @param a supplier 1
+     * @param b supplier 2
+     * @return true if at least one Supplier returned null
+     */
+    public static boolean anyNull(Supplier<Object> a, Supplier<Object> b) {
+        return !allNotNull(a, b);
+    }
+
+    /**
+     * Returns true if any Supplier returned null (without varargs array)
+     *
+     * @param a supplier 1
+     * @param b supplier 2
+     * @param c supplier 3
+     * @return true if at least one Supplier returned null
+     */
+    public static boolean anyNull(Supplier<Object> a, Supplier<Object> b, Supplier<Object> c) {
+        return !allNotNull(a, b, c);
+    }
+
+    /**
+     * Returns true if any Supplier returned null (without varargs array)
+     *
+     * @param a supplier 1
+     * @param b supplier 2
+     * @param c supplier 3
+     * @param d supplier 4
+     * @return true if at least one Supplier returned null
+     */
+    public static boolean anyNull(Supplier<Object> a, Supplier<Object> b, Supplier<Object> c, Supplier<Object> d) {
+        return !allNotNull(a, b, c, d);
+    }
+
+    /**
+     * Returns true if any Supplier returned null (without varargs array)
+     *
+     * @param a supplier 1
+     * @param b supplier 2
+     * @param c supplier 3
+     * @param d supplier 4
+     * @param e supplier 5
+     * @return true if at least one Supplier returned null
+     */
+    public static boolean anyNull(Supplier<Object> a, Supplier<Object> b, Supplier<Object> c, Supplier<Object> d, Supplier<Object> e) {
+        return !allNotNull(a, b, c, d, e);
+    }
+
+    /**
+     * Returns true if any Supplier returned null (without varargs array)
+     *
+     * @param a supplier 1
+     * @param b supplier 2
+     * @param c supplier 3
+     * @param d supplier 4
+     * @param e supplier 5
+     * @param f supplier 6
+     * @return true if at least one Supplier returned null
+     */
+    public static boolean anyNull(Supplier<Object> a, Supplier<Object> b, Supplier<Object> c, Supplier<Object> d, Supplier<Object> e, Supplier<Object> f) {
+        return !allNotNull(a, b, c, d, e, f);
+    }
+
+    /**
+     * Returns true if any Object is not null (without varargs array)
+     *
+     * @param a object 1
+     * @param b object 2
+     * @return true if at least one object is not null
+     */
+    public static boolean anyNotNull(Object a, Object b) {
+        return !allNull(a, b);
+    }
+
+    /**
+     * Returns true if any Object is not null (without varargs array)
+     *
+     * @param a object 1
+     * @param b object 2
+     * @param c object 3
+     * @return true if at least one object is not null
+     */
+    public static boolean anyNotNull(Object a, Object b, Object c) {
+        return !allNull(a, b, c);
+    }
+
+    /**
+     * Returns true if any Object is not null (without varargs array)
+     *
+     * @param a object 1
+     * @param b object 2
+     * @param c object 3
+     * @param d object 4
+     * @return true if at least one object is not null
+     */
+    public static boolean anyNotNull(Object a, Object b, Object c, Object d) {
+        return !allNull(a, b, c, d);
+    }
+
+    /**
+     * Returns true if any Object is not null (without varargs array)
+     *
+     * @param a object 1
+     * @param b object 2
+     * @param c object 3
+     * @param d object 4
+     * @param e object 5
+     * @return true if at least one object is not null
+     */
+    public static boolean anyNotNull(Object a, Object b, Object c, Object d, Object e) {
+        return !allNull(a, b, c, d, e);
+    }
+
+    /**
+     * Returns true if any Object is not null (without varargs array)
+     *
+     * @param a object 1
+     * @param b object 2
+     * @param c object 3
+     * @param d object 4
+     * @param e object 5
+     * @param f object 6
+     * @return true if at least one object is not null
+     */
+    public static boolean anyNotNull(Object a, Object b, Object c, Object d, Object e, Object f) {
+        return !allNull(a, b, c, d, e, f);
+    }
+
+    /**
+     * Returns true if any Supplier returned not null (without varargs array)
+     *
+     * @param a supplier 1
+     * @param b supplier 2
+     * @return true if at least one Supplier returned not null
+     */
+    public static boolean anyNotNull(Supplier<Object> a, Supplier<Object> b) {
+        return !allNull(a, b);
+    }
+
+    /**
+     * Returns true if any Supplier returned not null (without varargs array)
+     *
+     * @param a supplier 1
+     * @param b supplier 2
+     * @param c supplier 3
+     * @return true if at least one Supplier returned not null
+     */
+    public static boolean anyNotNull(Supplier<Object> a, Supplier<Object> b, Supplier<Object> c) {
+        return !allNull(a, b, c);
+    }
+
+    /**
+     * Returns true if any Supplier returned not null (without varargs array)
+     *
+     * @param a supplier 1
+     * @param b supplier 2
+     * @param c supplier 3
+     * @param d supplier 4
+     * @return true if at least one Supplier returned not null
+     */
+    public static boolean anyNotNull(Supplier<Object> a, Supplier<Object> b, Supplier<Object> c, Supplier<Object> d) {
+        return !allNull(a, b, c, d);
+    }
+
+    /**
+     * Returns true if any Supplier returned not null (without varargs array)
+     *
+     * @param a supplier 1
+     * @param b supplier 2
+     * @param c supplier 3
+     * @param d supplier 4
+     * @param e supplier 5
+     * @return true if at least one Supplier returned not null
+     */
+    public static boolean anyNotNull(Supplier<Object> a, Supplier<Object> b, Supplier<Object> c, Supplier<Object> d, Supplier<Object> e) {
+        return !allNull(a, b, c, d, e);
+    }
+
+    /**
+     * Returns true if any Supplier returned not null (without varargs array)
+     *
+     * @param a supplier 1
+     * @param b supplier 2
+     * @param c supplier 3
+     * @param d supplier 4
+     * @param e supplier 5
+     * @param f supplier 6
+     * @return true if at least one Supplier returned not null
+     */
+    public static boolean anyNotNull(Supplier<Object> a, Supplier<Object> b, Supplier<Object> c, Supplier<Object> d, Supplier<Object> e, Supplier<Object> f) {
+        return !allNull(a, b, c, d, e, f);
+    }
+
 }
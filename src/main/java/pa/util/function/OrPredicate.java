@@ -0,0 +1,58 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.function.Predicate;
+
+/**
+ * Logical disjunction - OR of many operands
+ *
+ * @param <T> type
+ * @author Grzegorz Krupinski
+ */
+final class OrPredicate<T> extends CompositePredicate<T> {
+
+    OrPredicate(Predicate<T>[] operands) {
+        super(operands);
+    }
+
+    @Override
+    public boolean test(T t) {
+        for (Predicate<T> p : operands) {
+            if (p.test(t)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public long test(T[] batch, int offset, long mask) {
+        long result = 0L;
+        for (Predicate<T> p : operands) {
+            if (mask == 0L) {
+                break;
+            }
+            long hit = Predicates.test(p, batch, offset, mask);
+            result |= hit;
+            mask &= ~hit;
+        }
+        return result;
+    }
+
+}
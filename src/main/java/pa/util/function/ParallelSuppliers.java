@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Parallel evaluation of suppliers - results are checked in order of completion and the remaining
+ * suppliers are cancelled (interrupted) as soon as the result is decided
+ *
+ * @author Grzegorz Krupinski
+ * @see NullSafeUtils#allNotNullParallel(Executor, Supplier[])
+ */
+final class ParallelSuppliers {
+
+    private ParallelSuppliers() {
+    }
+
+    /**
+     * @param executor  executor of suppliers
+     * @param suppliers suppliers
+     * @param isNull    checked condition - the supplier returned null (or not null)
+     * @param all       true if all suppliers have to satisfy the condition, false if any of them
+     * @return result
+     * @throws CancellationException if the current thread is interrupted (the interrupt flag is kept)
+     * @throws CompletionException   if a supplier has thrown a checked exception
+     */
+    static boolean check(Executor executor, Supplier<Object>[] suppliers, boolean isNull, boolean all) {
+        if (suppliers.length == 0) {
+            return all;
+        }
+        CompletionService<Boolean> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Boolean>> futures = new ArrayList<>(suppliers.length);
+        try {
+            for (Supplier<Object> supplier : suppliers) {
+                futures.add(completion.submit(() -> (NullSafeUtils.get(supplier) == null) == isNull));
+            }
+            for (int i = 0; i < suppliers.length; i++) {
+                if (completion.take().get() != all) {
+                    return !all;
+                }
+            }
+            return all;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            CancellationException cancelled = new CancellationException("Interrupted while waiting for suppliers");
+            cancelled.initCause(ex);
+            throw cancelled;
+        } catch (ExecutionException ex) {
+            // get() swallows RuntimeExceptions, so an Error or a checked exception thrown sneakily gets here
+            Throwable cause = ex.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new CompletionException(cause);
+        } finally {
+            for (Future<Boolean> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+}
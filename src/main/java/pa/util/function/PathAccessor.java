@@ -0,0 +1,136 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.lang.invoke.MethodHandle;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Defines a class, which calls a compiled path from a static final field, so JIT treats the MethodHandle
+ * as a constant and inlines the getters (a MethodHandle in an instance field is called without inlining).
+ * <p>
+ * The class is defined in its own class loader, which hands the MethodHandle to the static initializer,
+ * so it is unloaded together with the compiled path. It refers only to public JDK types:
+ * <pre>
+ * public final class CompiledPath implements Function {
+ *     private static final MethodHandle HANDLE = (MethodHandle) ((Supplier) CompiledPath.class.getClassLoader()).get();
+ *
+ *     public Object apply(Object root) {
+ *         return HANDLE.invokeExact(root);
+ *     }
+ * }
+ * </pre>
+ *
+ * @author Grzegorz Krupinski
+ * @see NullSafePath
+ */
+final class PathAccessor extends ClassFileWriter {
+
+    static final String CLASS_NAME = "pa/util/function/CompiledPath";
+
+    private static final String HANDLE_DESCRIPTOR = "Ljava/lang/invoke/MethodHandle;";
+    private static final String APPLY_DESCRIPTOR = "(Ljava/lang/Object;)Ljava/lang/Object;";
+
+    private static final byte[] CLASS_FILE = generate();
+
+    private PathAccessor() {
+    }
+
+    /**
+     * Defines a class calling the handle
+     *
+     * @param handle compiled path of type (Object)Object
+     * @return function calling the handle
+     */
+    @SuppressWarnings("unchecked")
+    static Function<Object, Object> define(MethodHandle handle) {
+        try {
+            Class<?> type = new Loader(PathAccessor.class.getClassLoader(), handle).define(CLASS_FILE);
+            return (Function<Object, Object>) type.getConstructor().newInstance();
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Cannot define compiled path", ex);
+        }
+    }
+
+    private static byte[] generate() {
+        return new PathAccessor().write();
+    }
+
+    private byte[] write() {
+        int supplier = classRef("java/util/function/Supplier");
+        int methodHandle = classRef("java/lang/invoke/MethodHandle");
+        int thisClass = classRef(CLASS_NAME);
+        int handleField = fieldRef(CLASS_NAME, "HANDLE", HANDLE_DESCRIPTOR);
+        int objectInit = methodRef("java/lang/Object", "<init>", "()V");
+        int getClassLoader = methodRef("java/lang/Class", "getClassLoader", "()Ljava/lang/ClassLoader;");
+        int get = interfaceMethodRef("java/util/function/Supplier", "get", "()Ljava/lang/Object;");
+        int invokeExact = methodRef("java/lang/invoke/MethodHandle", "invokeExact", APPLY_DESCRIPTOR);
+
+        byte[] clinit = {
+                LDC, (byte) thisClass,
+                (byte) INVOKEVIRTUAL, hi(getClassLoader), lo(getClassLoader),
+                (byte) CHECKCAST, hi(supplier), lo(supplier),
+                (byte) INVOKEINTERFACE, hi(get), lo(get), 1, 0,
+                (byte) CHECKCAST, hi(methodHandle), lo(methodHandle),
+                (byte) PUTSTATIC, hi(handleField), lo(handleField),
+                (byte) RETURN
+        };
+        byte[] init = {
+                ALOAD_0,
+                (byte) INVOKESPECIAL, hi(objectInit), lo(objectInit),
+                (byte) RETURN
+        };
+        byte[] apply = {
+                (byte) GETSTATIC, hi(handleField), lo(handleField),
+                ALOAD_1,
+                (byte) INVOKEVIRTUAL, hi(invokeExact), lo(invokeExact),
+                (byte) ARETURN
+        };
+
+        field(PRIVATE | STATIC | FINAL, "HANDLE", HANDLE_DESCRIPTOR);
+        method(STATIC, "<clinit>", "()V", 1, 0, clinit);
+        method(PUBLIC, "<init>", "()V", 1, 1, init);
+        method(PUBLIC, "apply", APPLY_DESCRIPTOR, 2, 2, apply);
+        // straight-line code, no stack map frames are required
+        return toClassFile(52, CLASS_NAME, "java/util/function/Function");
+    }
+
+    /**
+     * Class loader of one compiled path, which hands its MethodHandle to the static initializer
+     */
+    private static final class Loader extends ClassLoader implements Supplier<Object> {
+
+        private final MethodHandle handle;
+
+        Loader(ClassLoader parent, MethodHandle handle) {
+            super(parent);
+            this.handle = handle;
+        }
+
+        Class<?> define(byte[] bytes) {
+            return defineClass(null, bytes, 0, bytes.length);
+        }
+
+        @Override
+        public Object get() {
+            return handle;
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.function.Predicate;
+
+/**
+ * Defines classes generated by PredicateCompiler - each class in its own class loader, so it can be unloaded
+ * together with the compiled predicate. On Java 15+ a hidden class is defined instead (see src/main/java15).
+ *
+ * @author Grzegorz Krupinski
+ */
+final class PredicateClassDefiner {
+
+    private PredicateClassDefiner() {
+    }
+
+    /**
+     * Defines a class and creates its instance
+     *
+     * @param bytes  class file
+     * @param leaves constructor argument
+     * @return compiled predicate
+     */
+    static Predicate<?> define(byte[] bytes, Predicate<?>[] leaves) {
+        try {
+            Class<?> type = new Loader(PredicateClassDefiner.class.getClassLoader()).define(bytes);
+            return (Predicate<?>) type.getConstructor(Predicate[].class).newInstance((Object) leaves);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Cannot define compiled predicate", ex);
+        }
+    }
+
+    private static final class Loader extends ClassLoader {
+
+        Loader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(byte[] bytes) {
+            return defineClass(null, bytes, 0, bytes.length);
+        }
+    }
+
+}
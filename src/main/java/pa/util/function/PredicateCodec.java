@@ -0,0 +1,446 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Compact binary format of structural predicate trees (constants, not, and, or, xor, xand - so also nand, nor
+ * and cond - and eq, in, long and double ranges over attributes and named predicates of {@link Attributes}).
+ * <p>
+ * The format is: magic "PT", version byte, string table (varint count, then varint length and UTF-8 bytes
+ * of each attribute name and string value), tree in preorder (an opcode byte per node, varint operand counts,
+ * indexes to the string table and zigzag varint numbers). Decoding reads the buffer in place and builds
+ * the same node types, so a decoded tree is equal to the encoded one when both sides use equal attributes.
+ *
+ * @param <T> type of elements
+ * @author Grzegorz Krupinski
+ */
+public final class PredicateCodec<T> {
+
+    static final int VERSION = 1;
+
+    private static final byte MAGIC_0 = 'P';
+    private static final byte MAGIC_1 = 'T';
+    private static final int MAX_DEPTH = 1000;
+
+    private static final int TRUE = 0;
+    private static final int FALSE = 1;
+    private static final int NOT = 2;
+    private static final int AND = 3;
+    private static final int OR = 4;
+    private static final int XOR = 5;
+    private static final int XAND = 6;
+    private static final int EQ = 7;
+    private static final int IN = 8;
+    private static final int LONG_RANGE = 9;
+    private static final int DOUBLE_RANGE = 10;
+    private static final int NAMED = 11;
+
+    private static final int VALUE_NULL = 0;
+    private static final int VALUE_STRING = 1;
+    private static final int VALUE_LONG = 2;
+    private static final int VALUE_INT = 3;
+    private static final int VALUE_DOUBLE = 4;
+    private static final int VALUE_TRUE = 5;
+    private static final int VALUE_FALSE = 6;
+
+    private final Attributes<T> attributes;
+
+    /**
+     * @param attributes attributes used by encoded trees, the decoding side needs attributes with the same names
+     */
+    public PredicateCodec(Attributes<T> attributes) {
+        this.attributes = attributes;
+    }
+
+    /**
+     * Encodes the predicate tree
+     *
+     * @param predicate predicate
+     * @return encoded tree
+     * @throws IllegalArgumentException if the tree contains a node, an extractor or a value, which can not be encoded
+     */
+    public byte[] encode(Predicate<T> predicate) {
+        Encoder encoder = new Encoder();
+        encoder.node(predicate, 0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(encoder.tree.size() + 16);
+        out.write(MAGIC_0);
+        out.write(MAGIC_1);
+        out.write(VERSION);
+        writeVarint(out, encoder.strings.size());
+        for (String s : encoder.strings.keySet()) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+        byte[] tree = encoder.tree.toByteArray();
+        out.write(tree, 0, tree.length);
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a predicate tree
+     *
+     * @param bytes encoded tree
+     * @return predicate
+     * @throws IllegalArgumentException if the input is malformed, has other version or trailing bytes,
+     *                                  or uses unknown attributes
+     */
+    public Predicate<T> decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        Predicate<T> predicate = decode(buffer);
+        if (buffer.hasRemaining()) {
+            throw new IllegalArgumentException("Trailing bytes: " + buffer.remaining());
+        }
+        return predicate;
+    }
+
+    /**
+     * Decodes a predicate tree starting at the position of the buffer, the position is moved after the tree
+     *
+     * @param buffer buffer
+     * @return predicate
+     * @throws IllegalArgumentException if the input is malformed, has other version or uses unknown attributes
+     */
+    public Predicate<T> decode(ByteBuffer buffer) {
+        try {
+            if (buffer.get() != MAGIC_0 || buffer.get() != MAGIC_1) {
+                throw new IllegalArgumentException("Not an encoded predicate");
+            }
+            int version = buffer.get() & 0xFF;
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported version: " + version);
+            }
+            int count = readCount(buffer);
+            String[] strings = new String[count];
+            for (int i = 0; i < count; i++) {
+                int length = readCount(buffer);
+                if (length > buffer.remaining()) {
+                    throw new IllegalArgumentException("String out of input");
+                }
+                ByteBuffer slice = buffer.slice();
+                slice.limit(length);
+                strings[i] = StandardCharsets.UTF_8.decode(slice).toString();
+                buffer.position(buffer.position() + length);
+            }
+            return new Decoder(buffer, strings).node(0);
+        } catch (BufferUnderflowException ex) {
+            throw new IllegalArgumentException("Unexpected end of input", ex);
+        }
+    }
+
+    private final class Encoder {
+
+        final Map<String, Integer> strings = new LinkedHashMap<>();
+        final ByteArrayOutputStream tree = new ByteArrayOutputStream();
+
+        @SuppressWarnings("unchecked")
+        void node(Predicate<T> p, int depth) {
+            if (depth > MAX_DEPTH) {
+                throw new IllegalArgumentException("Tree deeper than " + MAX_DEPTH);
+            }
+            if (p instanceof ConstantPredicate) {
+                tree.write(((ConstantPredicate<T>) p).value ? TRUE : FALSE);
+            } else if (p instanceof NotPredicate) {
+                tree.write(NOT);
+                node(((NotPredicate<T>) p).operand, depth + 1);
+            } else if (p instanceof AndPredicate) {
+                composite(AND, ((AndPredicate<T>) p).operands, depth);
+            } else if (p instanceof OrPredicate) {
+                composite(OR, ((OrPredicate<T>) p).operands, depth);
+            } else if (p instanceof XorPredicate) {
+                composite(XOR, ((XorPredicate<T>) p).operands, depth);
+            } else if (p instanceof XandPredicate) {
+                composite(XAND, ((XandPredicate<T>) p).operands, depth);
+            } else if (p instanceof AdaptivePredicate) {
+                AdaptivePredicate<T> adaptive = (AdaptivePredicate<T>) p;
+                composite(adaptive.isAnd() ? AND : OR, adaptive.operands(), depth);
+            } else if (p instanceof EqPredicate) {
+                EqPredicate<T> eq = (EqPredicate<T>) p;
+                attribute(EQ, eq.extractor, Attributes.Kind.OBJECT);
+                value(eq.value);
+            } else if (p instanceof InPredicate) {
+                InPredicate<T> in = (InPredicate<T>) p;
+                attribute(IN, in.extractor, Attributes.Kind.OBJECT);
+                writeVarint(tree, in.values.size());
+                for (Object value : in.values) {
+                    value(value);
+                }
+            } else if (p instanceof LongRangePredicate) {
+                LongRangePredicate<T> range = (LongRangePredicate<T>) p;
+                attribute(LONG_RANGE, range.extractor, Attributes.Kind.LONG);
+                writeVarint(tree, range.intervals.starts.length);
+                for (int i = 0; i < range.intervals.starts.length; i++) {
+                    writeVarint(tree, zigzag(range.intervals.starts[i]));
+                    writeVarint(tree, range.intervals.ends[i] - range.intervals.starts[i]);
+                }
+            } else if (p instanceof DoubleRangePredicate) {
+                DoubleRangePredicate<T> range = (DoubleRangePredicate<T>) p;
+                attribute(DOUBLE_RANGE, range.extractor, Attributes.Kind.DOUBLE);
+                writeVarint(tree, range.intervals.starts.length);
+                for (int i = 0; i < range.intervals.starts.length; i++) {
+                    writeDouble(range.intervals.starts[i]);
+                    writeDouble(range.intervals.ends[i]);
+                }
+            } else {
+                attribute(NAMED, p, Attributes.Kind.PREDICATE);
+            }
+        }
+
+        private void composite(int opcode, Predicate<T>[] operands, int depth) {
+            tree.write(opcode);
+            writeVarint(tree, operands.length);
+            for (Predicate<T> operand : operands) {
+                node(operand, depth + 1);
+            }
+        }
+
+        private void attribute(int opcode, Object extractor, Attributes.Kind kind) {
+            Attributes.Attribute attribute = attributes.attributeOf(extractor);
+            if (attribute == null || attribute.kind != kind) {
+                throw new IllegalArgumentException(kind == Attributes.Kind.PREDICATE
+                        ? "Predicate is not structural nor registered: " + extractor
+                        : "Extractor is not a registered " + kind.name().toLowerCase(Locale.ROOT) + " attribute");
+            }
+            tree.write(opcode);
+            string(attribute.name);
+        }
+
+        private void value(Object value) {
+            if (value == null) {
+                tree.write(VALUE_NULL);
+            } else if (value instanceof String) {
+                tree.write(VALUE_STRING);
+                string((String) value);
+            } else if (value instanceof Long) {
+                tree.write(VALUE_LONG);
+                writeVarint(tree, zigzag((Long) value));
+            } else if (value instanceof Integer) {
+                tree.write(VALUE_INT);
+                writeVarint(tree, zigzag((Integer) value));
+            } else if (value instanceof Double) {
+                tree.write(VALUE_DOUBLE);
+                writeDouble((Double) value);
+            } else if (value instanceof Boolean) {
+                tree.write((Boolean) value ? VALUE_TRUE : VALUE_FALSE);
+            } else {
+                throw new IllegalArgumentException("Unsupported value type: " + value.getClass().getName());
+            }
+        }
+
+        private void string(String s) {
+            Integer index = strings.get(s);
+            if (index == null) {
+                index = strings.size();
+                strings.put(s, index);
+            }
+            writeVarint(tree, index);
+        }
+
+        private void writeDouble(double value) {
+            long bits = Double.doubleToLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                tree.write((int) (bits >>> shift));
+            }
+        }
+    }
+
+    private final class Decoder {
+
+        private final ByteBuffer buffer;
+        private final String[] strings;
+
+        Decoder(ByteBuffer buffer, String[] strings) {
+            this.buffer = buffer;
+            this.strings = strings;
+        }
+
+        @SuppressWarnings("unchecked")
+        Predicate<T> node(int depth) {
+            if (depth > MAX_DEPTH) {
+                throw new IllegalArgumentException("Tree deeper than " + MAX_DEPTH);
+            }
+            int opcode = buffer.get() & 0xFF;
+            switch (opcode) {
+                case TRUE:
+                    return ConstantPredicate.of(true);
+                case FALSE:
+                    return ConstantPredicate.of(false);
+                case NOT:
+                    return new NotPredicate<>(node(depth + 1));
+                case AND:
+                    return new AndPredicate<>(operands(depth));
+                case OR:
+                    return new OrPredicate<>(operands(depth));
+                case XOR:
+                    return new XorPredicate<>(operands(depth));
+                case XAND:
+                    return new XandPredicate<>(operands(depth));
+                case EQ:
+                    return new EqPredicate<>((Function<? super T, ?>) attribute(Attributes.Kind.OBJECT), value());
+                case IN: {
+                    Function<? super T, ?> extractor = (Function<? super T, ?>) attribute(Attributes.Kind.OBJECT);
+                    int count = readCount(buffer);
+                    Set<Object> values = new HashSet<>();
+                    for (int i = 0; i < count; i++) {
+                        values.add(value());
+                    }
+                    return new InPredicate<>(extractor, values);
+                }
+                case LONG_RANGE: {
+                    ToLongFunction<? super T> extractor = (ToLongFunction<? super T>) attribute(Attributes.Kind.LONG);
+                    int count = readCount(buffer);
+                    long[] starts = new long[count];
+                    long[] ends = new long[count];
+                    for (int i = 0; i < count; i++) {
+                        starts[i] = unzigzag(readVarint(buffer));
+                        ends[i] = starts[i] + readVarint(buffer);
+                    }
+                    return LongRangePredicate.of(extractor, new LongIntervalSet(starts, ends, count));
+                }
+                case DOUBLE_RANGE: {
+                    ToDoubleFunction<? super T> extractor =
+                            (ToDoubleFunction<? super T>) attribute(Attributes.Kind.DOUBLE);
+                    int count = readCount(buffer);
+                    double[] starts = new double[count];
+                    double[] ends = new double[count];
+                    for (int i = 0; i < count; i++) {
+                        starts[i] = buffer.getDouble();
+                        ends[i] = buffer.getDouble();
+                    }
+                    return DoubleRangePredicate.of(extractor, new DoubleIntervalSet(starts, ends, count));
+                }
+                case NAMED:
+                    return (Predicate<T>) attribute(Attributes.Kind.PREDICATE);
+                default:
+                    throw new IllegalArgumentException("Unknown opcode: " + opcode);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private Predicate<T>[] operands(int depth) {
+            int count = readCount(buffer);
+            if (count == 0) {
+                throw new IllegalArgumentException("Operation without operands");
+            }
+            List<Predicate<T>> operands = new ArrayList<>(Math.min(count, buffer.remaining()));
+            for (int i = 0; i < count; i++) {
+                operands.add(node(depth + 1));
+            }
+            return operands.toArray(new Predicate[0]);
+        }
+
+        private Object attribute(Attributes.Kind kind) {
+            Attributes.Attribute attribute = attributes.attribute(string());
+            if (attribute.kind != kind) {
+                throw new IllegalArgumentException("Attribute " + attribute.name + " is not "
+                        + kind.name().toLowerCase(Locale.ROOT));
+            }
+            return attribute.extractor;
+        }
+
+        private Object value() {
+            int tag = buffer.get() & 0xFF;
+            switch (tag) {
+                case VALUE_NULL:
+                    return null;
+                case VALUE_STRING:
+                    return string();
+                case VALUE_LONG:
+                    return unzigzag(readVarint(buffer));
+                case VALUE_INT:
+                    long value = unzigzag(readVarint(buffer));
+                    if ((int) value != value) {
+                        throw new IllegalArgumentException("Int value out of range: " + value);
+                    }
+                    return (int) value;
+                case VALUE_DOUBLE:
+                    return buffer.getDouble();
+                case VALUE_TRUE:
+                    return Boolean.TRUE;
+                case VALUE_FALSE:
+                    return Boolean.FALSE;
+                default:
+                    throw new IllegalArgumentException("Unknown value tag: " + tag);
+            }
+        }
+
+        private String string() {
+            long index = readVarint(buffer);
+            if (index < 0 || index >= strings.length) {
+                throw new IllegalArgumentException("String index out of table: " + index);
+            }
+            return strings[(int) index];
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    /**
+     * Reads a varint count or index, which has to fit in int and the remaining input
+     */
+    private static int readCount(ByteBuffer buffer) {
+        long value = readVarint(buffer);
+        if (value < 0 || value > buffer.remaining()) {
+            throw new IllegalArgumentException("Count out of input: " + value);
+        }
+        return (int) value;
+    }
+
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Compiles a predicate tree (AND, OR, NOT, XOR, XAND and constants) into a dedicated class with
+ * an if-chain in its test method. Other predicates are leaves - each of them is stored in its own field
+ * and called from its own (monomorphic) call site.
+ * <p>
+ * The class file has version 49 (no stack map frames are required). It is defined by PredicateClassDefiner:
+ * as a hidden class on Java 15+ or in its own class loader on older versions.
+ *
+ * @author Grzegorz Krupinski
+ * @see Predicates#compile(Predicate)
+ */
+final class PredicateCompiler extends ClassFileWriter {
+
+    static final String CLASS_NAME = "pa/util/function/CompiledPredicate";
+
+    private static final String PREDICATE = "java/util/function/Predicate";
+    private static final String PREDICATE_DESCRIPTOR = "L" + PREDICATE + ";";
+    private static final int MAX_CODE_LENGTH = 32_000;
+    private static final int MAX_LOCALS = 255;
+    private static final int MAX_LEAVES = Short.MAX_VALUE;
+
+    /**
+     * Position in code and unresolved jumps to it
+     */
+    private static final class Label {
+        int position = -1;
+        final List<Integer> jumps = new ArrayList<>();
+    }
+
+    private final Map<Predicate<?>, Integer> leaves = new IdentityHashMap<>();
+    private final List<Predicate<?>> leafList = new ArrayList<>();
+    private ByteArrayOutputStream code = new ByteArrayOutputStream();
+    private int maxLocals = 2;
+
+    private PredicateCompiler() {
+    }
+
+    /**
+     * Compiles predicate into a dedicated class
+     *
+     * @param p   predicate
+     * @param <T> type
+     * @return compiled predicate or p, if p is not a tree or it is too big to compile
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Predicate<T> compile(Predicate<T> p) {
+        if (!isNode(p)) {
+            return p;
+        }
+        PredicateCompiler compiler = new PredicateCompiler();
+        byte[] bytes = compiler.generate(p);
+        if (bytes == null) {
+            return p;
+        }
+        return (Predicate<T>) PredicateClassDefiner.define(bytes, compiler.leafList.toArray(new Predicate[0]));
+    }
+
+    private static boolean isNode(Predicate<?> p) {
+        return p instanceof CompositePredicate || p instanceof NotPredicate || p instanceof ConstantPredicate;
+    }
+
+    /**
+     * @return class file or null if the predicate is too big
+     */
+    private byte[] generate(Predicate<?> p) {
+        Label isFalse = new Label();
+        jump(p, false, isFalse);
+        op(ICONST_1);
+        op(IRETURN);
+        place(isFalse);
+        op(ICONST_0);
+        op(IRETURN);
+        if (code.size() > MAX_CODE_LENGTH || maxLocals > MAX_LOCALS || leafList.size() > MAX_LEAVES) {
+            return null;
+        }
+        byte[] test = code.toByteArray();
+
+        code = new ByteArrayOutputStream();
+        op(ALOAD_0);
+        op(INVOKESPECIAL);
+        u2(methodRef("java/lang/Object", "<init>", "()V"));
+        for (int i = 0; i < leafList.size(); i++) {
+            op(ALOAD_0);
+            op(ALOAD_1);
+            push(i);
+            op(AALOAD);
+            op(PUTFIELD);
+            u2(leafField(i));
+        }
+        op(RETURN);
+        byte[] init = code.toByteArray();
+
+        for (int i = 0; i < leafList.size(); i++) {
+            field(PRIVATE | FINAL, "p" + i, PREDICATE_DESCRIPTOR);
+        }
+        method(PUBLIC, "<init>", "([" + PREDICATE_DESCRIPTOR + ")V", 3, 2, init);
+        method(PUBLIC, "test", "(Ljava/lang/Object;)Z", 4, maxLocals, test);
+        return toClassFile(49, CLASS_NAME, PREDICATE);
+    }
+
+    /**
+     * Generates code, which jumps to target if value of p equals when, otherwise falls through
+     */
+    private void jump(Predicate<?> p, boolean when, Label target) {
+        if (p instanceof ConstantPredicate) {
+            if (((ConstantPredicate<?>) p).value == when) {
+                jump(GOTO, target);
+            }
+        } else if (p instanceof NotPredicate) {
+            jump(((NotPredicate<?>) p).operand, !when, target);
+        } else if (p instanceof AndPredicate) {
+            junction(((AndPredicate<?>) p).operands, false, when, target);
+        } else if (p instanceof OrPredicate) {
+            junction(((OrPredicate<?>) p).operands, true, when, target);
+        } else if (p instanceof XorPredicate) {
+            int parity = maxLocals++;
+            op(ICONST_0);
+            local(ISTORE, parity);
+            for (Predicate<?> operand : ((XorPredicate<?>) p).operands) {
+                value(operand);
+                local(ILOAD, parity);
+                op(IXOR);
+                local(ISTORE, parity);
+            }
+            local(ILOAD, parity);
+            jump(when ? IFNE : IFEQ, target);
+        } else if (p instanceof XandPredicate) {
+            Predicate<?>[] operands = ((XandPredicate<?>) p).operands;
+            int first = maxLocals++;
+            value(operands[0]);
+            local(ISTORE, first);
+            Label differ = when ? new Label() : target;
+            for (int i = 1; i < operands.length; i++) {
+                value(operands[i]);
+                local(ILOAD, first);
+                jump(IF_ICMPNE, differ);
+            }
+            if (when) {
+                jump(GOTO, target);
+                place(differ);
+            }
+        } else {
+            op(ALOAD_0);
+            op(GETFIELD);
+            u2(leafField(leaf(p)));
+            op(ALOAD_1);
+            op(INVOKEINTERFACE);
+            u2(interfaceMethodRef(PREDICATE, "test", "(Ljava/lang/Object;)Z"));
+            op(2);
+            op(0);
+            jump(when ? IFNE : IFEQ, target);
+        }
+    }
+
+    /**
+     * AND (decisive = false) or OR (decisive = true) - the first operand equal to decisive decides the result
+     */
+    private void junction(Predicate<?>[] operands, boolean decisive, boolean when, Label target) {
+        if (when == decisive) {
+            for (Predicate<?> operand : operands) {
+                jump(operand, decisive, target);
+            }
+        } else {
+            Label skip = new Label();
+            for (int i = 0; i < operands.length - 1; i++) {
+                jump(operands[i], decisive, skip);
+            }
+            jump(operands[operands.length - 1], when, target);
+            place(skip);
+        }
+    }
+
+    /**
+     * Generates code, which pushes value of p (0 or 1) on the stack
+     */
+    private void value(Predicate<?> p) {
+        Label isFalse = new Label();
+        Label end = new Label();
+        jump(p, false, isFalse);
+        op(ICONST_1);
+        jump(GOTO, end);
+        place(isFalse);
+        op(ICONST_0);
+        place(end);
+    }
+
+    private int leaf(Predicate<?> p) {
+        Integer index = leaves.get(p);
+        if (index == null) {
+            index = leafList.size();
+            leaves.put(p, index);
+            leafList.add(p);
+        }
+        return index;
+    }
+
+    private void op(int opcode) {
+        code.write(opcode);
+    }
+
+    private void u2(int value) {
+        code.write(value >>> 8);
+        code.write(value);
+    }
+
+    private void local(int opcode, int index) {
+        op(opcode);
+        op(index);
+    }
+
+    private void push(int value) {
+        if (value <= 5) {
+            op(ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            op(BIPUSH);
+            op(value);
+        } else {
+            op(SIPUSH);
+            u2(value);
+        }
+    }
+
+    private void jump(int opcode, Label target) {
+        int at = code.size();
+        op(opcode);
+        if (target.position >= 0) {
+            u2(target.position - at);
+        } else {
+            target.jumps.add(at);
+            u2(0);
+        }
+    }
+
+    private void place(Label label) {
+        label.position = code.size();
+        if (label.jumps.isEmpty()) {
+            return;
+        }
+        byte[] bytes = code.toByteArray();
+        for (int at : label.jumps) {
+            int offset = label.position - at;
+            bytes[at + 1] = (byte) (offset >>> 8);
+            bytes[at + 2] = (byte) offset;
+        }
+        code.reset();
+        code.write(bytes, 0, bytes.length);
+    }
+
+    private int leafField(int leaf) {
+        return fieldRef(CLASS_NAME, "p" + leaf, PREDICATE_DESCRIPTOR);
+    }
+
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Builds explain plans of predicate trees
+ *
+ * @author Grzegorz Krupinski
+ * @see Predicates#explain(Predicate)
+ */
+final class PredicateExplainer {
+
+    private static final int MAX_VALUES = 8;
+    private static final String COMPILED = PredicateCompiler.CLASS_NAME.replace('/', '.');
+
+    private PredicateExplainer() {
+    }
+
+    /**
+     * @param p          predicate
+     * @param attributes attributes used to name extractors and predicates (null if not available)
+     * @param <T>        type
+     * @return plan
+     */
+    static <T> PredicatePlan explain(Predicate<T> p, Attributes<T> attributes) {
+        return explain(p, attributes, Double.NaN, Double.NaN);
+    }
+
+    /**
+     * @param selectivity estimated selectivity used if nothing better is known (NaN if unknown)
+     * @param nanos       estimated cost used if nothing better is known (NaN if unknown)
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> PredicatePlan explain(Predicate<T> p, Attributes<T> attributes, double selectivity,
+                                             double nanos) {
+        if (p instanceof InstrumentedPredicate) {
+            InstrumentedPredicate<T> instrumented = (InstrumentedPredicate<T>) p;
+            PredicatePlan delegate = explain(instrumented.delegate, attributes, selectivity, nanos);
+            long invocations = instrumented.invocations.sum();
+            long samples = instrumented.samples.sum();
+            double measuredSelectivity = invocations == 0 ? delegate.getSelectivity()
+                    : (double) instrumented.trueCount.sum() / invocations;
+            double measuredNanos = samples == 0 ? delegate.getMeanNanos()
+                    : (double) instrumented.sampledNanos.sum() / samples;
+            if (delegate.getName() == null) {
+                return new PredicatePlan(delegate.getOperator(), delegate.getDetail(), instrumented.name,
+                        invocations, measuredSelectivity, measuredNanos, delegate.getChildren());
+            }
+            return new PredicatePlan("instrumented", null, instrumented.name, invocations, measuredSelectivity,
+                    measuredNanos, Collections.singletonList(delegate));
+        }
+        if (p instanceof ConstantPredicate) {
+            boolean value = ((ConstantPredicate<T>) p).value;
+            return leaf(value ? "true" : "false", null, value ? 1.0 : 0.0, 0.0);
+        }
+        if (p instanceof NotPredicate) {
+            double operandSelectivity = Double.isNaN(selectivity) ? Double.NaN : 1.0 - selectivity;
+            PredicatePlan operand = explain(((NotPredicate<T>) p).operand, attributes, operandSelectivity, nanos);
+            return new PredicatePlan("not", null, null, 0, 1.0 - operand.getSelectivity(), operand.getMeanNanos(),
+                    Collections.singletonList(operand));
+        }
+        if (p instanceof AndPredicate) {
+            return composite("and", ((AndPredicate<T>) p).operands, null, null, attributes);
+        }
+        if (p instanceof OrPredicate) {
+            return composite("or", ((OrPredicate<T>) p).operands, null, null, attributes);
+        }
+        if (p instanceof XorPredicate) {
+            return composite("xor", ((XorPredicate<T>) p).operands, null, null, attributes);
+        }
+        if (p instanceof XandPredicate) {
+            return composite("xand", ((XandPredicate<T>) p).operands, null, null, attributes);
+        }
+        if (p instanceof AdaptivePredicate) {
+            AdaptivePredicate<T> adaptive = (AdaptivePredicate<T>) p;
+            int n = adaptive.operands().length;
+            double[] passRates = new double[n];
+            double[] costs = new double[n];
+            Predicate<T>[] operands = adaptive.operands(passRates, costs);
+            return composite(adaptive.isAnd() ? "adaptive and" : "adaptive or", operands, passRates, costs,
+                    attributes);
+        }
+        if (p instanceof CachedPredicate) {
+            CachedPredicate<T> cached = (CachedPredicate<T>) p;
+            double hitRate = cached.getHitRate();
+            PredicatePlan delegate = explain(cached.predicate, attributes, selectivity, Double.NaN);
+            return new PredicatePlan("cached", String.format(Locale.ROOT, "hitRate=%.3f, size=%d",
+                    hitRate, cached.size()), null, 0, delegate.getSelectivity(),
+                    delegate.getMeanNanos() * (1.0 - hitRate), Collections.singletonList(delegate));
+        }
+        if (p instanceof EqPredicate) {
+            EqPredicate<T> eq = (EqPredicate<T>) p;
+            return leaf("eq", name(eq.extractor, attributes) + " = " + value(eq.value), selectivity, nanos);
+        }
+        if (p instanceof InPredicate) {
+            InPredicate<T> in = (InPredicate<T>) p;
+            StringBuilder sb = new StringBuilder(name(in.extractor, attributes)).append(" in (");
+            Iterator<Object> values = in.values.iterator();
+            for (int i = 0; i < MAX_VALUES && values.hasNext(); i++) {
+                sb.append(i > 0 ? ", " : "").append(value(values.next()));
+            }
+            if (values.hasNext()) {
+                sb.append(", ... ").append(in.values.size()).append(" values");
+            }
+            return leaf("in", sb.append(')').toString(), selectivity, nanos);
+        }
+        if (p instanceof LongRangePredicate) {
+            LongRangePredicate<T> range = (LongRangePredicate<T>) p;
+            LongIntervalSet intervals = range.intervals;
+            StringBuilder sb = new StringBuilder(name(range.extractor, attributes));
+            for (int i = 0; i < Math.min(MAX_VALUES, intervals.starts.length); i++) {
+                sb.append(i > 0 ? " or " : " ").append(intervals.starts[i] == intervals.ends[i]
+                        ? "= " + intervals.starts[i] : "between " + intervals.starts[i] + " and " + intervals.ends[i]);
+            }
+            return leaf("between", ranges(sb, intervals.starts.length), selectivity, nanos);
+        }
+        if (p instanceof DoubleRangePredicate) {
+            DoubleRangePredicate<T> range = (DoubleRangePredicate<T>) p;
+            DoubleIntervalSet intervals = range.intervals;
+            StringBuilder sb = new StringBuilder(name(range.extractor, attributes));
+            for (int i = 0; i < Math.min(MAX_VALUES, intervals.starts.length); i++) {
+                sb.append(i > 0 ? " or " : " ").append(intervals.starts[i] == intervals.ends[i]
+                        ? "= " + intervals.starts[i] : "between " + intervals.starts[i] + " and " + intervals.ends[i]);
+            }
+            return leaf("between", ranges(sb, intervals.starts.length), selectivity, nanos);
+        }
+        Attributes.Attribute attribute = attributes == null ? null : attributes.attributeOf(p);
+        String className = p.getClass().getName();
+        int hidden = className.indexOf('/');
+        String detail = attribute != null ? attribute.name
+                : className.startsWith(COMPILED) ? "compiled"
+                : hidden < 0 ? className : className.substring(0, hidden);
+        return leaf("predicate", detail, selectivity, nanos);
+    }
+
+    private static <T> PredicatePlan composite(String operator, Predicate<T>[] operands, double[] passRates,
+                                               double[] costs, Attributes<T> attributes) {
+        boolean xand = operator.equals("xand");
+        boolean xor = operator.equals("xor");
+        boolean and = !xand && operator.endsWith("and");
+        boolean or = !xor && operator.endsWith("or");
+        List<PredicatePlan> children = new ArrayList<>(operands.length);
+        double selectivity = and || xand ? 1.0 : 0.0;
+        double none = 1.0;
+        double nanos = 0.0;
+        double reach = 1.0;
+        for (int i = 0; i < operands.length; i++) {
+            PredicatePlan child = explain(operands[i], attributes, passRates == null ? Double.NaN : passRates[i],
+                    costs == null ? Double.NaN : costs[i]);
+            children.add(child);
+            double s = child.getSelectivity();
+            nanos += reach * child.getMeanNanos();
+            if (and) {
+                selectivity *= s;
+                reach *= s;
+            } else if (or) {
+                selectivity = 1.0 - (1.0 - selectivity) * (1.0 - s);
+                reach *= 1.0 - s;
+            } else if (xor) {
+                selectivity = selectivity * (1.0 - s) + s * (1.0 - selectivity);
+            } else {
+                selectivity *= s;
+                none *= 1.0 - s;
+            }
+        }
+        if (xand) {
+            selectivity += none;
+        }
+        return new PredicatePlan(operator, null, null, 0, selectivity, nanos, children);
+    }
+
+    private static PredicatePlan leaf(String operator, String detail, double selectivity, double nanos) {
+        return new PredicatePlan(operator, detail, null, 0, selectivity, nanos, Collections.emptyList());
+    }
+
+    private static String ranges(StringBuilder sb, int count) {
+        if (count > MAX_VALUES) {
+            sb.append(" or ... ").append(count).append(" ranges");
+        }
+        return sb.toString();
+    }
+
+    private static <T> String name(Object extractor, Attributes<T> attributes) {
+        Attributes.Attribute attribute = attributes == null ? null : attributes.attributeOf(extractor);
+        return attribute == null ? "key" : attribute.name;
+    }
+
+    private static String value(Object value) {
+        return value instanceof String ? "'" + ((String) value).replace("'", "''") + "'" : String.valueOf(value);
+    }
+
+}
@@ -0,0 +1,482 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Index of rules (predicates), which finds rules matching an element without testing every rule.
+ * <p>
+ * A rule is simplified and decomposed into a disjunction of conjunctions (DNF). Each conjunction is indexed by
+ * its most selective atom built by {@link Predicates#eq}, {@link Predicates#in}, {@link Predicates#betweenLong}
+ * or {@link Predicates#betweenDouble} (eq before in with fewer values before ranges), by the extractor of the atom
+ * (compared by identity, so keep extractors in constants): values of eq and in in a hash map, ranges in an interval
+ * tree. Other operands of the conjunction are residual - tested only when the indexed atom matched.
+ * Matching extracts every indexed key once, so only conjunctions with a matching indexed atom are tested.
+ * Conjunctions without such atom and rules with more than {@value #MAX_CONJUNCTIONS} conjunctions are tested
+ * for every element.
+ * <p>
+ * Rules can be added and removed at any time, match can be called concurrently (a read-write lock).
+ *
+ * @param <T> type of elements
+ * @param <K> type of rule ids
+ * @author Grzegorz Krupinski
+ */
+public final class PredicateIndex<T, K> {
+
+    static final int MAX_CONJUNCTIONS = 256;
+
+    private final class Rule {
+        final K id;
+        final int index;
+        final Predicate<T> predicate;
+        final List<Runnable> undo = new ArrayList<>();
+
+        Rule(K id, int index, Predicate<T> predicate) {
+            this.id = id;
+            this.index = index;
+            this.predicate = predicate;
+        }
+    }
+
+    private final class Conjunction {
+        final Rule rule;
+        final List<Predicate<T>> residuals = new ArrayList<>();
+        int position;
+
+        Conjunction(Rule rule) {
+            this.rule = rule;
+        }
+    }
+
+    private final class HashAttribute {
+        final Function<? super T, ?> extractor;
+        final Map<Object, List<Conjunction>> values = new HashMap<>();
+        int atoms;
+
+        HashAttribute(Function<? super T, ?> extractor) {
+            this.extractor = extractor;
+        }
+    }
+
+    private final class RangeAttribute {
+        final Object extractor;
+        final IntervalTree<Conjunction> tree = new IntervalTree<>();
+
+        RangeAttribute(Object extractor) {
+            this.extractor = extractor;
+        }
+    }
+
+    /**
+     * Per thread marks of matched rules, valid only for the current epoch (no clearing between matches)
+     */
+    private static final class Scratch {
+        int epoch;
+        int[] ruleEpochs = new int[0];
+
+        void start(int rules) {
+            if (ruleEpochs.length < rules) {
+                ruleEpochs = new int[Math.max(rules, ruleEpochs.length * 2)];
+                epoch = 0;
+            }
+            if (++epoch <= 0) {
+                Arrays.fill(ruleEpochs, 0);
+                epoch = 1;
+            }
+        }
+    }
+
+    private final Map<K, Rule> rules = new HashMap<>();
+    private final Map<Object, HashAttribute> hashAttributes = new IdentityHashMap<>();
+    private final Map<Object, RangeAttribute> longAttributes = new IdentityHashMap<>();
+    private final Map<Object, RangeAttribute> doubleAttributes = new IdentityHashMap<>();
+    private final List<Conjunction> unindexed = new ArrayList<>();
+    private List<HashAttribute> hashList = Collections.emptyList();
+    private List<RangeAttribute> longList = Collections.emptyList();
+    private List<RangeAttribute> doubleList = Collections.emptyList();
+    private boolean attributesChanged;
+    private final Deque<Integer> freeRules = new ArrayDeque<>();
+    private int ruleCount;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Adds a rule, a rule with the same id is replaced
+     *
+     * @param id   id of the rule
+     * @param rule rule
+     */
+    public void add(K id, Predicate<T> rule) {
+        Objects.requireNonNull(id);
+        Objects.requireNonNull(rule);
+        List<List<Predicate<T>>> dnf = dnf(Predicates.simplify(rule));
+        if (dnf == null) {
+            dnf = Collections.singletonList(Collections.singletonList(rule));
+        }
+        lock.writeLock().lock();
+        try {
+            removeRule(id);
+            Rule r = new Rule(id, freeRules.isEmpty() ? ruleCount++ : freeRules.pop(), rule);
+            r.undo.add(() -> freeRules.push(r.index));
+            for (List<Predicate<T>> term : dnf) {
+                register(r, term);
+            }
+            rules.put(id, r);
+            refresh();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a rule
+     *
+     * @param id id of the rule
+     * @return true if the rule was in the index
+     */
+    public boolean remove(K id) {
+        lock.writeLock().lock();
+        try {
+            boolean removed = removeRule(id);
+            refresh();
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param id id of the rule
+     * @return rule with the id or null
+     */
+    public Predicate<T> get(K id) {
+        lock.readLock().lock();
+        try {
+            Rule rule = rules.get(id);
+            return rule == null ? null : rule.predicate;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of rules
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rules.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds rules satisfied by the element
+     *
+     * @param t element
+     * @return ids of matching rules (in no particular order)
+     */
+    public List<K> match(T t) {
+        List<K> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Scratch s = scratch.get();
+            s.start(ruleCount);
+            for (int i = 0; i < hashList.size(); i++) {
+                HashAttribute attribute = hashList.get(i);
+                List<Conjunction> hits = attribute.values.get(attribute.extractor.apply(t));
+                if (hits != null) {
+                    for (int j = 0; j < hits.size(); j++) {
+                        complete(hits.get(j), t, s, result);
+                    }
+                }
+            }
+            for (int i = 0; i < longList.size(); i++) {
+                RangeAttribute attribute = longList.get(i);
+                @SuppressWarnings("unchecked")
+                long key = ((ToLongFunction<? super T>) attribute.extractor).applyAsLong(t);
+                attribute.tree.stab(key, c -> complete(c, t, s, result));
+            }
+            for (int i = 0; i < doubleList.size(); i++) {
+                RangeAttribute attribute = doubleList.get(i);
+                @SuppressWarnings("unchecked")
+                double key = ((ToDoubleFunction<? super T>) attribute.extractor).applyAsDouble(t);
+                if (!Double.isNaN(key)) {
+                    attribute.tree.stab(sortable(key), c -> complete(c, t, s, result));
+                }
+            }
+            for (int i = 0; i < unindexed.size(); i++) {
+                complete(unindexed.get(i), t, s, result);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private void complete(Conjunction c, T t, Scratch s, List<K> result) {
+        if (s.ruleEpochs[c.rule.index] == s.epoch) {
+            return;
+        }
+        for (int i = 0; i < c.residuals.size(); i++) {
+            if (!c.residuals.get(i).test(t)) {
+                return;
+            }
+        }
+        s.ruleEpochs[c.rule.index] = s.epoch;
+        result.add(c.rule.id);
+    }
+
+    private boolean removeRule(K id) {
+        Rule rule = rules.remove(id);
+        if (rule == null) {
+            return false;
+        }
+        for (Runnable undo : rule.undo) {
+            undo.run();
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void register(Rule rule, List<Predicate<T>> term) {
+        Conjunction c = new Conjunction(rule);
+        Predicate<T> indexed = null;
+        double best = Double.POSITIVE_INFINITY;
+        for (Predicate<T> atom : term) {
+            double cost = cost(atom);
+            if (cost < best) {
+                indexed = atom;
+                best = cost;
+            }
+        }
+        for (Predicate<T> atom : term) {
+            if (atom != indexed) {
+                c.residuals.add(atom);
+            }
+        }
+        if (indexed instanceof EqPredicate) {
+            EqPredicate<T> eq = (EqPredicate<T>) indexed;
+            addValue(eq.extractor, eq.value, c, rule);
+        } else if (indexed instanceof InPredicate) {
+            InPredicate<T> in = (InPredicate<T>) indexed;
+            for (Object value : in.values) {
+                addValue(in.extractor, value, c, rule);
+            }
+        } else if (indexed instanceof LongRangePredicate) {
+            LongRangePredicate<T> range = (LongRangePredicate<T>) indexed;
+            LongIntervalSet intervals = range.intervals;
+            for (int i = 0; i < intervals.starts.length; i++) {
+                addRange(longAttributes, range.extractor, intervals.starts[i], intervals.ends[i], c, rule);
+            }
+        } else if (indexed instanceof DoubleRangePredicate) {
+            DoubleRangePredicate<T> range = (DoubleRangePredicate<T>) indexed;
+            DoubleIntervalSet intervals = range.intervals;
+            for (int i = 0; i < intervals.starts.length; i++) {
+                addRange(doubleAttributes, range.extractor, sortable(intervals.starts[i]),
+                        sortable(intervals.ends[i]), c, rule);
+            }
+        } else {
+            c.position = unindexed.size();
+            unindexed.add(c);
+            rule.undo.add(() -> {
+                Conjunction last = unindexed.remove(unindexed.size() - 1);
+                if (last != c) {
+                    last.position = c.position;
+                    unindexed.set(c.position, last);
+                }
+            });
+        }
+    }
+
+    /**
+     * Estimated number of values accepted by an atom (infinite if the atom cannot be indexed)
+     */
+    static double cost(Predicate<?> atom) {
+        if (atom instanceof EqPredicate) {
+            return 1;
+        }
+        if (atom instanceof InPredicate) {
+            return ((InPredicate<?>) atom).values.size();
+        }
+        if (isEmptyRange(atom)) {
+            // matches nothing, indexed without any entry
+            return 0;
+        }
+        if (atom instanceof LongRangePredicate) {
+            LongIntervalSet intervals = ((LongRangePredicate<?>) atom).intervals;
+            return Integer.MAX_VALUE + width(intervals.starts, intervals.ends);
+        }
+        if (atom instanceof DoubleRangePredicate) {
+            DoubleIntervalSet intervals = ((DoubleRangePredicate<?>) atom).intervals;
+            long[] starts = new long[intervals.starts.length];
+            long[] ends = new long[intervals.ends.length];
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = sortable(intervals.starts[i]);
+                ends[i] = sortable(intervals.ends[i]);
+            }
+            return Integer.MAX_VALUE + width(starts, ends);
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    private static boolean isEmptyRange(Predicate<?> atom) {
+        return atom instanceof LongRangePredicate && ((LongRangePredicate<?>) atom).intervals.isEmpty()
+                || atom instanceof DoubleRangePredicate && ((DoubleRangePredicate<?>) atom).intervals.isEmpty();
+    }
+
+    private static double width(long[] starts, long[] ends) {
+        double width = 0;
+        for (int i = 0; i < starts.length; i++) {
+            width += width(starts[i], ends[i]);
+        }
+        return width;
+    }
+
+    private static double width(long start, long end) {
+        return (double) end - start + 1;
+    }
+
+    private void addValue(Function<? super T, ?> extractor, Object value, Conjunction c, Rule rule) {
+        HashAttribute attribute = hashAttributes.get(extractor);
+        if (attribute == null) {
+            attribute = new HashAttribute(extractor);
+            hashAttributes.put(extractor, attribute);
+            attributesChanged = true;
+        }
+        HashAttribute added = attribute;
+        added.values.computeIfAbsent(value, v -> new ArrayList<>(1)).add(c);
+        added.atoms++;
+        rule.undo.add(() -> {
+            List<Conjunction> list = added.values.get(value);
+            list.remove(c);
+            if (list.isEmpty()) {
+                added.values.remove(value);
+            }
+            if (--added.atoms == 0) {
+                hashAttributes.remove(extractor);
+                attributesChanged = true;
+            }
+        });
+    }
+
+    private void addRange(Map<Object, RangeAttribute> attributes, Object extractor, long start, long end,
+                          Conjunction c, Rule rule) {
+        RangeAttribute attribute = attributes.get(extractor);
+        if (attribute == null) {
+            attribute = new RangeAttribute(extractor);
+            attributes.put(extractor, attribute);
+            attributesChanged = true;
+        }
+        IntervalTree<Conjunction> tree = attribute.tree;
+        IntervalTree.Node<Conjunction> node = tree.insert(start, end, c);
+        rule.undo.add(() -> {
+            tree.remove(node);
+            if (tree.size() == 0) {
+                attributes.remove(extractor);
+                attributesChanged = true;
+            }
+        });
+    }
+
+    /**
+     * Updates lists of attributes iterated by match (without allocation of iterators)
+     */
+    private void refresh() {
+        if (attributesChanged) {
+            hashList = new ArrayList<>(hashAttributes.values());
+            longList = new ArrayList<>(longAttributes.values());
+            doubleList = new ArrayList<>(doubleAttributes.values());
+            attributesChanged = false;
+        }
+    }
+
+    /**
+     * Maps double to long preserving order (-0.0 is mapped as 0.0)
+     */
+    static long sortable(double value) {
+        long bits = Double.doubleToLongBits(value + 0.0);
+        return bits ^ (bits >> 63 & Long.MAX_VALUE);
+    }
+
+    /**
+     * Disjunctive normal form of simplified predicate
+     *
+     * @return list of conjunctions (lists of operands) or null if there are more than MAX_CONJUNCTIONS
+     */
+    private static <T> List<List<Predicate<T>>> dnf(Predicate<T> p) {
+        if (p instanceof ConstantPredicate) {
+            return ((ConstantPredicate<T>) p).value
+                    ? Collections.singletonList(Collections.emptyList()) : Collections.emptyList();
+        }
+        if (p instanceof OrPredicate) {
+            List<List<Predicate<T>>> result = new ArrayList<>();
+            for (Predicate<T> operand : ((OrPredicate<T>) p).operands) {
+                List<List<Predicate<T>>> terms = dnf(operand);
+                if (terms == null || result.size() + terms.size() > MAX_CONJUNCTIONS) {
+                    return null;
+                }
+                result.addAll(terms);
+            }
+            return result;
+        }
+        if (p instanceof AndPredicate) {
+            List<List<Predicate<T>>> result = Collections.singletonList(Collections.emptyList());
+            for (Predicate<T> operand : ((AndPredicate<T>) p).operands) {
+                List<List<Predicate<T>>> terms = dnf(operand);
+                if (terms == null || (long) result.size() * terms.size() > MAX_CONJUNCTIONS) {
+                    return null;
+                }
+                List<List<Predicate<T>>> product = new ArrayList<>(result.size() * terms.size());
+                for (List<Predicate<T>> a : result) {
+                    for (List<Predicate<T>> b : terms) {
+                        List<Predicate<T>> term = new ArrayList<>(a.size() + b.size());
+                        term.addAll(a);
+                        term.addAll(b);
+                        product.add(term);
+                    }
+                }
+                result = product;
+            }
+            return result;
+        }
+        if (isEmptyRange(p)) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(Collections.singletonList(p));
+    }
+
+}
@@ -0,0 +1,418 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Parser of rules written as text, e.g. {@code status in (NEW, PAID) and not (amount between 10 and 20) xor flagged}.
+ * <p>
+ * Operators from the highest precedence: {@code not}, {@code and}, {@code xor}, {@code or} (keywords are case
+ * insensitive), parentheses group expressions. Conditions on attributes registered in {@link Attributes}:
+ * {@code name = v}, {@code name != v}, {@code name in (v1, v2)}, {@code name not in (v1, v2)},
+ * {@code name between v1 and v2}, {@code name < v} ({@code <=}, {@code >}, {@code >=}) for long and double
+ * attributes; a bare name is a named predicate, {@code true} and {@code false} are constants.
+ * Values are numbers (long or double), quoted strings ({@code 'it''s'} or {@code "a b"}), {@code null},
+ * {@code true}, {@code false} or bare words (strings). A fractional value compared by {@code =}, {@code !=}
+ * or {@code in} with a long attribute is an error, fractional bounds of ranges and comparisons are rounded
+ * to the long values they contain (e.g. {@code amount between 10.5 and 20} is {@code amount between 11 and 20}).
+ * <p>
+ * The rule is built from the same nodes as {@link Predicates} builds and simplified, so eq, in and ranges over
+ * the same attribute are fused. The parser is safe for concurrent use.
+ *
+ * @param <T> type of elements
+ * @author Grzegorz Krupinski
+ */
+public final class PredicateParser<T> {
+
+    private final Attributes<T> attributes;
+
+    /**
+     * @param attributes attributes used by rules
+     */
+    public PredicateParser(Attributes<T> attributes) {
+        this.attributes = Objects.requireNonNull(attributes);
+    }
+
+    /**
+     * Parses and simplifies the rule
+     *
+     * @param rule text of the rule
+     * @return predicate
+     * @throws IllegalArgumentException if the rule is malformed or uses unknown attributes
+     */
+    public Predicate<T> parse(CharSequence rule) {
+        Cursor cursor = new Cursor(rule);
+        Predicate<T> predicate = cursor.or(0);
+        cursor.skipSpaces();
+        if (cursor.position < rule.length()) {
+            throw cursor.error("Unexpected input");
+        }
+        return PredicateSimplifier.simplify(predicate);
+    }
+
+    private final class Cursor {
+
+        private static final int MAX_DEPTH = 1000;
+
+        private final CharSequence text;
+        private int position;
+
+        Cursor(CharSequence text) {
+            this.text = text;
+        }
+
+        Predicate<T> or(int depth) {
+            Predicate<T> first = xor(depth);
+            if (!keyword("or")) {
+                return first;
+            }
+            List<Predicate<T>> operands = operands(first);
+            do {
+                operands.add(xor(depth));
+            } while (keyword("or"));
+            return Predicates.or(toArray(operands));
+        }
+
+        private Predicate<T> xor(int depth) {
+            Predicate<T> first = and(depth);
+            if (!keyword("xor")) {
+                return first;
+            }
+            List<Predicate<T>> operands = operands(first);
+            do {
+                operands.add(and(depth));
+            } while (keyword("xor"));
+            return Predicates.xor(toArray(operands));
+        }
+
+        private Predicate<T> and(int depth) {
+            Predicate<T> first = not(depth);
+            if (!keyword("and")) {
+                return first;
+            }
+            List<Predicate<T>> operands = operands(first);
+            do {
+                operands.add(not(depth));
+            } while (keyword("and"));
+            return Predicates.and(toArray(operands));
+        }
+
+        private Predicate<T> not(int depth) {
+            if (depth > MAX_DEPTH) {
+                throw error("Rule nested deeper than " + MAX_DEPTH);
+            }
+            if (keyword("not")) {
+                return Predicates.not(not(depth + 1));
+            }
+            if (symbol('(')) {
+                Predicate<T> predicate = or(depth + 1);
+                expect(')');
+                return predicate;
+            }
+            int start = position;
+            String name = identifier();
+            if (name == null) {
+                throw error("Expected a condition");
+            }
+            if ("true".equalsIgnoreCase(name)) {
+                return Predicates.pTrue();
+            }
+            if ("false".equalsIgnoreCase(name)) {
+                return Predicates.pFalse();
+            }
+            try {
+                return condition(name);
+            } catch (IllegalArgumentException ex) {
+                if (ex instanceof ParseException) {
+                    throw ex;
+                }
+                throw new ParseException(ex.getMessage() + " at " + start + ": " + text, ex);
+            }
+        }
+
+        private Predicate<T> condition(String name) {
+            if (symbol('=')) {
+                return attributes.eq(name, value());
+            }
+            if (symbol('!')) {
+                expect('=');
+                return Predicates.not(attributes.eq(name, value()));
+            }
+            if (symbol('<')) {
+                return compare(name, false, symbol('='));
+            }
+            if (symbol('>')) {
+                return compare(name, true, symbol('='));
+            }
+            int mark = position;
+            boolean negated = keyword("not");
+            if (keyword("in")) {
+                Predicate<T> in = attributes.in(name, values());
+                return negated ? Predicates.not(in) : in;
+            }
+            if (negated) {
+                position = mark;
+                throw error("Expected 'in'");
+            }
+            if (keyword("between")) {
+                Number from = number();
+                if (!keyword("and")) {
+                    throw error("Expected 'and'");
+                }
+                return attributes.between(name, from, number());
+            }
+            return attributes.predicate(name);
+        }
+
+        /**
+         * Comparison as a range of a long or double attribute
+         */
+        private Predicate<T> compare(String name, boolean greater, boolean inclusive) {
+            Number value = number();
+            Attributes.Kind kind = attributes.attribute(name).kind;
+            if (kind == Attributes.Kind.DOUBLE) {
+                double d = value.doubleValue();
+                double bound = inclusive ? d : greater ? Math.nextUp(d) : Math.nextDown(d);
+                return greater ? attributes.between(name, bound, Double.POSITIVE_INFINITY)
+                        : attributes.between(name, Double.NEGATIVE_INFINITY, bound);
+            }
+            if (kind != Attributes.Kind.LONG) {
+                throw error("Attribute " + name + " is not numeric");
+            }
+            long bound;
+            if (value instanceof Long) {
+                bound = value.longValue();
+                if (!inclusive) {
+                    if (bound == (greater ? Long.MAX_VALUE : Long.MIN_VALUE)) {
+                        return Predicates.pFalse();
+                    }
+                    bound += greater ? 1 : -1;
+                }
+            } else {
+                double d = value.doubleValue();
+                double rounded = greater ? Math.floor(d) + (inclusive && d == Math.floor(d) ? 0 : 1)
+                        : Math.ceil(d) - (inclusive && d == Math.ceil(d) ? 0 : 1);
+                if (rounded >= 0x1p63) {
+                    return greater ? Predicates.pFalse() : attributes.between(name, Long.MIN_VALUE, Long.MAX_VALUE);
+                }
+                if (rounded < -0x1p63) {
+                    return greater ? attributes.between(name, Long.MIN_VALUE, Long.MAX_VALUE) : Predicates.pFalse();
+                }
+                bound = (long) rounded;
+            }
+            return greater ? attributes.between(name, bound, Long.MAX_VALUE)
+                    : attributes.between(name, Long.MIN_VALUE, bound);
+        }
+
+        private List<Object> values() {
+            expect('(');
+            List<Object> values = new ArrayList<>();
+            do {
+                values.add(value());
+            } while (symbol(','));
+            expect(')');
+            return values;
+        }
+
+        private Number number() {
+            Object value = value();
+            if (!(value instanceof Number)) {
+                throw error("Expected a number");
+            }
+            return (Number) value;
+        }
+
+        private Object value() {
+            skipSpaces();
+            if (position >= text.length()) {
+                throw error("Expected a value");
+            }
+            char c = text.charAt(position);
+            if (c == '\'' || c == '"') {
+                return string(c);
+            }
+            if (c == '-' || c == '+' || c == '.' || (c >= '0' && c <= '9')) {
+                return numberLiteral();
+            }
+            String word = identifier();
+            if (word == null) {
+                throw error("Expected a value");
+            }
+            if ("null".equalsIgnoreCase(word)) {
+                return null;
+            }
+            if ("true".equalsIgnoreCase(word)) {
+                return Boolean.TRUE;
+            }
+            if ("false".equalsIgnoreCase(word)) {
+                return Boolean.FALSE;
+            }
+            return word;
+        }
+
+        private String string(char quote) {
+            StringBuilder sb = new StringBuilder();
+            int i = position + 1;
+            while (true) {
+                if (i >= text.length()) {
+                    throw error("Unterminated string");
+                }
+                char c = text.charAt(i++);
+                if (c == quote) {
+                    if (i < text.length() && text.charAt(i) == quote) {
+                        i++;
+                    } else {
+                        position = i;
+                        return sb.toString();
+                    }
+                }
+                sb.append(c);
+            }
+        }
+
+        private Number numberLiteral() {
+            int start = position;
+            boolean integral = true;
+            int i = position;
+            if (text.charAt(i) == '-' || text.charAt(i) == '+') {
+                i++;
+            }
+            while (i < text.length()) {
+                char c = text.charAt(i);
+                if (c == '.') {
+                    integral = false;
+                } else if (c == 'e' || c == 'E') {
+                    integral = false;
+                    if (i + 1 < text.length() && (text.charAt(i + 1) == '-' || text.charAt(i + 1) == '+')) {
+                        i++;
+                    }
+                } else if (c < '0' || c > '9') {
+                    break;
+                }
+                i++;
+            }
+            String literal = text.subSequence(start, i).toString();
+            try {
+                Number number = integral ? integral(literal) : (Number) Double.parseDouble(literal);
+                position = i;
+                return number;
+            } catch (NumberFormatException ex) {
+                throw error("Malformed number " + literal);
+            }
+        }
+
+        /**
+         * @return Long or Double if the literal is out of the long range
+         */
+        private Number integral(String literal) {
+            try {
+                return Long.parseLong(literal);
+            } catch (NumberFormatException ex) {
+                return Double.parseDouble(literal);
+            }
+        }
+
+        private String identifier() {
+            skipSpaces();
+            int start = position;
+            if (start >= text.length() || !Character.isJavaIdentifierStart(text.charAt(start))) {
+                return null;
+            }
+            int i = start + 1;
+            while (i < text.length() && (Character.isJavaIdentifierPart(text.charAt(i)) || text.charAt(i) == '.')) {
+                i++;
+            }
+            position = i;
+            return text.subSequence(start, i).toString();
+        }
+
+        /**
+         * Consumes the keyword if it is next (a whole word, case insensitive)
+         */
+        private boolean keyword(String keyword) {
+            skipSpaces();
+            int end = position + keyword.length();
+            if (end > text.length()) {
+                return false;
+            }
+            for (int i = 0; i < keyword.length(); i++) {
+                if (Character.toLowerCase(text.charAt(position + i)) != keyword.charAt(i)) {
+                    return false;
+                }
+            }
+            if (end < text.length() && Character.isJavaIdentifierPart(text.charAt(end))) {
+                return false;
+            }
+            position = end;
+            return true;
+        }
+
+        private boolean symbol(char symbol) {
+            skipSpaces();
+            if (position < text.length() && text.charAt(position) == symbol) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char symbol) {
+            if (!symbol(symbol)) {
+                throw error("Expected '" + symbol + "'");
+            }
+        }
+
+        void skipSpaces() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        ParseException error(String message) {
+            return new ParseException(message + " at " + position + ": " + text, null);
+        }
+    }
+
+    private static <T> List<Predicate<T>> operands(Predicate<T> first) {
+        List<Predicate<T>> operands = new ArrayList<>(4);
+        operands.add(first);
+        return operands;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Predicate<T>[] toArray(List<Predicate<T>> operands) {
+        return operands.toArray(new Predicate[0]);
+    }
+
+    /**
+     * Error with a position in the rule, not wrapped again
+     */
+    private static final class ParseException extends IllegalArgumentException {
+
+        private static final long serialVersionUID = 1L;
+
+        ParseException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+}
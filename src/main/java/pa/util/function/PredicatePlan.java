@@ -0,0 +1,200 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Explain plan of a predicate - a snapshot of its tree with operator names, operands in the order of evaluation,
+ * selectivity (fraction of elements accepted) and mean cost of evaluation in nanoseconds.
+ * Figures of instrumented predicates are measured, other figures are estimated from measured operands
+ * (assuming independent operands) or by adaptive operations, unknown figures are NaN.
+ *
+ * @author Grzegorz Krupinski
+ * @see Predicates#explain(java.util.function.Predicate)
+ */
+public final class PredicatePlan {
+
+    private final String operator;
+    private final String detail;
+    private final String name;
+    private final long invocations;
+    private final double selectivity;
+    private final double meanNanos;
+    private final List<PredicatePlan> children;
+
+    PredicatePlan(String operator, String detail, String name, long invocations, double selectivity,
+                  double meanNanos, List<PredicatePlan> children) {
+        this.operator = operator;
+        this.detail = detail;
+        this.name = name;
+        this.invocations = invocations;
+        this.selectivity = selectivity;
+        this.meanNanos = meanNanos;
+        this.children = Collections.unmodifiableList(children);
+    }
+
+    /**
+     * @return operator, e.g. "and", "adaptive or", "eq", "between", "cached" or "predicate" (an opaque leaf)
+     */
+    public String getOperator() {
+        return operator;
+    }
+
+    /**
+     * @return description of a leaf, e.g. "status in ('NEW', 'PAID')", or null
+     */
+    public String getDetail() {
+        return detail;
+    }
+
+    /**
+     * @return name of the instrumented predicate or null if it is not instrumented
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return true if the figures are measured by instrumentation
+     */
+    public boolean isMeasured() {
+        return name != null;
+    }
+
+    /**
+     * @return number of evaluations (only measured, 0 if not instrumented)
+     */
+    public long getInvocations() {
+        return invocations;
+    }
+
+    /**
+     * @return fraction of elements accepted or NaN if unknown
+     */
+    public double getSelectivity() {
+        return selectivity;
+    }
+
+    /**
+     * @return mean cost of an evaluation in nanoseconds or NaN if unknown
+     */
+    public double getMeanNanos() {
+        return meanNanos;
+    }
+
+    /**
+     * @return operands in the order of evaluation
+     */
+    public List<PredicatePlan> getChildren() {
+        return children;
+    }
+
+    /**
+     * @return plan as text, a line per node indented by depth
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        render(sb, 0);
+        return sb.toString();
+    }
+
+    private void render(StringBuilder sb, int depth) {
+        for (int i = 0; i < depth; i++) {
+            sb.append("  ");
+        }
+        sb.append(operator);
+        if (detail != null) {
+            sb.append(' ').append(detail);
+        }
+        if (name != null) {
+            sb.append(" [").append(name).append("] invocations=").append(invocations).append(',');
+        }
+        String kind = isMeasured() ? "" : " (est.)";
+        if (!Double.isNaN(selectivity)) {
+            sb.append(String.format(Locale.ROOT, " selectivity=%.3f%s", selectivity, kind));
+        }
+        if (!Double.isNaN(meanNanos)) {
+            sb.append(String.format(Locale.ROOT, " cost=%.1f ns%s", meanNanos, kind));
+        }
+        sb.append('\n');
+        for (PredicatePlan child : children) {
+            child.render(sb, depth + 1);
+        }
+    }
+
+    /**
+     * @return plan as a JSON object (unknown figures are omitted)
+     */
+    public String toJson() {
+        StringBuilder sb = new StringBuilder();
+        json(sb);
+        return sb.toString();
+    }
+
+    private void json(StringBuilder sb) {
+        sb.append("{\"operator\":");
+        string(sb, operator);
+        if (detail != null) {
+            sb.append(",\"detail\":");
+            string(sb, detail);
+        }
+        if (name != null) {
+            sb.append(",\"name\":");
+            string(sb, name);
+            sb.append(",\"invocations\":").append(invocations);
+        }
+        sb.append(",\"measured\":").append(isMeasured());
+        if (!Double.isNaN(selectivity)) {
+            sb.append(",\"selectivity\":").append(selectivity);
+        }
+        if (!Double.isNaN(meanNanos)) {
+            sb.append(",\"meanNanos\":").append(meanNanos);
+        }
+        if (!children.isEmpty()) {
+            sb.append(",\"children\":[");
+            for (int i = 0; i < children.size(); i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                children.get(i).json(sb);
+            }
+            sb.append(']');
+        }
+        sb.append('}');
+    }
+
+    private static void string(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Algebraic simplification of predicate trees: constant folding, negation normal form (NNF),
+ * flattening, deduplication and absorption
+ *
+ * @author Grzegorz Krupinski
+ * @see Predicates#simplify(Predicate)
+ */
+final class PredicateSimplifier {
+
+    private PredicateSimplifier() {
+    }
+
+    static <T> Predicate<T> simplify(Predicate<T> p) {
+        return simplify(p, false);
+    }
+
+    /**
+     * Simplifies predicate or its negation
+     *
+     * @param p       predicate
+     * @param negated if true the negation of predicate is simplified
+     * @param <T>     type
+     * @return simplified predicate in NNF
+     */
+    private static <T> Predicate<T> simplify(Predicate<T> p, boolean negated) {
+        if (p instanceof ConstantPredicate) {
+            return ConstantPredicate.of(((ConstantPredicate<T>) p).value != negated);
+        }
+        if (p instanceof NotPredicate) {
+            return simplify(((NotPredicate<T>) p).operand, !negated);
+        }
+        if (p instanceof AndPredicate) {
+            List<Predicate<T>> operands = simplifyAll(((AndPredicate<T>) p).operands, negated);
+            return negated ? or(operands) : and(operands);
+        }
+        if (p instanceof OrPredicate) {
+            List<Predicate<T>> operands = simplifyAll(((OrPredicate<T>) p).operands, negated);
+            return negated ? and(operands) : or(operands);
+        }
+        if (p instanceof XorPredicate) {
+            return xor(simplifyAll(((XorPredicate<T>) p).operands, false), negated);
+        }
+        if (p instanceof XandPredicate) {
+            Predicate<T> xand = xand(simplifyAll(((XandPredicate<T>) p).operands, false));
+            if (!negated) {
+                return xand;
+            }
+            return xand instanceof XandPredicate ? new NotPredicate<>(xand) : simplify(xand, true);
+        }
+        if (p instanceof AdaptivePredicate) {
+            AdaptivePredicate<T> adaptive = (AdaptivePredicate<T>) p;
+            boolean and = adaptive.isAnd() != negated;
+            List<Predicate<T>> operands = simplifyAll(adaptive.operands(), negated);
+            Predicate<T> result = and ? and(operands) : or(operands);
+            if (result instanceof CompositePredicate) {
+                return new AdaptivePredicate<>(and, ((CompositePredicate<T>) result).operands,
+                        AdaptivePredicate.SAMPLE_RATE, AdaptivePredicate.PERIOD);
+            }
+            return result;
+        }
+        return negated ? new NotPredicate<>(p) : p;
+    }
+
+    private static <T> List<Predicate<T>> simplifyAll(Predicate<T>[] operands, boolean negated) {
+        List<Predicate<T>> result = new ArrayList<>(operands.length);
+        for (Predicate<T> operand : operands) {
+            result.add(simplify(operand, negated));
+        }
+        return result;
+    }
+
+    /**
+     * Builds simplified AND of simplified operands
+     */
+    private static <T> Predicate<T> and(List<Predicate<T>> operands) {
+        return junction(operands, true);
+    }
+
+    /**
+     * Builds simplified OR of simplified operands
+     */
+    private static <T> Predicate<T> or(List<Predicate<T>> operands) {
+        return junction(operands, false);
+    }
+
+    /**
+     * Builds simplified AND (and = true) or OR (and = false). For AND: TRUE operands are removed, FALSE operand
+     * or p and not(p) gives FALSE, or(p, ...) operand is absorbed by p. OR is dual.
+     */
+    private static <T> Predicate<T> junction(List<Predicate<T>> operands, boolean and) {
+        Class<?> node = and ? AndPredicate.class : OrPredicate.class;
+        Class<?> dual = and ? OrPredicate.class : AndPredicate.class;
+        Set<Predicate<T>> set = new LinkedHashSet<>();
+        for (Predicate<T> operand : operands) {
+            List<Predicate<T>> flat = new ArrayList<>();
+            if (node.isInstance(operand)) {
+                Collections.addAll(flat, ((CompositePredicate<T>) operand).operands);
+            } else {
+                flat.add(operand);
+            }
+            for (Predicate<T> p : flat) {
+                if (p instanceof ConstantPredicate) {
+                    if (((ConstantPredicate<T>) p).value != and) {
+                        return ConstantPredicate.of(!and);
+                    }
+                } else {
+                    set.add(p);
+                }
+            }
+        }
+        for (Predicate<T> p : set) {
+            if (set.contains(complement(p))) {
+                return ConstantPredicate.of(!and);
+            }
+        }
+        set.removeIf(p -> dual.isInstance(p) && absorbed((CompositePredicate<T>) p, set));
+        return build(set, node, and);
+    }
+
+    /**
+     * Checks if dual operand (e.g. or(p, q) in AND) contains other operand of the junction (e.g. p)
+     */
+    private static <T> boolean absorbed(CompositePredicate<T> dual, Set<Predicate<T>> junction) {
+        for (Predicate<T> p : dual.operands) {
+            if (junction.contains(p)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> Predicate<T> complement(Predicate<T> p) {
+        return p instanceof NotPredicate ? ((NotPredicate<T>) p).operand : new NotPredicate<>(p);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Predicate<T> build(Set<Predicate<T>> operands, Class<?> node, boolean empty) {
+        if (operands.isEmpty()) {
+            return ConstantPredicate.of(empty);
+        }
+        if (operands.size() == 1) {
+            return operands.iterator().next();
+        }
+        Predicate<T>[] array = operands.toArray(new Predicate[0]);
+        if (node == AndPredicate.class) {
+            return new AndPredicate<>(array);
+        }
+        if (node == OrPredicate.class) {
+            array = LeafFusion.fuse(array);
+            return array.length == 1 ? array[0] : new OrPredicate<>(array);
+        }
+        return new XorPredicate<>(array);
+    }
+
+    /**
+     * Builds simplified XOR of simplified operands: constants and negations change parity,
+     * pairs of equal operands cancel out, negation of the result is pushed into the first operand
+     */
+    private static <T> Predicate<T> xor(List<Predicate<T>> operands, boolean negated) {
+        return xor(operands, negated, true);
+    }
+
+    /**
+     * @param pushNegation if false the negation is kept as NOT of the XOR (used after the negation was pushed
+     *                     into an operand once, so the simplification terminates)
+     */
+    private static <T> Predicate<T> xor(List<Predicate<T>> operands, boolean negated, boolean pushNegation) {
+        Map<Predicate<T>, Boolean> odd = new LinkedHashMap<>();
+        List<Predicate<T>> pending = new ArrayList<>(operands);
+        for (int i = 0; i < pending.size(); i++) {
+            Predicate<T> p = pending.get(i);
+            if (p instanceof XorPredicate) {
+                Collections.addAll(pending, ((XorPredicate<T>) p).operands);
+            } else if (p instanceof ConstantPredicate) {
+                negated ^= ((ConstantPredicate<T>) p).value;
+            } else if (p instanceof NotPredicate) {
+                negated = !negated;
+                odd.merge(((NotPredicate<T>) p).operand, true, (a, b) -> !a);
+            } else {
+                odd.merge(p, true, (a, b) -> !a);
+            }
+        }
+        odd.values().removeIf(v -> !v);
+        if (odd.isEmpty()) {
+            return ConstantPredicate.of(negated);
+        }
+        List<Predicate<T>> result = new ArrayList<>(odd.keySet());
+        if (negated) {
+            if (!pushNegation) {
+                return new NotPredicate<>(build(new LinkedHashSet<>(result), XorPredicate.class, false));
+            }
+            Predicate<T> first = simplify(result.get(0), true);
+            result.set(0, first);
+            if (!(first instanceof NotPredicate)) {
+                // the negated operand can be equal to another operand, so the pair has to cancel out
+                return xor(result, false, false);
+            }
+        }
+        return build(new LinkedHashSet<>(result), XorPredicate.class, false);
+    }
+
+    /**
+     * Builds simplified XAND of simplified operands: with a TRUE operand all other operands have to be true,
+     * with a FALSE operand all other operands have to be false
+     */
+    private static <T> Predicate<T> xand(List<Predicate<T>> operands) {
+        boolean hasTrue = false;
+        boolean hasFalse = false;
+        Set<Predicate<T>> set = new LinkedHashSet<>();
+        for (Predicate<T> p : operands) {
+            if (p instanceof ConstantPredicate) {
+                if (((ConstantPredicate<T>) p).value) {
+                    hasTrue = true;
+                } else {
+                    hasFalse = true;
+                }
+            } else {
+                set.add(p);
+            }
+        }
+        if (hasTrue && hasFalse) {
+            return ConstantPredicate.of(false);
+        }
+        if (hasTrue) {
+            return and(new ArrayList<>(set));
+        }
+        if (hasFalse) {
+            List<Predicate<T>> negated = new ArrayList<>(set.size());
+            for (Predicate<T> p : set) {
+                negated.add(simplify(p, true));
+            }
+            return and(negated);
+        }
+        if (set.size() == 1) {
+            return ConstantPredicate.of(true);
+        }
+        for (Predicate<T> p : set) {
+            if (set.contains(complement(p))) {
+                return ConstantPredicate.of(false);
+            }
+        }
+        @SuppressWarnings("unchecked")
+        Predicate<T>[] array = set.toArray(new Predicate[0]);
+        return new XandPredicate<>(array);
+    }
+
+}
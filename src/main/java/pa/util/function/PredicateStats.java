@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Snapshot of statistics of an instrumented predicate and of instrumented predicates nested in it
+ *
+ * @author Grzegorz Krupinski
+ * @see Predicates#instrumented(String, java.util.function.Predicate)
+ * @see Predicates#stats(java.util.function.Predicate)
+ */
+public final class PredicateStats {
+
+    private final String name;
+    private final long invocations;
+    private final long trueCount;
+    private final long samples;
+    private final long sampledNanos;
+    private final List<PredicateStats> children;
+
+    PredicateStats(String name, long invocations, long trueCount, long samples, long sampledNanos,
+                   List<PredicateStats> children) {
+        this.name = name;
+        this.invocations = invocations;
+        this.trueCount = trueCount;
+        this.samples = samples;
+        this.sampledNanos = sampledNanos;
+        this.children = Collections.unmodifiableList(children);
+    }
+
+    /**
+     * @return name of the instrumented predicate
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return number of evaluations
+     */
+    public long getInvocations() {
+        return invocations;
+    }
+
+    /**
+     * @return number of evaluations, which returned true
+     */
+    public long getTrueCount() {
+        return trueCount;
+    }
+
+    /**
+     * @return fraction of evaluations, which returned true (0 if not evaluated)
+     */
+    public double getSelectivity() {
+        return invocations == 0 ? 0.0 : (double) trueCount / invocations;
+    }
+
+    /**
+     * @return mean latency of sampled evaluations in nanoseconds (0 if none sampled)
+     */
+    public double getMeanNanos() {
+        return samples == 0 ? 0.0 : (double) sampledNanos / samples;
+    }
+
+    /**
+     * @return statistics of the nearest instrumented predicates nested in this predicate
+     */
+    public List<PredicateStats> getChildren() {
+        return children;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        render(sb, 0);
+        return sb.toString();
+    }
+
+    private void render(StringBuilder sb, int depth) {
+        for (int i = 0; i < depth; i++) {
+            sb.append("  ");
+        }
+        sb.append(name)
+                .append(": invocations=").append(invocations)
+                .append(", true=").append(trueCount)
+                .append(String.format(Locale.ROOT, " (%.1f%%)", 100.0 * getSelectivity()))
+                .append(String.format(Locale.ROOT, ", mean=%.1f ns", getMeanNanos()))
+                .append('\n');
+        for (PredicateStats child : children) {
+            child.render(sb, depth + 1);
+        }
+    }
+
+}
@@ -16,8 +16,18 @@
 
 package pa.util.function;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 
 /**
  * Predicates is a utility class, which provides methods to operate on predicates
@@ -26,7 +36,7 @@ import java.util.function.Predicate;
  * <p>
  * Extra operations: NONE(=NOR), ALL(=AND)
  * <p>
- * Multi arguments (more than two arguments) logical operations: AND, OR, NAND, NOR
+ * Multi arguments (more than two arguments) logical operations: AND, OR, NAND, NOR, XAND, XOR
  * <p>
  * Extra operations: NONE(=NOR), ALL(=AND)
  *
@@ -34,6 +44,8 @@ import java.util.function.Predicate;
  */
 public class Predicates {
 
+    private static final Duration MAX_TTL = Duration.ofNanos(Long.MAX_VALUE / 4);
+
     /**
      * Predicate TRUE - useful in tests
      *
@@ -41,7 +53,7 @@ public class Predicates {
      * @return always true
      */
     public static <T> Predicate<T> pTrue() {
-        return (T t) -> true;
+        return ConstantPredicate.of(true);
     }
 
     /**
@@ -51,7 +63,7 @@ public class Predicates {
      * @return always false
      */
     public static <T> Predicate<T> pFalse() {
-        return (T t) -> false;
+        return ConstantPredicate.of(false);
     }
 
     /**
@@ -71,10 +83,13 @@ public class Predicates {
      *
      * @param <T> type
      * @param p   predicate
-     * @return p.negate()
+     * @return NOT predicate
      */
     public static <T> Predicate<T> not(Predicate<T> p) {
-        return p.negate();
+        if (p instanceof NotPredicate || p instanceof ConstantPredicate) {
+            return p.negate();
+        }
+        return new NotPredicate<>(Objects.requireNonNull(p));
     }
 
     /**
@@ -86,7 +101,7 @@ public class Predicates {
      * @return if none
      */
     public static <T> Predicate<T> none(Predicate<T> p1, Predicate<T> p2) {
-        return (p1.or(p2)).negate();
+        return nor(p1, p2);
     }
 
     /**
@@ -98,7 +113,7 @@ public class Predicates {
      * @return if all
      */
     public static <T> Predicate<T> all(Predicate<T> p1, Predicate<T> p2) {
-        return p1.and(p2);
+        return and(p1, p2);
     }
 
     /**
@@ -110,7 +125,7 @@ public class Predicates {
      * @return if p then q
      */
     public static <T> Predicate<T> cond(Predicate<T> p, Predicate<T> q) {
-        return p.negate().or(q);
+        return or(not(p), q);
     }
 
     /**
@@ -122,7 +137,7 @@ public class Predicates {
      * @return AND predicate
      */
     public static <T> Predicate<T> and(Predicate<T> p1, Predicate<T> p2) {
-        return p1.and(p2);
+        return and(array(p1, p2));
     }
 
     /**
@@ -134,7 +149,7 @@ public class Predicates {
      * @return NAND predicate
      */
     public static <T> Predicate<T> nand(Predicate<T> p1, Predicate<T> p2) {
-        return (p1.and(p2)).negate();
+        return nand(array(p1, p2));
     }
 
     /**
@@ -146,10 +161,7 @@ public class Predicates {
      * @return XAND predicate
      */
     public static <T> Predicate<T> xand(Predicate<T> p1, Predicate<T> p2) {
-        return or(
-                all(p1, p2),
-                none(p1, p2)
-        );
+        return xand(array(p1, p2));
     }
 
     /**
@@ -161,7 +173,7 @@ public class Predicates {
      * @return OR predicate
      */
     public static <T> Predicate<T> or(Predicate<T> p1, Predicate<T> p2) {
-        return p1.or(p2);
+        return or(array(p1, p2));
     }
 
     /**
@@ -173,7 +185,7 @@ public class Predicates {
      * @return NOR predicate
      */
     public static <T> Predicate<T> nor(Predicate<T> p1, Predicate<T> p2) {
-        return (p1.or(p2)).negate();
+        return nor(array(p1, p2));
     }
 
     /**
@@ -185,10 +197,7 @@ public class Predicates {
      * @return XOR predicate
      */
     public static <T> Predicate<T> xor(Predicate<T> p1, Predicate<T> p2) {
-        return or(
-                and(p1, not(p2)),
-                and(not(p1), p2)
-        );
+        return xor(array(p1, p2));
     }
 
     /**
@@ -198,7 +207,10 @@ public class Predicates {
      * @param func       base Predicate function
      * @param predicates array of predicates
      * @return predicate
+     * @deprecated use {@link #and(Predicate[])}, {@link #or(Predicate[])} or {@link #xor(Predicate[])},
+     * which build one node of all operands - folding with the two-argument operations gives the same nodes
      */
+    @Deprecated
     protected static <T> Predicate<T> oper(BiFunction<Predicate<T>, Predicate<T>, Predicate<T>> func, Predicate<T>... predicates) {
         checkPredicatesCount(predicates.length);
         Predicate<T> result = predicates[0];
@@ -208,6 +220,35 @@ public class Predicates {
         return result;
     }
 
+    /**
+     * Produces flat array of operands - operands of the same node type are absorbed
+     * (e.g. and(and(p1, p2), p3) gives [p1, p2, p3])
+     *
+     * @param <T>        type
+     * @param node       node type, which operands are absorbed
+     * @param predicates array of predicates
+     * @return array of operands
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Predicate<T>[] flatten(Class<?> node, Predicate<T>[] predicates) {
+        checkPredicatesCount(predicates.length);
+        List<Predicate<T>> operands = new ArrayList<>(predicates.length);
+        for (Predicate<T> p : predicates) {
+            Objects.requireNonNull(p);
+            if (node.isInstance(p)) {
+                Collections.addAll(operands, ((CompositePredicate<T>) p).operands);
+            } else {
+                operands.add(p);
+            }
+        }
+        return operands.toArray(new Predicate[0]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Predicate<T>[] array(Predicate<T> p1, Predicate<T> p2) {
+        return new Predicate[]{p1, p2};
+    }
+
     /**
      * if count equals 0 then throws exception
      *
@@ -250,7 +291,8 @@ public class Predicates {
      * @return AND predicate
      */
     public static <T> Predicate<T> and(Predicate<T>... predicates) {
-        return oper(Predicates::and, predicates);
+        Predicate<T>[] operands = flatten(AndPredicate.class, predicates);
+        return operands.length == 1 ? operands[0] : new AndPredicate<>(operands);
     }
 
     /**
@@ -261,7 +303,7 @@ public class Predicates {
      * @return NAND predicate
      */
     public static <T> Predicate<T> nand(Predicate<T>... predicates) {
-        return oper(Predicates::and, predicates).negate();
+        return not(and(predicates));
     }
 
     /**
@@ -272,7 +314,8 @@ public class Predicates {
      * @return OR predicate
      */
     public static <T> Predicate<T> or(Predicate<T>... predicates) {
-        return oper(Predicates::or, predicates);
+        Predicate<T>[] operands = LeafFusion.fuse(flatten(OrPredicate.class, predicates));
+        return operands.length == 1 ? operands[0] : new OrPredicate<>(operands);
     }
 
     /**
@@ -283,7 +326,353 @@ public class Predicates {
      * @return NIR predicate
      */
     public static <T> Predicate<T> nor(Predicate<T>... predicates) {
-        return oper(Predicates::or, predicates).negate();
+        return not(or(predicates));
+    }
+
+    /**
+     * Exclusive conjunction - XAND (all predicates give the same result)
+     *
+     * @param predicates list of predicates
+     * @param <T>        type
+     * @return XAND predicate
+     */
+    public static <T> Predicate<T> xand(Predicate<T>... predicates) {
+        checkPredicatesCount(predicates.length);
+        for (Predicate<T> p : predicates) {
+            Objects.requireNonNull(p);
+        }
+        return predicates.length == 1 ? pTrue() : new XandPredicate<>(predicates.clone());
+    }
+
+    /**
+     * Exclusive disjunction - XOR (odd number of predicates is true)
+     *
+     * @param predicates list of predicates
+     * @param <T>        type
+     * @return XOR predicate
+     */
+    public static <T> Predicate<T> xor(Predicate<T>... predicates) {
+        Predicate<T>[] operands = flatten(XorPredicate.class, predicates);
+        return operands.length == 1 ? operands[0] : new XorPredicate<>(operands);
+    }
+
+    /**
+     * Equality of a key extracted from the element and the value (null-safe).
+     * OR of eq and in predicates using the same extractor instance is fused into one hash set lookup,
+     * so keep the extractor in a constant, e.g. or(eq(STATUS, "A"), eq(STATUS, "B")).
+     *
+     * @param keyExtractor function extracting the key
+     * @param value        expected value (can be null)
+     * @param <T>          type
+     * @param <K>          key type
+     * @return eq predicate
+     */
+    public static <T, K> Predicate<T> eq(Function<? super T, ? extends K> keyExtractor, K value) {
+        return new EqPredicate<>(Objects.requireNonNull(keyExtractor), value);
+    }
+
+    /**
+     * Membership of a key extracted from the element in the values (a hash set lookup)
+     *
+     * @param keyExtractor function extracting the key
+     * @param values       accepted values
+     * @param <T>          type
+     * @param <K>          key type
+     * @return in predicate
+     */
+    public static <T, K> Predicate<T> in(Function<? super T, ? extends K> keyExtractor,
+                                         Collection<? extends K> values) {
+        Objects.requireNonNull(keyExtractor);
+        return values.isEmpty() ? pFalse() : new InPredicate<>(keyExtractor, new HashSet<>(values));
+    }
+
+    /**
+     * Membership of the element in the values (a hash set lookup)
+     *
+     * @param values accepted values
+     * @param <T>    type
+     * @return in predicate
+     */
+    public static <T> Predicate<T> in(Collection<? extends T> values) {
+        return in(Function.<T>identity(), values);
+    }
+
+    /**
+     * Range of a long key extracted from the element: from &lt;= key &lt;= to.
+     * OR of range predicates using the same extractor instance is fused into one set of merged intervals
+     * (a binary search).
+     *
+     * @param keyExtractor function extracting the key
+     * @param from         lower bound (inclusive)
+     * @param to           upper bound (inclusive)
+     * @param <T>          type
+     * @return range predicate (FALSE if from &gt; to)
+     */
+    public static <T> Predicate<T> betweenLong(ToLongFunction<? super T> keyExtractor, long from, long to) {
+        Objects.requireNonNull(keyExtractor);
+        return from > to ? pFalse() : new LongRangePredicate<>(keyExtractor, LongIntervalSet.of(from, to));
+    }
+
+    /**
+     * Range of a double key extracted from the element: from &lt;= key &lt;= to.
+     * OR of range predicates using the same extractor instance is fused into one set of merged intervals
+     * (a binary search).
+     *
+     * @param keyExtractor function extracting the key
+     * @param from         lower bound (inclusive)
+     * @param to           upper bound (inclusive)
+     * @param <T>          type
+     * @return range predicate (FALSE if from &gt; to or a bound is NaN)
+     */
+    public static <T> Predicate<T> betweenDouble(ToDoubleFunction<? super T> keyExtractor,
+                                                 double from, double to) {
+        Objects.requireNonNull(keyExtractor);
+        if (!(from <= to)) {
+            return pFalse();
+        }
+        return new DoubleRangePredicate<>(keyExtractor, DoubleIntervalSet.of(from, to));
+    }
+
+    /**
+     * Logical AND, which reorders its operands at runtime, so cheap operands rejecting most elements run first.
+     * A sample of evaluations is measured (cost and pass rate of every operand) and the order is updated
+     * periodically by the common pool without synchronization of the evaluation.
+     * Operands have to be independent and free of side effects.
+     *
+     * @param predicates list of predicates
+     * @param <T>        type
+     * @return adaptive AND predicate
+     */
+    public static <T> Predicate<T> adaptiveAnd(Predicate<T>... predicates) {
+        Predicate<T>[] operands = flatten(AndPredicate.class, predicates);
+        return operands.length == 1 ? operands[0]
+                : new AdaptivePredicate<>(true, operands, AdaptivePredicate.SAMPLE_RATE, AdaptivePredicate.PERIOD);
+    }
+
+    /**
+     * Logical OR, which reorders its operands at runtime, so cheap operands accepting most elements run first.
+     * A sample of evaluations is measured (cost and pass rate of every operand) and the order is updated
+     * periodically by the common pool without synchronization of the evaluation.
+     * Operands have to be independent and free of side effects.
+     *
+     * @param predicates list of predicates
+     * @param <T>        type
+     * @return adaptive OR predicate
+     */
+    public static <T> Predicate<T> adaptiveOr(Predicate<T>... predicates) {
+        Predicate<T>[] operands = flatten(OrPredicate.class, predicates);
+        return operands.length == 1 ? operands[0]
+                : new AdaptivePredicate<>(false, operands, AdaptivePredicate.SAMPLE_RATE, AdaptivePredicate.PERIOD);
+    }
+
+    /**
+     * Simplifies predicate built by this class:
+     * <p>
+     * - folds constants (pTrue(), pFalse()), e.g. and(pTrue(), p) gives p
+     * <p>
+     * - eliminates double negation and pushes negation to the leaves (De Morgan), e.g. nand(p, q) gives or(not(p), not(q))
+     * <p>
+     * - flattens nested operations and removes duplicated operands, e.g. or(p, or(q, p)) gives or(p, q)
+     * <p>
+     * - removes absorbed operands and contradictions, e.g. and(p, or(p, q)) gives p, and(p, not(p)) gives pFalse()
+     * <p>
+     * Other predicates (e.g. lambdas or instrumented predicates) are treated as opaque operands,
+     * so they should be free of side effects.
+     *
+     * @param p   predicate
+     * @param <T> type
+     * @return simplified equivalent predicate
+     */
+    public static <T> Predicate<T> simplify(Predicate<T> p) {
+        return PredicateSimplifier.simplify(Objects.requireNonNull(p));
+    }
+
+    /**
+     * Compiles predicate built by this class (AND, OR, NOT, XOR, XAND, constants) into a dedicated class,
+     * which evaluates the whole tree in one method. Every other predicate (leaf) is called from its own call site,
+     * so the call sites stay monomorphic and can be inlined by JIT. A hidden class is used on Java 15+.
+     * <p>
+     * The compiled predicate is opaque (e.g. it is not simplified or evaluated in batches by this class),
+     * so simplify the predicate before compiling it.
+     *
+     * @param p   predicate
+     * @param <T> type
+     * @return compiled predicate or p if it is a leaf or it is too big to compile
+     */
+    public static <T> Predicate<T> compile(Predicate<T> p) {
+        return PredicateCompiler.compile(Objects.requireNonNull(p));
+    }
+
+    /**
+     * Instrumented predicate - counts evaluations and true results (in striped counters, without locking)
+     * and measures latency of a sample of evaluations. Use {@link #stats(Predicate)} to get the statistics.
+     * On Java 11+ sampled evaluations longer than the threshold are recorded as JFR events
+     * ({@code pa.util.function.SlowPredicate}) - only instrumented predicates emit them.
+     *
+     * @param name name of the predicate used in statistics
+     * @param p    predicate
+     * @param <T>  type
+     * @return instrumented predicate
+     */
+    public static <T> Predicate<T> instrumented(String name, Predicate<T> p) {
+        return new InstrumentedPredicate<>(Objects.requireNonNull(name), Objects.requireNonNull(p));
+    }
+
+    /**
+     * Predicate with a bounded cache of results (see {@link CachedPredicate}), safe for concurrent use.
+     * Useful for expensive predicates evaluated on repeating inputs.
+     *
+     * @param p          predicate
+     * @param maxEntries maximum number of cached results
+     * @param <T>        type
+     * @return cached predicate
+     */
+    public static <T> CachedPredicate<T> cached(Predicate<T> p, int maxEntries) {
+        return cached(p, maxEntries, null);
+    }
+
+    /**
+     * Predicate with a bounded cache of results (see {@link CachedPredicate}), safe for concurrent use.
+     * Useful for expensive predicates evaluated on repeating inputs.
+     *
+     * @param p          predicate
+     * @param maxEntries maximum number of cached results
+     * @param ttl        time to live of cached results (null if they do not expire)
+     * @param <T>        type
+     * @return cached predicate
+     */
+    public static <T> CachedPredicate<T> cached(Predicate<T> p, int maxEntries, Duration ttl) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive");
+        }
+        long ttlNanos = 0;
+        if (ttl != null) {
+            if (ttl.isNegative() || ttl.isZero()) {
+                throw new IllegalArgumentException("Time to live must be positive");
+            }
+            ttlNanos = ttl.compareTo(MAX_TTL) < 0 ? ttl.toNanos() : MAX_TTL.toNanos();
+        }
+        return new CachedPredicate<>(Objects.requireNonNull(p), maxEntries, ttlNanos);
+    }
+
+    /**
+     * Explain plan of predicate: the tree of operations with operands in the order of evaluation,
+     * selectivity and cost measured by instrumented predicates or estimated from them and from adaptive operations.
+     * Render it with {@link PredicatePlan#toString()} or {@link PredicatePlan#toJson()}.
+     *
+     * @param p   predicate
+     * @param <T> type
+     * @return plan
+     */
+    public static <T> PredicatePlan explain(Predicate<T> p) {
+        return PredicateExplainer.explain(Objects.requireNonNull(p), null);
+    }
+
+    /**
+     * Explain plan of predicate (see {@link #explain(Predicate)}) with extractors and predicates named by attributes
+     *
+     * @param p          predicate
+     * @param attributes attributes
+     * @param <T>        type
+     * @return plan
+     */
+    public static <T> PredicatePlan explain(Predicate<T> p, Attributes<T> attributes) {
+        return PredicateExplainer.explain(Objects.requireNonNull(p), Objects.requireNonNull(attributes));
+    }
+
+    /**
+     * Returns snapshot of statistics of the outermost instrumented predicates found in predicate
+     * (each of them with statistics of instrumented predicates nested in it)
+     *
+     * @param p   predicate
+     * @param <T> type
+     * @return list of statistics (empty if there is no instrumented predicate)
+     */
+    public static <T> List<PredicateStats> stats(Predicate<T> p) {
+        List<PredicateStats> stats = new ArrayList<>();
+        collectStats(p, stats);
+        return stats;
+    }
+
+    private static <T> void collectStats(Predicate<T> p, List<PredicateStats> stats) {
+        if (p instanceof InstrumentedPredicate) {
+            InstrumentedPredicate<T> instrumented = (InstrumentedPredicate<T>) p;
+            List<PredicateStats> children = new ArrayList<>();
+            collectStats(instrumented.delegate, children);
+            stats.add(new PredicateStats(instrumented.name, instrumented.invocations.sum(),
+                    instrumented.trueCount.sum(), instrumented.samples.sum(), instrumented.sampledNanos.sum(),
+                    children));
+        } else if (p instanceof CompositePredicate) {
+            for (Predicate<T> operand : ((CompositePredicate<T>) p).operands) {
+                collectStats(operand, stats);
+            }
+        } else if (p instanceof NotPredicate) {
+            collectStats(((NotPredicate<T>) p).operand, stats);
+        } else if (p instanceof AdaptivePredicate) {
+            for (Predicate<T> operand : ((AdaptivePredicate<T>) p).operands()) {
+                collectStats(operand, stats);
+            }
+        }
+    }
+
+    /**
+     * Evaluates predicate on elements batch[from] .. batch[to - 1] and stores results as a bitmap:
+     * bit (i % 64) of bitmapOut[i / 64] is the result of batch[from + i].
+     * Predicates built by this class are evaluated 64 elements at a time, e.g. operands of AND are evaluated
+     * only for elements accepted by previous operands and NOT inverts whole words.
+     *
+     * @param p         predicate
+     * @param batch     array of elements
+     * @param from      index of the first element (inclusive)
+     * @param to        index of the last element (exclusive)
+     * @param bitmapOut bitmap of results, at least (to - from + 63) / 64 long
+     * @param <T>       type
+     * @return number of elements, which satisfy the predicate
+     * @throws IndexOutOfBoundsException if the range is out of batch or bitmapOut is too short
+     */
+    public static <T> int testAll(Predicate<T> p, T[] batch, int from, int to, long[] bitmapOut) {
+        Objects.requireNonNull(p);
+        if (from < 0 || from > to || to > batch.length) {
+            throw new IndexOutOfBoundsException("from: " + from + ", to: " + to + ", length: " + batch.length);
+        }
+        int words = (to - from + 63) >>> 6;
+        if (bitmapOut.length < words) {
+            throw new IndexOutOfBoundsException("bitmap length: " + bitmapOut.length + ", required: " + words);
+        }
+        int count = 0;
+        for (int w = 0; w < words; w++) {
+            int offset = from + (w << 6);
+            int size = Math.min(64, to - offset);
+            long mask = size == 64 ? -1L : (1L << size) - 1;
+            bitmapOut[w] = test(p, batch, offset, mask);
+            count += Long.bitCount(bitmapOut[w]);
+        }
+        return count;
+    }
+
+    /**
+     * Evaluates predicate on elements selected by mask (up to 64 elements from offset)
+     *
+     * @param p      predicate
+     * @param batch  array of elements
+     * @param offset index of the element of bit 0
+     * @param mask   selected elements
+     * @param <T>    type
+     * @return bitmap of selected elements, which satisfy the predicate
+     */
+    @SuppressWarnings("unchecked")
+    static <T> long test(Predicate<T> p, T[] batch, int offset, long mask) {
+        if (p instanceof BatchPredicate) {
+            return ((BatchPredicate<T>) p).test(batch, offset, mask);
+        }
+        long result = 0L;
+        for (long m = mask; m != 0L; m &= m - 1) {
+            int bit = Long.numberOfTrailingZeros(m);
+            if (p.test(batch[offset + bit])) {
+                result |= 1L << bit;
+            }
+        }
+        return result;
     }
 
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.function.Predicate;
+
+/**
+ * Exclusive conjunction - XAND of many operands (true if all operands are equal).
+ * Every operand is evaluated at most once.
+ *
+ * @param <T> type
+ * @author Grzegorz Krupinski
+ */
+final class XandPredicate<T> extends CompositePredicate<T> {
+
+    XandPredicate(Predicate<T>[] operands) {
+        super(operands);
+    }
+
+    @Override
+    public boolean test(T t) {
+        boolean first = operands[0].test(t);
+        for (int i = 1; i < operands.length; i++) {
+            if (operands[i].test(t) != first) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long test(T[] batch, int offset, long mask) {
+        long allTrue = mask;
+        long allFalse = mask;
+        for (Predicate<T> p : operands) {
+            long hit = Predicates.test(p, batch, offset, allTrue | allFalse);
+            allTrue &= hit;
+            allFalse &= ~hit;
+            if ((allTrue | allFalse) == 0L) {
+                break;
+            }
+        }
+        return allTrue | allFalse;
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.function.Predicate;
+
+/**
+ * Exclusive disjunction - XOR of many operands (true if odd number of operands is true).
+ * Every operand is evaluated exactly once.
+ *
+ * @param <T> type
+ * @author Grzegorz Krupinski
+ */
+final class XorPredicate<T> extends CompositePredicate<T> {
+
+    XorPredicate(Predicate<T>[] operands) {
+        super(operands);
+    }
+
+    @Override
+    public boolean test(T t) {
+        boolean result = false;
+        for (Predicate<T> p : operands) {
+            result ^= p.test(t);
+        }
+        return result;
+    }
+
+    @Override
+    public long test(T[] batch, int offset, long mask) {
+        long result = 0L;
+        for (Predicate<T> p : operands) {
+            result ^= Predicates.test(p, batch, offset, mask);
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Java Flight Recorder events (Java 11+): swallowed exceptions of NullSafeUtils and slow sampled evaluations
+ * of instrumented predicates (only predicates wrapped by {@link Predicates#instrumented(String, java.util.function.Predicate)}
+ * are timed, other predicates never emit slow evaluation events). Disabled events cost a check of a flag; enabled events are limited to
+ * {@code pa.util.function.jfr.maxEventsPerSecond} (system property, default 100) per event type,
+ * the number of dropped events is reported by the next committed event.
+ *
+ * @author Grzegorz Krupinski
+ */
+final class Events {
+
+    private static final int MAX_EVENTS_PER_SECOND =
+            Integer.getInteger("pa.util.function.jfr.maxEventsPerSecond", 100);
+    private static final int MAX_FRAMES = 16;
+
+    @Name("pa.util.function.SwallowedException")
+    @Label("Swallowed Exception")
+    @Description("RuntimeException swallowed by NullSafeUtils")
+    @Category("Functional Util")
+    @StackTrace(true)
+    static final class SwallowedExceptionEvent extends Event {
+
+        @Label("Supplier Class")
+        @Description("Class of the supplier, function or path - its toString() is not called")
+        Class<?> supplierClass;
+
+        @Label("Exception Type")
+        Class<?> exceptionType;
+
+        @Label("Message")
+        String message;
+
+        @Label("Exception Stack")
+        @Description("Top frames of the stack trace of the exception")
+        String exceptionStack;
+
+        @Label("Dropped")
+        @Description("Events dropped by the rate limit since the previous event")
+        long dropped;
+    }
+
+    @Name("pa.util.function.SlowPredicate")
+    @Label("Slow Predicate Evaluation")
+    @Description("Sampled evaluation of a predicate wrapped by Predicates.instrumented() longer than the threshold")
+    @Category("Functional Util")
+    @StackTrace(false)
+    @Threshold("1 ms")
+    static final class SlowPredicateEvent extends Event {
+
+        @Label("Predicate")
+        String predicate;
+
+        @Label("Result")
+        boolean result;
+
+        @Label("Dropped")
+        @Description("Events dropped by the rate limit since the previous event")
+        long dropped;
+    }
+
+    /**
+     * Fixed window rate limit - the window (second of nanoTime) and the number of events in it are packed
+     * in one long (window in the high half, count in the low half), so a reset and an increment are one CAS
+     */
+    private static final class RateLimit {
+
+        private final AtomicLong state = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+
+        boolean tryAcquire() {
+            int now = (int) (System.nanoTime() / 1_000_000_000L);
+            while (true) {
+                long current = state.get();
+                int count = (int) (current >>> 32) == now ? (int) current : 0;
+                if (count >= MAX_EVENTS_PER_SECOND) {
+                    dropped.incrementAndGet();
+                    return false;
+                }
+                if (state.compareAndSet(current, (long) now << 32 | count + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        long takeDropped() {
+            return dropped.getAndSet(0);
+        }
+    }
+
+    private static final SwallowedExceptionEvent SWALLOWED = new SwallowedExceptionEvent();
+    private static final SlowPredicateEvent SLOW = new SlowPredicateEvent();
+    private static final RateLimit SWALLOWED_LIMIT = new RateLimit();
+    private static final RateLimit SLOW_LIMIT = new RateLimit();
+
+    private Events() {
+    }
+
+    static void swallowed(Object source, RuntimeException exception) {
+        if (!SWALLOWED.isEnabled()) {
+            return;
+        }
+        SwallowedExceptionEvent event = new SwallowedExceptionEvent();
+        if (event.shouldCommit() && SWALLOWED_LIMIT.tryAcquire()) {
+            event.supplierClass = source == null ? null : source.getClass();
+            event.exceptionType = exception.getClass();
+            event.message = exception.getMessage();
+            event.exceptionStack = stack(exception);
+            event.dropped = SWALLOWED_LIMIT.takeDropped();
+            event.commit();
+        }
+    }
+
+    static Object beginEvaluation() {
+        if (!SLOW.isEnabled()) {
+            return null;
+        }
+        SlowPredicateEvent event = new SlowPredicateEvent();
+        event.begin();
+        return event;
+    }
+
+    static void endEvaluation(Object token, String name, boolean result) {
+        if (token == null) {
+            return;
+        }
+        SlowPredicateEvent event = (SlowPredicateEvent) token;
+        event.end();
+        if (event.shouldCommit() && SLOW_LIMIT.tryAcquire()) {
+            event.predicate = name;
+            event.result = result;
+            event.dropped = SLOW_LIMIT.takeDropped();
+            event.commit();
+        }
+    }
+
+    private static String stack(Throwable exception) {
+        StackTraceElement[] frames = exception.getStackTrace();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < Math.min(MAX_FRAMES, frames.length); i++) {
+            sb.append(frames[i]).append('\n');
+        }
+        if (frames.length > MAX_FRAMES) {
+            sb.append("... ").append(frames.length - MAX_FRAMES).append(" more\n");
+        }
+        return sb.toString();
+    }
+
+}
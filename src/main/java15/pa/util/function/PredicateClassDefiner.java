@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Predicate;
+
+/**
+ * Defines classes generated by PredicateCompiler as hidden classes (Java 15+), which are not visible to
+ * class loaders and are unloaded together with the compiled predicate
+ *
+ * @author Grzegorz Krupinski
+ */
+final class PredicateClassDefiner {
+
+    private PredicateClassDefiner() {
+    }
+
+    /**
+     * Defines a hidden class and creates its instance
+     *
+     * @param bytes  class file
+     * @param leaves constructor argument
+     * @return compiled predicate
+     */
+    static Predicate<?> define(byte[] bytes, Predicate<?>[] leaves) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            MethodHandle constructor = lookup.findConstructor(lookup.lookupClass(),
+                    MethodType.methodType(void.class, Predicate[].class));
+            return (Predicate<?>) constructor.invoke(leaves);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException("Cannot define compiled predicate", ex);
+        }
+    }
+
+}
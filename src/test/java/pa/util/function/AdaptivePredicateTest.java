@@ -0,0 +1,144 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of AdaptivePredicate class
+ *
+ * @author Grzegorz Krupinski
+ */
+public class AdaptivePredicateTest {
+
+    private final List<Integer> values = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+
+    private final Predicate<Integer> slowTrue = i -> {
+        long end = System.nanoTime() + 20_000;
+        while (System.nanoTime() < end) {
+            Thread.yield();
+        }
+        return i >= 0;
+    };
+    private final Predicate<Integer> even = i -> i % 2 == 0;
+    private final Predicate<Integer> rare = i -> i % 100 == 0;
+    private final Predicate<Integer> common = i -> i % 100 != 0;
+    private final Predicate<Integer> frequent = i -> i % 10 != 0;
+
+    private final Tasks direct = new Tasks(false);
+    private final Tasks queue = new Tasks(true);
+
+    @Test
+    public void testSameResults() {
+        assertFilter(Predicates.and(even, rare, common), Predicates.adaptiveAnd(even, rare, common));
+        assertFilter(Predicates.or(even, rare, common), Predicates.adaptiveOr(even, rare, common));
+        assertSame(even, Predicates.adaptiveAnd(even));
+        assertFilter(Predicates.nor(even, rare), Predicates.adaptiveOr(even, rare).negate());
+    }
+
+    @Test
+    public void testReorderAnd() {
+        AdaptivePredicate<Integer> and = new AdaptivePredicate<>(true, array(slowTrue, even, rare), 1, 100, direct);
+        for (int i = 0; i < 3; i++) {
+            values.forEach(and::test);
+        }
+        assertArrayEquals(array(rare, even, slowTrue), and.operands());
+        assertFilter(Predicates.and(slowTrue, even, rare), and);
+    }
+
+    @Test
+    public void testReorderOr() {
+        AdaptivePredicate<Integer> or = new AdaptivePredicate<>(false, array(slowTrue, rare, frequent), 1, 100, direct);
+        for (int i = 0; i < 3; i++) {
+            values.forEach(or::test);
+        }
+        assertArrayEquals(array(frequent, rare, slowTrue), or.operands());
+        assertFilter(Predicates.or(slowTrue, rare, frequent), or);
+    }
+
+    @Test
+    public void testReorderByExecutor() {
+        AdaptivePredicate<Integer> and = new AdaptivePredicate<>(true, array(slowTrue, even, rare), 1, 100, queue);
+        values.subList(0, 300).forEach(and::test);
+        assertEquals(1, queue.pending.size());
+        assertArrayEquals(array(slowTrue, even, rare), and.operands());
+        queue.pending.get(0).run();
+        assertSame(slowTrue, and.operands()[2]);
+    }
+
+    @Test
+    public void testParallel() {
+        Predicate<Integer> and = new AdaptivePredicate<>(true, array(even, common, rare), 2, 10);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(values.stream().filter(Predicates.and(even, common, rare)).count(),
+                    values.parallelStream().filter(and).count());
+        }
+    }
+
+    @Test
+    public void testTestAll() {
+        Integer[] batch = values.toArray(new Integer[0]);
+        Predicate<Integer> and = Predicates.adaptiveAnd(even, common);
+        Predicate<Integer> or = Predicates.adaptiveOr(rare, even);
+        assertEquals(490, Predicates.testAll(and, batch, 0, batch.length, new long[16]));
+        assertEquals(500, Predicates.testAll(or, batch, 0, batch.length, new long[16]));
+    }
+
+    /**
+     * Executor running tasks at once or queueing them (one class, so the call site in AdaptivePredicate
+     * is not deoptimized between tests, which would disturb the measured costs)
+     */
+    private static final class Tasks implements Executor {
+        final List<Runnable> pending = new ArrayList<>();
+        final boolean queued;
+
+        Tasks(boolean queued) {
+            this.queued = queued;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            if (queued) {
+                pending.add(task);
+            } else {
+                task.run();
+            }
+        }
+    }
+
+    @SafeVarargs
+    private static Predicate<Integer>[] array(Predicate<Integer>... predicates) {
+        return predicates;
+    }
+
+    private void assertFilter(Predicate<Integer> expected, Predicate<Integer> p) {
+        assertEquals(values.stream().filter(expected).collect(Collectors.toList()),
+                values.stream().filter(p).collect(Collectors.toList()));
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+import static org.junit.Assert.*;
+import static pa.util.function.Predicates.*;
+
+/**
+ * Tests of Attributes class
+ *
+ * @author Grzegorz Krupinski
+ */
+public class AttributesTest {
+
+    private static final Function<String[], String> STATUS = a -> a[0];
+    private static final ToLongFunction<String[]> AMOUNT = a -> Long.parseLong(a[1]);
+    private static final ToDoubleFunction<String[]> SCORE = a -> Double.parseDouble(a[2]);
+    private static final Predicate<String[]> FLAGGED = a -> a.length > 3;
+
+    private final Attributes<String[]> attributes = new Attributes<String[]>()
+            .add("status", STATUS)
+            .addLong("amount", AMOUNT)
+            .addDouble("score", SCORE)
+            .addPredicate("flagged", FLAGGED);
+
+    private static String[] element(String... values) {
+        return values;
+    }
+
+    @Test
+    public void testBuild() {
+        String[] e = element("NEW", "15", "0.5");
+        assertTrue(attributes.eq("status", "NEW").test(e));
+        assertEquals(eq(STATUS, "NEW"), attributes.eq("status", "NEW"));
+        assertTrue(attributes.in("status", Arrays.asList("PAID", "NEW")).test(e));
+        assertFalse(attributes.in("status", Collections.emptyList()).test(e));
+        assertTrue(attributes.eq("amount", 15).test(e));
+        assertFalse(attributes.in("amount", Arrays.asList(14, 16L)).test(e));
+        assertTrue(attributes.between("amount", 10, 20).test(e));
+        assertEquals(betweenLong(AMOUNT, 10, 20), attributes.between("amount", 10, 20));
+        assertTrue(attributes.eq("score", 0.5).test(e));
+        assertFalse(attributes.between("score", 0.6, 1).test(e));
+        assertSame(FLAGGED, attributes.predicate("flagged"));
+        assertTrue(or(attributes.eq("amount", 10), attributes.between("amount", 11, 20)).test(e));
+    }
+
+    @Test
+    public void testNaN() {
+        String[] e = element("NEW", "15", "NaN");
+        assertSame(pFalse(), attributes.eq("score", Double.NaN));
+        assertSame(pFalse(), simplify(or(attributes.eq("score", Double.NaN), attributes.eq("score", Double.NaN))));
+        assertFalse(attributes.in("score", Arrays.asList(Double.NaN, 0.5)).test(e));
+        PredicateIndex<String[], String> index = new PredicateIndex<>();
+        index.add("nan", and(attributes.eq("status", "NEW"), attributes.eq("score", Double.NaN)));
+        assertTrue(index.match(e).isEmpty());
+        assertEquals("false", explain(attributes.eq("score", Double.NaN)).getOperator());
+    }
+
+    @Test
+    public void testFractionalLongValues() {
+        String[] ten = element("NEW", "10", "0.5");
+        String[] eleven = element("NEW", "11", "0.5");
+        assertTrue(attributes.eq("amount", 10.0).test(ten));
+        assertTrue(attributes.eq("amount", new BigDecimal("10.00")).test(ten));
+        assertFalse(attributes.between("amount", 10.5, 20).test(ten));
+        assertTrue(attributes.between("amount", 10.5, 20).test(eleven));
+        assertEquals(betweenLong(AMOUNT, 11, 20), attributes.between("amount", 10.5, 20.9));
+        assertEquals(betweenLong(AMOUNT, -10, -3), attributes.between("amount", -10.5f, -2.5));
+        assertEquals(betweenLong(AMOUNT, 11, 11), attributes.between("amount", new BigDecimal("10.1"), 11));
+        assertEquals(betweenLong(AMOUNT, Long.MIN_VALUE, 0), attributes.between("amount", -1e30, BigInteger.ZERO));
+        assertEquals(betweenLong(AMOUNT, 0, Long.MAX_VALUE),
+                attributes.between("amount", 0, BigInteger.ONE.shiftLeft(70)));
+        assertInvalid(() -> attributes.eq("amount", 10.5));
+        assertInvalid(() -> attributes.in("amount", Arrays.asList(10, 10.9)));
+        assertInvalid(() -> attributes.eq("amount", 1e19));
+        assertInvalid(() -> attributes.eq("amount", new BigDecimal("10.5")));
+        assertInvalid(() -> attributes.eq("amount", BigInteger.ONE.shiftLeft(64)));
+        assertInvalid(() -> attributes.between("amount", Double.NaN, 1));
+    }
+
+    @Test
+    public void testErrors() {
+        assertInvalid(() -> attributes.add("status", a -> a[1]));
+        assertInvalid(() -> attributes.add("other", STATUS));
+        assertInvalid(() -> attributes.eq("unknown", 1));
+        assertInvalid(() -> attributes.eq("amount", "x"));
+        assertInvalid(() -> attributes.between("status", 1, 2));
+        assertInvalid(() -> attributes.eq("flagged", true));
+        assertInvalid(() -> attributes.predicate("status"));
+    }
+
+    private static void assertInvalid(Runnable runnable) {
+        try {
+            runnable.run();
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+}
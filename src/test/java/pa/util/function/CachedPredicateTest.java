@@ -0,0 +1,129 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+import static pa.util.function.Predicates.cached;
+
+/**
+ * Tests of CachedPredicate class
+ *
+ * @author Grzegorz Krupinski
+ */
+public class CachedPredicateTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private boolean even(Integer i) {
+        calls.incrementAndGet();
+        return i % 2 == 0;
+    }
+
+    @Test
+    public void testCached() {
+        CachedPredicate<Integer> p = cached(this::even, 100);
+        assertTrue(p.test(2));
+        assertFalse(p.test(3));
+        assertTrue(p.test(2));
+        assertFalse(p.test(3));
+        assertEquals(2, calls.get());
+        assertEquals(2, p.getHitCount());
+        assertEquals(2, p.getMissCount());
+        assertEquals(0.5, p.getHitRate(), 0.0);
+        assertEquals(2, p.size());
+    }
+
+    @Test
+    public void testNull() {
+        CachedPredicate<Object> p = cached(o -> {
+            calls.incrementAndGet();
+            return o == null;
+        }, 10);
+        assertTrue(p.test(null));
+        assertTrue(p.test(null));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testBounded() {
+        CachedPredicate<Integer> p = cached(this::even, 64);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i % 2 == 0, p.test(i));
+        }
+        assertTrue(p.size() <= 64);
+        assertTrue(p.getEvictionCount() > 0);
+    }
+
+    @Test
+    public void testFrequentSurviveScan() {
+        CachedPredicate<Integer> p = cached(this::even, 1000);
+        for (int round = 0; round < 20; round++) {
+            for (int hot = 0; hot < 10; hot++) {
+                p.test(hot);
+            }
+        }
+        for (int i = 100; i < 20_000; i++) {
+            p.test(i);
+        }
+        int before = calls.get();
+        for (int hot = 0; hot < 10; hot++) {
+            p.test(hot);
+        }
+        assertEquals(before, calls.get());
+    }
+
+    @Test
+    public void testTtl() throws InterruptedException {
+        CachedPredicate<Integer> p = cached(this::even, 10, Duration.ofMillis(50));
+        p.test(1);
+        p.test(1);
+        assertEquals(1, calls.get());
+        Thread.sleep(100);
+        p.test(1);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testParallel() {
+        CachedPredicate<Integer> p = cached(this::even, 500);
+        long count = IntStream.range(0, 200_000).parallel().map(i -> i % 1000).boxed().filter(p).count();
+        assertEquals(100_000, count);
+        assertEquals(200_000, p.getHitCount() + p.getMissCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSize() {
+        cached(this::even, 0);
+    }
+
+    @Test
+    public void testComposite() {
+        Predicate<Integer> p = Predicates.and(cached(this::even, 10), i -> i > 2);
+        assertTrue(p.test(4));
+        assertTrue(p.test(4));
+        assertFalse(p.test(2));
+        assertEquals(2, calls.get());
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoublePredicate;
+import java.util.stream.DoubleStream;
+
+import static org.junit.Assert.*;
+import static pa.util.function.DoublePredicates.*;
+
+/**
+ * Tests of DoublePredicates class
+ *
+ * @author Grzegorz Krupinski
+ */
+public class DoublePredicatesTest {
+
+    private final double[] values = {1, 2, 3, 10};
+
+    private final DoublePredicate equals1 = t -> t == 1;
+    private final DoublePredicate equals2 = t -> t == 2;
+    private final DoublePredicate equals3 = t -> t == 3;
+    private final DoublePredicate odd = t -> t % 2 == 1;
+    private final DoublePredicate lessThan10 = t -> t < 10;
+    private final DoublePredicate atLeast10 = t -> t >= 10;
+
+    @Test
+    public void testBetween() {
+        assertFilter(new double[]{2, 3}, between(1.5, 3));
+        assertFilter(new double[0], between(3, 2));
+        assertFilter(new double[0], between(Double.NaN, 2));
+        DoublePredicate ranges = or(between(0, 5.5), between(100, 200), between(4, 10), between(150, 300));
+        assertTrue(ranges instanceof Between);
+        assertArrayEquals(new double[]{0, 100}, ((Between) ranges).intervals.starts, 0.0);
+        assertArrayEquals(new double[]{10, 300}, ((Between) ranges).intervals.ends, 0.0);
+        assertTrue(ranges.test(0));
+        assertTrue(ranges.test(10));
+        assertFalse(ranges.test(10.5));
+        assertFalse(ranges.test(Double.NaN));
+        assertFalse(ranges.test(-0.1));
+        assertTrue(between(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY).test(Double.MAX_VALUE));
+    }
+
+    @Test
+    public void testConstants() {
+        assertTrue(pTrue().test(1));
+        assertFalse(pFalse().test(1));
+        assertSame(equals1, predicate(equals1));
+    }
+
+    @Test
+    public void testNot() {
+        assertFilter(new double[]{2, 3, 10}, not(equals1));
+        assertSame(equals1, not(not(equals1)));
+        assertSame(equals1, not(equals1).negate());
+    }
+
+    @Test
+    public void testAndAll() {
+        assertFilter(new double[]{1}, and(equals1, lessThan10));
+        assertFilter(new double[]{1}, all(equals1, lessThan10));
+        assertFilter(new double[]{1, 3}, and(odd, lessThan10, pTrue()));
+        assertFilter(new double[]{1, 3}, all(odd, lessThan10, pTrue()));
+    }
+
+    @Test
+    public void testOr() {
+        assertFilter(new double[]{1, 3}, or(equals1, equals3));
+        assertFilter(new double[]{1, 2, 3}, or(equals1, equals2, equals3));
+    }
+
+    @Test
+    public void testNandNorNone() {
+        assertFilter(new double[]{2, 3, 10}, nand(equals1, lessThan10));
+        assertFilter(new double[]{2, 3, 10}, nand(equals1, lessThan10, odd));
+        assertFilter(new double[]{10}, nor(equals1, lessThan10));
+        assertFilter(new double[]{10}, none(equals1, equals2, equals3));
+        assertFilter(new double[]{2, 3, 10}, nor(equals1));
+    }
+
+    @Test
+    public void testXorXand() {
+        assertFilter(new double[]{1, 10}, xor(equals1, atLeast10));
+        assertFilter(new double[]{2}, xor(equals1, lessThan10, odd, equals1));
+        assertFilter(new double[]{1, 2, 10}, xand(equals1, odd));
+        assertFilter(new double[]{2}, xand(odd.negate(), lessThan10, equals2));
+    }
+
+    @Test
+    public void testCond() {
+        assertFilter(new double[]{1, 2, 3, 10}, cond(equals1, lessThan10));
+        assertFilter(new double[]{1, 10}, cond(lessThan10, equals1));
+    }
+
+    @Test
+    public void testFlatten() {
+        DoublePredicate and = and(and(odd, lessThan10), pTrue());
+        assertEquals(3, ((DoublePredicates.Composite) and).operands.length);
+        DoublePredicate or = or(equals1, or(equals2, equals3));
+        assertEquals(3, ((DoublePredicates.Composite) or).operands.length);
+        DoublePredicate xor = xor(xor(equals1, equals2), equals3);
+        assertEquals(3, ((DoublePredicates.Composite) xor).operands.length);
+        assertSame(equals1, and(equals1));
+
+        DoublePredicate[] predicates = new DoublePredicate[100_000];
+        Arrays.fill(predicates, lessThan10);
+        assertFilter(new double[]{1, 2, 3}, and(predicates));
+        assertFilter(new double[]{10}, nor(predicates));
+    }
+
+    @Test
+    public void testXorXandEvaluateOnce() {
+        AtomicInteger count = new AtomicInteger();
+        DoublePredicate p1 = t -> count.incrementAndGet() > 0 && equals1.test(t);
+        DoublePredicate p2 = t -> count.incrementAndGet() > 0 && odd.test(t);
+
+        filter(xor(p1, p2));
+        filter(xand(p1, p2));
+        assertEquals(4 * values.length, count.get());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testEmpty() {
+        and();
+    }
+
+    private double[] filter(DoublePredicate p) {
+        return DoubleStream.of(values).filter(p).toArray();
+    }
+
+    private void assertFilter(double[] expected, DoublePredicate p) {
+        assertArrayEquals(expected, filter(p), 0.0);
+    }
+
+}
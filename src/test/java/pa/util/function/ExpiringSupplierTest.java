@@ -0,0 +1,254 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+import static pa.util.function.NullSafeUtils.memoize;
+
+/**
+ * Tests of expiring memoizing supplier
+ *
+ * @author Grzegorz Krupinski
+ */
+public class ExpiringSupplierTest {
+
+    private static final Duration TTL = Duration.ofMillis(1000);
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final Executor queue = tasks::add;
+
+    private volatile boolean failing;
+
+    private Integer next() {
+        int call = calls.incrementAndGet();
+        if (failing) {
+            throw new IllegalStateException();
+        }
+        return call;
+    }
+
+    private void runTasks() {
+        List<Runnable> pending = new ArrayList<>(tasks);
+        tasks.clear();
+        pending.forEach(Runnable::run);
+    }
+
+    @Test
+    public void testCached() {
+        Supplier<Integer> s = memoize(this::next, Duration.ofMinutes(1));
+        assertEquals(1, (int) s.get());
+        assertEquals(1, (int) s.get());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testRefreshAhead() throws InterruptedException {
+        Supplier<Integer> s = memoize(this::next, TTL, queue);
+        assertEquals(1, (int) s.get());
+        Thread.sleep(800);
+        assertEquals(1, (int) s.get());
+        assertEquals(1, (int) s.get());
+        assertEquals(1, tasks.size());
+        runTasks();
+        assertEquals(2, (int) s.get());
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void testExpired() throws InterruptedException {
+        Supplier<Integer> s = memoize(this::next, TTL, queue);
+        assertEquals(1, (int) s.get());
+        Thread.sleep(1100);
+        assertEquals(2, (int) s.get());
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void testFailure() throws InterruptedException {
+        Supplier<Integer> s = memoize(this::next, TTL, queue);
+        failing = true;
+        assertNull(s.get());
+        assertNull(s.get());
+        failing = false;
+        assertEquals(3, (int) s.get());
+        failing = true;
+        Thread.sleep(800);
+        assertEquals(3, (int) s.get());
+        runTasks();
+        assertEquals(3, (int) s.get());
+        Thread.sleep(300);
+        assertEquals(3, (int) s.get());
+        assertEquals(5, calls.get());
+    }
+
+    @Test
+    public void testBackoffAfterFailedRefresh() throws InterruptedException {
+        Supplier<Integer> s = memoize(this::next, Duration.ofMillis(2000), queue);
+        assertEquals(1, (int) s.get());
+        Thread.sleep(1600);
+        failing = true;
+        assertEquals(1, (int) s.get());
+        runTasks();
+        assertEquals(1, (int) s.get());
+        assertTrue(tasks.isEmpty());
+        Thread.sleep(200);
+        assertEquals(1, (int) s.get());
+        assertEquals(1, tasks.size());
+        failing = false;
+        runTasks();
+        assertEquals(3, (int) s.get());
+    }
+
+    @Test
+    public void testRejectedRefresh() throws Exception {
+        List<Integer> expired = new ArrayList<>();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicReference<Supplier<Integer>> memoized = new AtomicReference<>();
+        Executor rejecting = task -> {
+            if (rejected.incrementAndGet() == 1) {
+                try {
+                    // the value expires and its caller takes the refresh over before it is rejected
+                    Thread.sleep(300);
+                    expired.add(CompletableFuture.supplyAsync(memoized.get()).get(5, TimeUnit.SECONDS));
+                } catch (Exception ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+            throw new RejectedExecutionException();
+        };
+        Supplier<Integer> s = memoize(this::next, TTL, rejecting);
+        memoized.set(s);
+        assertEquals(1, (int) s.get());
+        Thread.sleep(800);
+        assertEquals(1, (int) s.get());
+        assertEquals(Collections.singletonList(2), expired);
+        assertEquals(2, (int) s.get());
+        Thread.sleep(850);
+        assertEquals(2, (int) s.get());
+        assertEquals(2, rejected.get());
+        Thread.sleep(300);
+        assertEquals(3, (int) s.get());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testExpiredWhileRefreshing() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Supplier<Integer> s = memoize(() -> {
+                int call = calls.incrementAndGet();
+                if (call == 2) {
+                    started.countDown();
+                    await(release);
+                }
+                return call;
+            }, TTL, executor);
+            assertEquals(1, (int) s.get());
+            Thread.sleep(800);
+            assertEquals(1, (int) s.get());
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Thread.sleep(300);
+            CompletableFuture<Integer> expired = CompletableFuture.supplyAsync(s);
+            Thread.sleep(100);
+            assertFalse(expired.isDone());
+            release.countDown();
+            assertEquals(2, (int) expired.get(5, TimeUnit.SECONDS));
+            assertEquals(2, (int) s.get());
+            assertEquals(2, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testQueuedRefreshTakenOver() throws InterruptedException {
+        Supplier<Integer> s = memoize(this::next, TTL, queue);
+        assertEquals(1, (int) s.get());
+        Thread.sleep(800);
+        assertEquals(1, (int) s.get());
+        assertEquals(1, tasks.size());
+        Thread.sleep(300);
+        assertEquals(2, (int) s.get());
+        runTasks();
+        assertEquals(2, (int) s.get());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testFailingFirstLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Integer> s = memoize(() -> {
+            calls.incrementAndGet();
+            await(release);
+            throw new IllegalStateException();
+        }, TTL, queue);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<CompletableFuture<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(CompletableFuture.supplyAsync(s, executor));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (CompletableFuture<Integer> result : results) {
+                assertNull(result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullSupplier() {
+        memoize(null, TTL, queue);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTtl() {
+        memoize(this::next, Duration.ZERO);
+    }
+}
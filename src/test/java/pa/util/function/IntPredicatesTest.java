@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+import static pa.util.function.IntPredicates.*;
+
+/**
+ * Tests of IntPredicates class
+ *
+ * @author Grzegorz Krupinski
+ */
+public class IntPredicatesTest {
+
+    private final int[] values = {1, 2, 3, 10};
+
+    private final IntPredicate equals1 = t -> t == 1;
+    private final IntPredicate equals2 = t -> t == 2;
+    private final IntPredicate equals3 = t -> t == 3;
+    private final IntPredicate odd = t -> t % 2 == 1;
+    private final IntPredicate lessThan10 = t -> t < 10;
+    private final IntPredicate atLeast10 = t -> t >= 10;
+
+    @Test
+    public void testIn() {
+        assertFilter(new int[]{1, 10}, in(10, 1, 10));
+        assertFilter(new int[0], in());
+        IntPredicate sparse = in(0, -7, Integer.MIN_VALUE, Integer.MAX_VALUE, 1_000_000);
+        assertTrue(sparse.test(0));
+        assertTrue(sparse.test(-7));
+        assertTrue(sparse.test(Integer.MIN_VALUE));
+        assertTrue(sparse.test(Integer.MAX_VALUE));
+        assertTrue(sparse.test(1_000_000));
+        assertFalse(sparse.test(7));
+        int[] random = new Random(1).ints(1000, -100_000, 100_000).toArray();
+        IntPredicate dense = in(random);
+        IntPredicate hashed = in(IntStream.of(random).map(v -> v * 1000).toArray());
+        for (int v = -100_000; v < 100_000; v++) {
+            int value = v;
+            boolean expected = IntStream.of(random).anyMatch(r -> r == value);
+            assertEquals(expected, dense.test(v));
+            assertEquals(expected, hashed.test(v * 1000));
+        }
+    }
+
+    @Test
+    public void testConstants() {
+        assertTrue(pTrue().test(1));
+        assertFalse(pFalse().test(1));
+        assertSame(equals1, predicate(equals1));
+    }
+
+    @Test
+    public void testNot() {
+        assertFilter(new int[]{2, 3, 10}, not(equals1));
+        assertSame(equals1, not(not(equals1)));
+        assertSame(equals1, not(equals1).negate());
+    }
+
+    @Test
+    public void testAndAll() {
+        assertFilter(new int[]{1}, and(equals1, lessThan10));
+        assertFilter(new int[]{1}, all(equals1, lessThan10));
+        assertFilter(new int[]{1, 3}, and(odd, lessThan10, pTrue()));
+        assertFilter(new int[]{1, 3}, all(odd, lessThan10, pTrue()));
+    }
+
+    @Test
+    public void testOr() {
+        assertFilter(new int[]{1, 3}, or(equals1, equals3));
+        assertFilter(new int[]{1, 2, 3}, or(equals1, equals2, equals3));
+    }
+
+    @Test
+    public void testNandNorNone() {
+        assertFilter(new int[]{2, 3, 10}, nand(equals1, lessThan10));
+        assertFilter(new int[]{2, 3, 10}, nand(equals1, lessThan10, odd));
+        assertFilter(new int[]{10}, nor(equals1, lessThan10));
+        assertFilter(new int[]{10}, none(equals1, equals2, equals3));
+        assertFilter(new int[]{2, 3, 10}, nor(equals1));
+    }
+
+    @Test
+    public void testXorXand() {
+        assertFilter(new int[]{1, 10}, xor(equals1, atLeast10));
+        assertFilter(new int[]{2}, xor(equals1, lessThan10, odd, equals1));
+        assertFilter(new int[]{1, 2, 10}, xand(equals1, odd));
+        assertFilter(new int[]{2}, xand(odd.negate(), lessThan10, equals2));
+    }
+
+    @Test
+    public void testCond() {
+        assertFilter(new int[]{1, 2, 3, 10}, cond(equals1, lessThan10));
+        assertFilter(new int[]{1, 10}, cond(lessThan10, equals1));
+    }
+
+    @Test
+    public void testFlatten() {
+        IntPredicate and = and(and(odd, lessThan10), pTrue());
+        assertEquals(3, ((IntPredicates.Composite) and).operands.length);
+        IntPredicate or = or(equals1, or(equals2, equals3));
+        assertEquals(3, ((IntPredicates.Composite) or).operands.length);
+        IntPredicate xor = xor(xor(equals1, equals2), equals3);
+        assertEquals(3, ((IntPredicates.Composite) xor).operands.length);
+        assertSame(equals1, and(equals1));
+
+        IntPredicate[] predicates = new IntPredicate[100_000];
+        Arrays.fill(predicates, lessThan10);
+        assertFilter(new int[]{1, 2, 3}, and(predicates));
+        assertFilter(new int[]{10}, nor(predicates));
+    }
+
+    @Test
+    public void testXorXandEvaluateOnce() {
+        AtomicInteger count = new AtomicInteger();
+        IntPredicate p1 = t -> count.incrementAndGet() > 0 && equals1.test(t);
+        IntPredicate p2 = t -> count.incrementAndGet() > 0 && odd.test(t);
+
+        filter(xor(p1, p2));
+        filter(xand(p1, p2));
+        assertEquals(4 * values.length, count.get());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testEmpty() {
+        and();
+    }
+
+    private int[] filter(IntPredicate p) {
+        return IntStream.of(values).filter(p).toArray();
+    }
+
+    private void assertFilter(int[] expected, IntPredicate p) {
+        assertArrayEquals(expected, filter(p));
+    }
+
+}
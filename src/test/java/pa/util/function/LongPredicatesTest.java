@@ -0,0 +1,182 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongPredicate;
+import java.util.stream.LongStream;
+
+import static org.junit.Assert.*;
+import static pa.util.function.LongPredicates.*;
+
+/**
+ * Tests of LongPredicates class
+ *
+ * @author Grzegorz Krupinski
+ */
+public class LongPredicatesTest {
+
+    private final long[] values = {1, 2, 3, 10};
+
+    private final LongPredicate equals1 = t -> t == 1;
+    private final LongPredicate equals2 = t -> t == 2;
+    private final LongPredicate equals3 = t -> t == 3;
+    private final LongPredicate odd = t -> t % 2 == 1;
+    private final LongPredicate lessThan10 = t -> t < 10;
+    private final LongPredicate atLeast10 = t -> t >= 10;
+
+    @Test
+    public void testIn() {
+        assertFilter(new long[]{1, 10}, in(10, 1, 10));
+        assertFilter(new long[0], in());
+        LongPredicate sparse = in(0, -7, Long.MIN_VALUE, Long.MAX_VALUE, 1_000_000);
+        assertTrue(sparse.test(0));
+        assertTrue(sparse.test(-7));
+        assertTrue(sparse.test(Long.MIN_VALUE));
+        assertTrue(sparse.test(Long.MAX_VALUE));
+        assertTrue(sparse.test(1_000_000));
+        assertFalse(sparse.test(7));
+        long[] random = new Random(1).longs(1000, -100_000, 100_000).toArray();
+        LongPredicate dense = in(random);
+        LongPredicate hashed = in(LongStream.of(random).map(v -> v * 1000).toArray());
+        for (long v = -100_000; v < 100_000; v++) {
+            long value = v;
+            boolean expected = LongStream.of(random).anyMatch(r -> r == value);
+            assertEquals(expected, dense.test(v));
+            assertEquals(expected, hashed.test(v * 1000));
+        }
+    }
+
+    @Test
+    public void testBetween() {
+        assertFilter(new long[]{2, 3}, between(2, 3));
+        assertFilter(new long[0], between(3, 2));
+        LongPredicate ranges = or(between(0, 5), between(100, 200), between(4, 10), between(11, 11), between(150, 300));
+        assertTrue(ranges instanceof Between);
+        assertArrayEquals(new long[]{0, 100}, ((Between) ranges).intervals.starts);
+        assertArrayEquals(new long[]{11, 300}, ((Between) ranges).intervals.ends);
+        assertTrue(ranges.test(0));
+        assertTrue(ranges.test(7));
+        assertTrue(ranges.test(300));
+        assertFalse(ranges.test(12));
+        assertFalse(ranges.test(-1));
+        assertFalse(ranges.test(301));
+        LongPredicate mixed = or(between(Long.MIN_VALUE, -10), equals1, between(10, Long.MAX_VALUE));
+        assertFilter(new long[]{1, 10}, mixed);
+        assertEquals(2, ((Or) mixed).operands.length);
+        assertTrue(mixed.test(Long.MIN_VALUE));
+        assertTrue(mixed.test(Long.MAX_VALUE));
+        assertFalse(mixed.test(0));
+    }
+
+    @Test
+    public void testConstants() {
+        assertTrue(pTrue().test(1));
+        assertFalse(pFalse().test(1));
+        assertSame(equals1, predicate(equals1));
+    }
+
+    @Test
+    public void testNot() {
+        assertFilter(new long[]{2, 3, 10}, not(equals1));
+        assertSame(equals1, not(not(equals1)));
+        assertSame(equals1, not(equals1).negate());
+    }
+
+    @Test
+    public void testAndAll() {
+        assertFilter(new long[]{1}, and(equals1, lessThan10));
+        assertFilter(new long[]{1}, all(equals1, lessThan10));
+        assertFilter(new long[]{1, 3}, and(odd, lessThan10, pTrue()));
+        assertFilter(new long[]{1, 3}, all(odd, lessThan10, pTrue()));
+    }
+
+    @Test
+    public void testOr() {
+        assertFilter(new long[]{1, 3}, or(equals1, equals3));
+        assertFilter(new long[]{1, 2, 3}, or(equals1, equals2, equals3));
+    }
+
+    @Test
+    public void testNandNorNone() {
+        assertFilter(new long[]{2, 3, 10}, nand(equals1, lessThan10));
+        assertFilter(new long[]{2, 3, 10}, nand(equals1, lessThan10, odd));
+        assertFilter(new long[]{10}, nor(equals1, lessThan10));
+        assertFilter(new long[]{10}, none(equals1, equals2, equals3));
+        assertFilter(new long[]{2, 3, 10}, nor(equals1));
+    }
+
+    @Test
+    public void testXorXand() {
+        assertFilter(new long[]{1, 10}, xor(equals1, atLeast10));
+        assertFilter(new long[]{2}, xor(equals1, lessThan10, odd, equals1));
+        assertFilter(new long[]{1, 2, 10}, xand(equals1, odd));
+        assertFilter(new long[]{2}, xand(odd.negate(), lessThan10, equals2));
+    }
+
+    @Test
+    public void testCond() {
+        assertFilter(new long[]{1, 2, 3, 10}, cond(equals1, lessThan10));
+        assertFilter(new long[]{1, 10}, cond(lessThan10, equals1));
+    }
+
+    @Test
+    public void testFlatten() {
+        LongPredicate and = and(and(odd, lessThan10), pTrue());
+        assertEquals(3, ((LongPredicates.Composite) and).operands.length);
+        LongPredicate or = or(equals1, or(equals2, equals3));
+        assertEquals(3, ((LongPredicates.Composite) or).operands.length);
+        LongPredicate xor = xor(xor(equals1, equals2), equals3);
+        assertEquals(3, ((LongPredicates.Composite) xor).operands.length);
+        assertSame(equals1, and(equals1));
+
+        LongPredicate[] predicates = new LongPredicate[100_000];
+        Arrays.fill(predicates, lessThan10);
+        assertFilter(new long[]{1, 2, 3}, and(predicates));
+        assertFilter(new long[]{10}, nor(predicates));
+    }
+
+    @Test
+    public void testXorXandEvaluateOnce() {
+        AtomicInteger count = new AtomicInteger();
+        LongPredicate p1 = t -> count.incrementAndGet() > 0 && equals1.test(t);
+        LongPredicate p2 = t -> count.incrementAndGet() > 0 && odd.test(t);
+
+        filter(xor(p1, p2));
+        filter(xand(p1, p2));
+        assertEquals(4 * values.length, count.get());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testEmpty() {
+        and();
+    }
+
+    private long[] filter(LongPredicate p) {
+        return LongStream.of(values).filter(p).toArray();
+    }
+
+    private void assertFilter(long[] expected, LongPredicate p) {
+        assertArrayEquals(expected, filter(p));
+    }
+
+}
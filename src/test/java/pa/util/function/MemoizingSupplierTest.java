@@ -0,0 +1,152 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+import static pa.util.function.NullSafeUtils.memoize;
+
+/**
+ * Tests of memoizing supplier
+ *
+ * @author Grzegorz Krupinski
+ */
+public class MemoizingSupplierTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private String value() {
+        calls.incrementAndGet();
+        return "test";
+    }
+
+    private String nothing() {
+        calls.incrementAndGet();
+        return null;
+    }
+
+    private String fails() {
+        calls.incrementAndGet();
+        throw new IllegalStateException();
+    }
+
+    @Test
+    public void testValue() {
+        Supplier<String> s = memoize(this::value);
+        assertEquals("test", s.get());
+        assertEquals("test", s.get());
+        assertEquals(1, calls.get());
+        assertSame(s, memoize(s));
+        assertSame(s, memoize(s, MemoizePolicy.RETRY_ON_FAILURE));
+    }
+
+    @Test
+    public void testOtherPolicy() {
+        Supplier<String> retrying = memoize(this::fails);
+        Supplier<String> cached = memoize(retrying, MemoizePolicy.CACHE_ALL);
+        assertNotSame(retrying, cached);
+        assertNull(cached.get());
+        assertNull(cached.get());
+        assertEquals(1, calls.get());
+        assertNull(retrying.get());
+        assertEquals(2, calls.get());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullSupplier() {
+        memoize(null, MemoizePolicy.CACHE_ALL);
+    }
+
+    @Test
+    public void testCacheAll() {
+        Supplier<String> n = memoize(this::nothing, MemoizePolicy.CACHE_ALL);
+        Supplier<String> f = memoize(this::fails, MemoizePolicy.CACHE_ALL);
+        assertNull(n.get());
+        assertNull(n.get());
+        assertNull(f.get());
+        assertNull(f.get());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testRetryOnFailure() {
+        Supplier<String> n = memoize(this::nothing);
+        Supplier<String> f = memoize(this::fails);
+        assertNull(n.get());
+        assertNull(n.get());
+        assertEquals(1, calls.get());
+        assertNull(f.get());
+        assertNull(f.get());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testRetryOnNull() {
+        Supplier<String> n = memoize(this::nothing, MemoizePolicy.RETRY_ON_NULL);
+        Supplier<String> f = memoize(this::fails, MemoizePolicy.RETRY_ON_NULL);
+        Supplier<String> v = memoize(this::value, MemoizePolicy.RETRY_ON_NULL);
+        assertNull(n.get());
+        assertNull(n.get());
+        assertNull(f.get());
+        assertNull(f.get());
+        assertEquals("test", v.get());
+        assertEquals("test", v.get());
+        assertEquals(5, calls.get());
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        Supplier<String> s = memoize(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return value();
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return s.get();
+                }));
+            }
+            start.countDown();
+            for (Future<String> result : results) {
+                assertEquals("test", result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import org.junit.Test;
+
+import java.util.AbstractMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static pa.util.function.NullSafeUtils.compile;
+
+/**
+ * Tests of NullSafePath class
+ *
+ * @author Grzegorz Krupinski
+ */
+public class NullSafePathTest {
+
+    public static final String ZIP = "00-950";
+    public static final String DEFAULT = "default";
+
+    public static class Order {
+        private final Customer customer;
+
+        Order(Customer customer) {
+            this.customer = customer;
+        }
+
+        public Customer getCustomer() {
+            return customer;
+        }
+    }
+
+    static class Customer {
+        Address address;
+        private final boolean active;
+
+        Customer(Address address, boolean active) {
+            this.address = address;
+            this.active = active;
+        }
+
+        boolean isActive() {
+            return active;
+        }
+
+        String fail() {
+            throw new IllegalStateException();
+        }
+    }
+
+    private static class Address {
+        private final String zip;
+
+        Address(String zip) {
+            this.zip = zip;
+        }
+
+        String zip() {
+            return zip;
+        }
+    }
+
+    private final Order order = new Order(new Customer(new Address(ZIP), true));
+
+    @Test
+    public void testGet() {
+        NullSafePath<Order, String> zip = compile(Order.class, "customer.address.zip");
+        assertEquals(ZIP, zip.get(order));
+        assertEquals(ZIP, zip.apply(order));
+        assertEquals(ZIP, zip.get(order, DEFAULT));
+        assertEquals(6, (int) NullSafeUtils.<Order, Integer>compile(Order.class, "customer.address.zip.length")
+                .get(order));
+    }
+
+    @Test
+    public void testGetNull() {
+        NullSafePath<Order, String> zip = compile(Order.class, "customer.address.zip");
+        assertNull(zip.get(null));
+        assertNull(zip.get(new Order(null)));
+        assertNull(zip.get(new Order(new Customer(null, false))));
+        assertNull(zip.get(new Order(new Customer(new Address(null), false))));
+        assertEquals(DEFAULT, zip.get(new Order(null), DEFAULT));
+    }
+
+    @Test
+    public void testGetPrimitive() {
+        NullSafePath<Order, Boolean> active = compile(Order.class, "customer.active");
+        assertTrue(active.get(order));
+        assertNull(active.get(new Order(null)));
+    }
+
+    @Test
+    public void testGetException() {
+        assertNull(compile(Order.class, "customer.fail").get(order));
+    }
+
+    @Test
+    public void testCache() {
+        assertSame(compile(Order.class, "customer.address"), compile(Order.class, "customer.address"));
+        assertNotSame(compile(Order.class, "customer.address"), compile(Customer.class, "address"));
+        assertEquals("customer.address", compile(Order.class, "customer.address").getPath());
+        assertEquals(Order.class, compile(Order.class, "customer.address").getRootClass());
+    }
+
+    @Test
+    public void testNotCachedForParentLoader() {
+        // Map.Entry is loaded by the bootstrap loader, a cached path would keep this library loaded
+        NullSafePath<Map.Entry, Object> key = compile(Map.Entry.class, "key");
+        assertNotSame(key, compile(Map.Entry.class, "key"));
+        assertEquals("a", key.get(new AbstractMap.SimpleEntry<>("a", 1)));
+        assertNull(key.get(null));
+    }
+
+    @Test
+    public void testGeneratedAccessor() {
+        NullSafePath<Order, String> zip = compile(Order.class, "customer.address.zip");
+        for (int i = 0; i < 20_000; i++) {
+            assertEquals(ZIP, zip.get(order));
+        }
+        assertNull(zip.get(new Order(new Customer(null, false))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownProperty() {
+        compile(Order.class, "customer.phone");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPrimitiveIntermediate() {
+        compile(Order.class, "customer.active.value");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyProperty() {
+        compile(Order.class, "customer..address");
+    }
+}
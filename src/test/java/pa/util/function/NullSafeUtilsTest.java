@@ -18,7 +18,16 @@ package pa.util.function;
 
 import org.junit.Test;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.junit.Assert.*;
 import static pa.util.function.NullSafeUtils.*;
@@ -35,6 +44,24 @@ public class NullSafeUtilsTest {
 
     private List<String> fakeList;
 
+    private static class Node {
+        private final Node next;
+        private final String value;
+
+        Node(Node next, String value) {
+            this.next = next;
+            this.value = value;
+        }
+
+        Node getNext() {
+            return next;
+        }
+
+        String getValue() {
+            return value;
+        }
+    }
+
     private String getTestStringNull() {
         return null;
     }
@@ -68,6 +95,69 @@ public class NullSafeUtilsTest {
         assertEquals(TEST, get(() -> getTestString(), DEFAULT));
     }
 
+    @Test
+    public void testPath() {
+        Node leaf = new Node(null, TEST);
+        Node root = new Node(new Node(leaf, null), null);
+
+        assertEquals(TEST, path(leaf, Node::getValue));
+        assertEquals(TEST, path(root, Node::getNext, Node::getNext, Node::getValue));
+        assertEquals(4, (int) path(root, Node::getNext, Node::getNext, Node::getValue, String::length));
+        assertNull(path(root, Node::getNext, Node::getValue));
+        assertNull(path(root, Node::getNext, Node::getNext, Node::getNext, Node::getValue));
+        assertNull(path(root, Node::getNext, Node::getNext, Node::getNext, Node::getNext, Node::getValue));
+        assertNull(path(null, Node::getValue));
+        assertNull(path(root, n -> fakeList.get(0)));
+    }
+
+    @Test
+    public void testApply() {
+        Function<Node, String> value = n -> n.getNext().getValue();
+        Node root = new Node(new Node(null, TEST), null);
+
+        assertEquals(TEST, apply(root, value));
+        assertNull(apply(new Node(null, null), value));
+        assertNull(apply((Node) null, value));
+        assertEquals(TEST, apply(root, value, DEFAULT));
+        assertEquals(DEFAULT, apply(new Node(null, null), value, DEFAULT));
+        assertEquals(DEFAULT, apply(new Node(new Node(null, null), null), value, DEFAULT));
+    }
+
+    @Test
+    public void testGetNullDefault() {
+        // a null default value has to resolve to get(Supplier, S) without a cast
+        Node root = new Node(null, TEST);
+        assertEquals(TEST, get(() -> root.getValue(), null));
+        assertNull(get(() -> root.getNext().getValue(), null));
+    }
+
+    @Test(timeout = 5_000)
+    public void testGetAsync() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        try {
+            Duration timeout = Duration.ofMillis(100);
+            assertEquals(TEST, getAsync(this::getTestString, DEFAULT, timeout, executor).get());
+            assertEquals(DEFAULT, getAsync(this::getTestStringNull, DEFAULT, timeout, executor).get());
+            assertEquals(DEFAULT, getAsync(this::getTestStringThrow, DEFAULT, timeout, executor).get());
+            assertEquals(DEFAULT, getAsync(() -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException ex) {
+                    interrupted.countDown();
+                }
+                return TEST;
+            }, DEFAULT, timeout, executor).get());
+            assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+            assertEquals(TEST, getAsync(this::getTestString, DEFAULT, timeout).get());
+            assertEquals(DEFAULT, getAsync(this::getTestString, DEFAULT, timeout, r -> {
+                throw new RejectedExecutionException();
+            }).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void testGetIf() {
         assertNull(getIf(this::getTestString, (s) -> s.equals("x")));
@@ -109,6 +199,31 @@ public class NullSafeUtilsTest {
         assertFalse(isFalse(() -> DEFAULT.equals(getTestStringThrow())));
     }
 
+    @Test
+    public void testGetPrimitive() {
+        assertEquals(4, getInt(() -> getTestString().length(), -1));
+        assertEquals(-1, getInt(() -> getTestStringNull().length(), -1));
+        assertEquals(-1, getInt(null, -1));
+        assertEquals(4L, getLong(() -> getTestString().length(), -1L));
+        assertEquals(-1L, getLong(() -> fakeList.size(), -1L));
+        assertEquals(4.0, getDouble(() -> getTestString().length(), -1.0), 0.0);
+        assertEquals(-1.0, getDouble(() -> getTestStringThrow().length(), -1.0), 0.0);
+    }
+
+    @Test
+    public void testIsTrueIsFalsePrimitive() {
+        BooleanSupplier isTest = () -> TEST.equals(getTestString());
+        BooleanSupplier isDefault = () -> DEFAULT.equals(getTestString());
+        BooleanSupplier fails = () -> fakeList.isEmpty();
+
+        assertTrue(isTrue(isTest));
+        assertFalse(isTrue(isDefault));
+        assertFalse(isTrue(fails));
+        assertTrue(isFalse(isDefault));
+        assertFalse(isFalse(isTest));
+        assertFalse(isFalse(fails));
+    }
+
     @Test
     public void testAllNull() {
         assertTrue(allNull(null, null));
@@ -127,6 +242,30 @@ public class NullSafeUtilsTest {
         assertFalse(allNotNull("a", null));
     }
 
+    @Test
+    public void testFixedArity() {
+        Supplier<Object> value = this::getTestString;
+        Supplier<Object> nothing = this::getTestStringNull;
+        Supplier<Object> fails = this::getTestStringThrow;
+
+        assertTrue(allNull(null, null, null, null, null, null));
+        assertFalse(allNull(null, null, null, null, null, "a"));
+        assertTrue(allNull(nothing, fails, nothing, fails, nothing));
+        assertFalse(allNull(nothing, fails, value, fails));
+        assertTrue(allNotNull("a", "b", "c", "d", "e", "f"));
+        assertFalse(allNotNull("a", "b", null));
+        assertTrue(allNotNull(value, value, value, value, value, value));
+        assertFalse(allNotNull(value, value, value, fails));
+        assertTrue(anyNull("a", "b", "c", "d", null));
+        assertFalse(anyNull("a", "b", "c", "d"));
+        assertTrue(anyNull(value, value, nothing));
+        assertFalse(anyNull(value, value, value, value, value, value));
+        assertTrue(anyNotNull(null, null, null, null, null, "f"));
+        assertFalse(anyNotNull(null, null, null));
+        assertTrue(anyNotNull(fails, nothing, value, nothing, nothing));
+        assertFalse(anyNotNull(fails, nothing, fails, nothing, fails, nothing));
+    }
+
     @Test
     public void testAnyNotNull() {
         assertTrue(anyNotNull("a", null, null));
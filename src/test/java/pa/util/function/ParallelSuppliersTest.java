@@ -0,0 +1,125 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+import static pa.util.function.NullSafeUtils.*;
+
+/**
+ * Tests of parallel NullSafeUtils methods
+ *
+ * @author Grzegorz Krupinski
+ */
+public class ParallelSuppliersTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final CountDownLatch interrupted = new CountDownLatch(1);
+
+    private final Supplier<Object> value = () -> "test";
+    private final Supplier<Object> nothing = () -> null;
+    private final Supplier<Object> fails = () -> {
+        throw new IllegalStateException();
+    };
+    private final Supplier<Object> slow = () -> {
+        try {
+            Thread.sleep(10_000);
+        } catch (InterruptedException ex) {
+            interrupted.countDown();
+        }
+        return "slow";
+    };
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testResults() {
+        assertTrue(allNotNullParallel(executor, value, value, value));
+        assertFalse(allNotNullParallel(executor, value, fails, value));
+        assertTrue(allNullParallel(executor, nothing, fails));
+        assertFalse(allNullParallel(executor, nothing, value));
+        assertTrue(anyNullParallel(executor, value, nothing));
+        assertFalse(anyNullParallel(executor, value, value));
+        assertTrue(anyNotNullParallel(executor, fails, value));
+        assertFalse(anyNotNullParallel(executor, fails, nothing));
+        assertTrue(allNotNullParallel(executor));
+        assertFalse(anyNotNullParallel(executor));
+    }
+
+    @Test
+    public void testDefaultExecutor() {
+        assertTrue(allNotNullParallel(value, value));
+        assertTrue(anyNullParallel(value, fails));
+    }
+
+    @Test(timeout = 5_000)
+    public void testCancelled() throws InterruptedException {
+        assertFalse(allNotNullParallel(executor, slow, value, nothing));
+        assertTrue(anyNotNullParallel(executor, slow, nothing, value));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test(timeout = 5_000)
+    public void testInterrupted() {
+        Thread.currentThread().interrupt();
+        try {
+            anyNullParallel(executor, slow, value);
+            fail();
+        } catch (CancellationException ex) {
+            assertTrue(ex.getCause() instanceof InterruptedException);
+        }
+        assertTrue(Thread.interrupted());
+    }
+
+    @Test
+    public void testCheckedException() {
+        Supplier<Object> checked = () -> sneakyThrow(new IOException());
+        try {
+            allNotNullParallel(executor, checked, value);
+            fail();
+        } catch (CompletionException ex) {
+            assertTrue(ex.getCause() instanceof IOException);
+        }
+    }
+
+    @Test(expected = AssertionError.class)
+    public void testError() {
+        allNotNullParallel(executor, () -> {
+            throw new AssertionError();
+        }, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> Object sneakyThrow(Throwable ex) throws E {
+        throw (E) ex;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package pa.util.function;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static pa.util.function.Predicates.*;
+
+/**
+ * Tests of PredicateClassDefiner of the multi-release jar - on Java 15+ compiled predicates are hidden classes
+ *
+ * @author Grzegorz Krupinski
+ */
+public class PredicateClassDefinerIT {
+
+    private final List<String> values = Arrays.asList("A", "B", "AB", "BA", "C", "");
+
+    private final Predicate<String> startsWithA = s -> s.startsWith("A");
+    private final Predicate<String> lengthOne = s -> s.length() == 1;
+    private final Predicate<String> empty = String::isEmpty;
+
+    @Test
+    public void testVersionedClass() {
+        String resource = PredicateClassDefiner.class.getResource("PredicateClassDefiner.class").toString();
+        assertTrue(resource, resource.contains("META-INF/versions/15/"));
+    }
+
+    @Test
+    public void testHiddenClass() throws ReflectiveOperationException {
+        Predicate<String> p = or(and(startsWithA, lengthOne), xor(empty, not(lengthOne)));
+        Predicate<String> compiled = compile(p);
+        assertNotSame(p, compiled);
+        assertTrue((Boolean) Class.class.getMethod("isHidden").invoke(compiled.getClass()));
+        assertNull(compiled.getClass().getCanonicalName());
+        assertEquals(filter(p), filter(compiled));
+    }
+
+    private List<String> filter(Predicate<String> p) {
+        return values.stream().filter(p).collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.*;
+import static pa.util.function.Predicates.*;
+import static pa.util.function.TestEvent.*;
+
+/**
+ * Tests of PredicateCodec class
+ *
+ * @author Grzegorz Krupinski
+ */
+public class PredicateCodecTest {
+
+    private final Random random = new Random(11);
+
+    private final PredicateCodec<TestEvent> codec = new PredicateCodec<>(attributes());
+
+    @Test
+    public void testDecodeEmptyRange() {
+        ByteBuffer bytes = ByteBuffer.allocate(32);
+        bytes.put((byte) 'P').put((byte) 'T').put((byte) PredicateCodec.VERSION);
+        bytes.put((byte) 1).put((byte) 5).put("score".getBytes(StandardCharsets.UTF_8));
+        bytes.put((byte) 10).put((byte) 0).put((byte) 1).putDouble(Double.NaN).putDouble(Double.NaN);
+        assertSame(pFalse(), codec.decode(Arrays.copyOf(bytes.array(), bytes.position())));
+    }
+
+    private Predicate<TestEvent> rule(int depth) {
+        int kind = random.nextInt(depth > 0 ? 12 : 6);
+        switch (kind) {
+            case 0:
+                return eq(STATUS, STATUSES[random.nextInt(STATUSES.length)]);
+            case 1:
+                return in(PRIORITY, Arrays.asList(random.nextInt(3), null));
+            case 2:
+                long from = random.nextInt(100) - 50;
+                return or(betweenLong(AMOUNT, from, from + 10), betweenLong(AMOUNT, -from, -from + 3));
+            case 3:
+                return betweenDouble(SCORE, 0.25, random.nextDouble());
+            case 4:
+                return FLAGGED;
+            case 5:
+                return random.nextBoolean() ? pTrue() : pFalse();
+            case 6:
+                return not(rule(depth - 1));
+            case 7:
+                return and(rule(depth - 1), rule(depth - 1), rule(depth - 1));
+            case 8:
+                return or(rule(depth - 1), rule(depth - 1));
+            case 9:
+                return xor(rule(depth - 1), rule(depth - 1));
+            case 10:
+                return nand(rule(depth - 1), rule(depth - 1));
+            default:
+                return cond(rule(depth - 1), rule(depth - 1));
+        }
+    }
+
+    @Test
+    public void testRoundTrip() {
+        PredicateCodec<TestEvent> remote = new PredicateCodec<>(attributes());
+        for (int i = 0; i < 500; i++) {
+            Predicate<TestEvent> rule = rule(4);
+            byte[] bytes = codec.encode(rule);
+            Predicate<TestEvent> local = codec.decode(bytes);
+            assertEquals(rule, local);
+            Predicate<TestEvent> decoded = remote.decode(bytes);
+            for (int j = 0; j < 20; j++) {
+                TestEvent e = TestEvent.random(random);
+                assertEquals(rule.test(e), decoded.test(e));
+            }
+        }
+    }
+
+    @Test
+    public void testValues() {
+        Attributes<Object> attributes = new Attributes<>().add("identity", Function.identity());
+        PredicateCodec<Object> codec = new PredicateCodec<>(attributes);
+        for (Object value : new Object[]{null, "", "zażółć", 0, -1, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE,
+                -0.0, Double.NaN, true, false}) {
+            Predicate<Object> eq = attributes.eq("identity", value);
+            assertEquals(eq, codec.decode(codec.encode(eq)));
+        }
+        Predicate<Object> in = attributes.in("identity", Arrays.asList(1, 1L, "1", 1.0));
+        assertEquals(in, codec.decode(codec.encode(in)));
+    }
+
+    @Test
+    public void testRanges() {
+        Attributes<TestEvent> attributes = attributes();
+        Predicate<TestEvent> longs = or(attributes.in("amount", Arrays.asList(Long.MIN_VALUE, 0, Long.MAX_VALUE)),
+                attributes.between("amount", Long.MIN_VALUE, Long.MAX_VALUE - 1));
+        assertEquals(longs, codec.decode(codec.encode(longs)));
+        Predicate<TestEvent> doubles = or(attributes.between("score", Double.NEGATIVE_INFINITY, -1),
+                attributes.eq("score", 0.5));
+        assertEquals(doubles, codec.decode(codec.encode(doubles)));
+    }
+
+    @Test
+    public void testCompact() {
+        Predicate<TestEvent> rule = or(and(eq(STATUS, "NEW"), FLAGGED), and(eq(STATUS, "PAID"), not(FLAGGED)),
+                betweenLong(AMOUNT, 10, 20));
+        byte[] bytes = codec.encode(rule);
+        // header 3, string table 32 (5 strings), tree 24
+        assertEquals(59, bytes.length);
+    }
+
+    @Test
+    public void testBuffer() {
+        Predicate<TestEvent> first = and(eq(STATUS, "NEW"), FLAGGED);
+        Predicate<TestEvent> second = betweenLong(AMOUNT, 1, 2);
+        byte[] a = codec.encode(first);
+        byte[] b = codec.encode(second);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(a.length + b.length + 1);
+        buffer.put(a).put(b).put((byte) 7).flip();
+        assertEquals(first, codec.decode(buffer));
+        assertEquals(second, codec.decode(buffer));
+        assertEquals(1, buffer.remaining());
+    }
+
+    @Test
+    public void testEncodeErrors() {
+        assertInvalid(() -> codec.encode(e -> true));
+        assertInvalid(() -> codec.encode(and(FLAGGED, eq(e -> e.status, "NEW"))));
+        assertInvalid(() -> codec.encode(eq(STATUS, new Object())));
+        assertInvalid(() -> codec.encode(instrumented("flagged", FLAGGED)));
+        Predicate<TestEvent> deep = FLAGGED;
+        for (int i = 0; i < 2000; i++) {
+            deep = new NotPredicate<>(deep);
+        }
+        Predicate<TestEvent> tooDeep = deep;
+        assertInvalid(() -> codec.encode(tooDeep));
+    }
+
+    @Test
+    public void testDecodeErrors() {
+        byte[] valid = codec.encode(and(eq(STATUS, "NEW"), betweenLong(AMOUNT, 1, 2)));
+        for (int length = 0; length < valid.length; length++) {
+            byte[] truncated = Arrays.copyOf(valid, length);
+            assertInvalid(() -> codec.decode(truncated));
+        }
+        byte[] trailing = Arrays.copyOf(valid, valid.length + 1);
+        assertInvalid(() -> codec.decode(trailing));
+        byte[] version = valid.clone();
+        version[2] = 2;
+        assertInvalid(() -> codec.decode(version));
+        byte[] magic = valid.clone();
+        magic[0] = 'X';
+        assertInvalid(() -> codec.decode(magic));
+        assertInvalid(() -> new PredicateCodec<>(new Attributes<TestEvent>()).decode(valid));
+        Attributes<TestEvent> swapped = new Attributes<TestEvent>().addLong("status", AMOUNT).add("amount", STATUS);
+        assertInvalid(() -> new PredicateCodec<>(swapped).decode(valid));
+        for (int i = 0; i < 1000; i++) {
+            byte[] corrupted = valid.clone();
+            corrupted[3 + random.nextInt(corrupted.length - 3)] = (byte) random.nextInt();
+            try {
+                codec.decode(corrupted);
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testErrorMessageLocale() {
+        byte[] bytes = codec.encode(FLAGGED);
+        PredicateCodec<TestEvent> swapped = new PredicateCodec<>(new Attributes<TestEvent>().add("flagged", STATUS));
+        Locale locale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            swapped.decode(bytes);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().endsWith("Attribute flagged is not predicate"));
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+
+    private static void assertInvalid(Runnable runnable) {
+        try {
+            runnable.run();
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+}
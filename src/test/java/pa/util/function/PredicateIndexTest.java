@@ -0,0 +1,175 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.*;
+import static pa.util.function.Predicates.*;
+import static pa.util.function.TestEvent.*;
+
+/**
+ * Tests of PredicateIndex class
+ *
+ * @author Grzegorz Krupinski
+ */
+public class PredicateIndexTest {
+
+    private final Random random = new Random(7);
+
+    @Test
+    public void testMatch() {
+        PredicateIndex<TestEvent, String> index = new PredicateIndex<>();
+        index.add("new", eq(STATUS, "NEW"));
+        index.add("big", betweenLong(AMOUNT, 1000, Long.MAX_VALUE));
+        index.add("newOrPaidBig", and(in(STATUS, Arrays.asList("NEW", "PAID")), betweenLong(AMOUNT, 1000, 5000)));
+        index.add("flaggedLowScore", and(e -> e.flagged, betweenDouble(SCORE, -1.0, 0.5)));
+        index.add("notNew", not(eq(STATUS, "NEW")));
+        index.add("always", pTrue());
+        index.add("never", pFalse());
+
+        assertMatch(index, new TestEvent("NEW", 2000, 0.0, true),
+                "new", "big", "newOrPaidBig", "flaggedLowScore", "always");
+        assertMatch(index, new TestEvent("PAID", 10, -0.0, false), "notNew", "always");
+        assertMatch(index, new TestEvent(null, 6000, Double.NaN, true), "big", "notNew", "always");
+        assertEquals(7, index.size());
+    }
+
+    @Test
+    public void testAddRemove() {
+        PredicateIndex<TestEvent, Integer> index = new PredicateIndex<>();
+        TestEvent event = new TestEvent("NEW", 10, 1.0, false);
+        index.add(1, eq(STATUS, "NEW"));
+        index.add(2, eq(STATUS, "NEW"));
+        assertMatch(index, event, 1, 2);
+        index.add(1, eq(STATUS, "PAID"));
+        assertMatch(index, event, 2);
+        assertTrue(index.remove(2));
+        assertFalse(index.remove(2));
+        assertMatch(index, event);
+        assertNull(index.get(2));
+        assertNotNull(index.get(1));
+        index.add(3, betweenLong(AMOUNT, 0, 100));
+        assertMatch(index, event, 3);
+        index.remove(3);
+        assertMatch(index, event);
+    }
+
+    @Test
+    public void testRandomRules() {
+        PredicateIndex<TestEvent, Integer> index = new PredicateIndex<>();
+        Map<Integer, Predicate<TestEvent>> rules = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            Predicate<TestEvent> rule = randomRule(3);
+            rules.put(i, rule);
+            index.add(i, rule);
+        }
+        for (int i = 0; i < 2000; i += 3) {
+            rules.remove(i);
+            index.remove(i);
+        }
+        for (int i = 0; i < 300; i++) {
+            TestEvent event = TestEvent.random(random);
+            List<Integer> expected = new ArrayList<>();
+            rules.forEach((id, rule) -> {
+                if (rule.test(event)) {
+                    expected.add(id);
+                }
+            });
+            List<Integer> actual = index.match(event);
+            Collections.sort(expected);
+            Collections.sort(actual);
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testSortable() {
+        double[] values = {Double.NEGATIVE_INFINITY, -1e300, -2.0, -1.0, -Double.MIN_VALUE, 0.0, Double.MIN_VALUE,
+                1.0, 2.0, 1e300, Double.POSITIVE_INFINITY};
+        for (int i = 1; i < values.length; i++) {
+            assertTrue(PredicateIndex.sortable(values[i - 1]) < PredicateIndex.sortable(values[i]));
+        }
+        assertEquals(PredicateIndex.sortable(0.0), PredicateIndex.sortable(-0.0));
+    }
+
+    @Test
+    public void testEmptyRange() {
+        Predicate<TestEvent> empty = new DoubleRangePredicate<>(SCORE,
+                new DoubleIntervalSet(new double[0], new double[0], 0));
+        PredicateIndex<TestEvent, String> index = new PredicateIndex<>();
+        index.add("empty", empty);
+        index.add("emptyAnd", and(e -> e.flagged, empty));
+        index.add("emptyOr", or(eq(STATUS, "NEW"), empty));
+        assertMatch(index, new TestEvent("NEW", 10, 1.0, true), "emptyOr");
+        assertMatch(index, new TestEvent("PAID", 10, Double.NaN, true));
+        assertEquals(0, PredicateIndex.cost(empty), 0);
+    }
+
+    @Test
+    public void testDoubleRangeCost() {
+        DoubleIntervalSet points = DoubleIntervalSet.union(Arrays.asList(
+                DoubleIntervalSet.of(-1e300, -1e300), DoubleIntervalSet.of(1e300, 1e300)));
+        assertTrue(PredicateIndex.cost(new DoubleRangePredicate<>(SCORE, points))
+                < PredicateIndex.cost(betweenDouble(SCORE, -1.0, 1.0)));
+    }
+
+    private Predicate<TestEvent> randomRule(int depth) {
+        int kind = random.nextInt(depth == 0 ? 5 : 9);
+        switch (kind) {
+            case 0:
+                return eq(STATUS, STATUSES[random.nextInt(STATUSES.length)]);
+            case 1:
+                return in(STATUS, Arrays.asList(STATUSES[random.nextInt(4)], STATUSES[random.nextInt(4)]));
+            case 2:
+                long from = random.nextInt(100) - 50;
+                return betweenLong(AMOUNT, from, from + random.nextInt(30));
+            case 3:
+                double start = random.nextDouble() * 2 - 1;
+                return betweenDouble(SCORE, start, start + random.nextDouble());
+            case 4:
+                return e -> e.flagged;
+            case 5:
+            case 6:
+                return and(randomRule(depth - 1), randomRule(depth - 1), randomRule(depth - 1));
+            case 7:
+                return or(randomRule(depth - 1), randomRule(depth - 1));
+            default:
+                return not(randomRule(depth - 1));
+        }
+    }
+
+    @SafeVarargs
+    private static <K extends Comparable<K>> void assertMatch(PredicateIndex<TestEvent, K> index, TestEvent event,
+                                                              K... expected) {
+        List<K> actual = index.match(event);
+        Collections.sort(actual);
+        List<K> sorted = new ArrayList<>(Arrays.asList(expected));
+        Collections.sort(sorted);
+        assertEquals(sorted, actual);
+    }
+}
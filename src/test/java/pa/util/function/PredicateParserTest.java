@@ -0,0 +1,151 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.*;
+import static pa.util.function.Predicates.*;
+import static pa.util.function.TestEvent.*;
+
+/**
+ * Tests of PredicateParser class
+ *
+ * @author Grzegorz Krupinski
+ */
+public class PredicateParserTest {
+
+    private final Random random = new Random(5);
+
+    private final PredicateParser<TestEvent> parser = new PredicateParser<>(attributes());
+
+    private void assertEquivalent(Predicate<TestEvent> expected, String rule) {
+        Predicate<TestEvent> parsed = parser.parse(rule);
+        for (int i = 0; i < 1000; i++) {
+            TestEvent e = TestEvent.random(random);
+            assertEquals(rule, expected.test(e), parsed.test(e));
+        }
+    }
+
+    @Test
+    public void testPrecedence() {
+        assertEquivalent(xor(and(in(STATUS, Arrays.asList("NEW", "PAID")), not(betweenLong(AMOUNT, 10, 20))), FLAGGED),
+                "status in (NEW,PAID) and not (amount between 10 and 20) xor flagged");
+        assertEquivalent(or(and(FLAGGED, eq(STATUS, "NEW")), xor(eq(STATUS, "PAID"), not(FLAGGED))),
+                "flagged AND status = NEW OR status = 'PAID' XOR NOT flagged");
+        assertEquivalent(and(or(FLAGGED, eq(STATUS, "NEW")), not(not(FLAGGED))),
+                "(flagged or status = \"NEW\") and not not flagged");
+        assertEquivalent(not(xor(FLAGGED, eq(STATUS, null))), "not (flagged xor status = null)");
+    }
+
+    @Test
+    public void testConditions() {
+        assertEquivalent(eq(STATUS, "it's"), "status = 'it''s'");
+        assertEquivalent(not(eq(STATUS, "NEW")), "status != NEW");
+        assertEquivalent(not(in(STATUS, Arrays.asList("NEW", null))), "status not in (NEW, null)");
+        assertEquivalent(betweenLong(AMOUNT, Long.MIN_VALUE, 9), "amount < 10");
+        assertEquivalent(betweenLong(AMOUNT, Long.MIN_VALUE, 10), "amount <= 10");
+        assertEquivalent(betweenLong(AMOUNT, 11, Long.MAX_VALUE), "amount > 10");
+        assertEquivalent(betweenLong(AMOUNT, 11, Long.MAX_VALUE), "amount > 10.5");
+        assertEquivalent(betweenLong(AMOUNT, Long.MIN_VALUE, 10), "amount < 10.5");
+        assertEquivalent(betweenLong(AMOUNT, 10, Long.MAX_VALUE), "amount >= 1e1");
+        assertEquivalent(betweenDouble(SCORE, Double.NEGATIVE_INFINITY, 0.49), "score < 0.5");
+        assertEquivalent(betweenDouble(SCORE, 0.5, Double.POSITIVE_INFINITY), "score >= 0.5");
+        assertEquivalent(betweenDouble(SCORE, 0.3, 0.7), "score between 0.3 and .7");
+        assertEquivalent(or(betweenLong(AMOUNT, 3, 3), betweenLong(AMOUNT, -5, 1)), "amount in (3, -5, -4, -3, -2, -1, 0, 1)");
+        assertEquivalent(pTrue(), "true or flagged");
+        assertEquivalent(pFalse(), "FALSE");
+    }
+
+    @Test
+    public void testFractionalLongValues() {
+        assertEquivalent(betweenLong(AMOUNT, 11, 20), "amount between 10.5 and 20.9");
+        assertEquivalent(betweenLong(AMOUNT, 10, 10), "amount = 10.0");
+        assertEquivalent(in(STATUS, Arrays.asList("NEW")), "status = NEW or amount between 10.2 and 10.8");
+        for (String rule : new String[]{"amount = 10.5", "amount in (10, 10.9)", "amount != 1e-3",
+                "amount not in (0.5)"}) {
+            try {
+                parser.parse(rule);
+                fail(rule);
+            } catch (IllegalArgumentException expected) {
+                assertTrue(expected.getMessage(), expected.getMessage().contains("requires an integral number")
+                        && expected.getMessage().contains(" at 0: "));
+            }
+        }
+    }
+
+    @Test
+    public void testOutOfRangeLongBounds() {
+        Predicate<TestEvent> all = betweenLong(AMOUNT, Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(pFalse(), parser.parse("amount > 1e30"));
+        assertEquals(pFalse(), parser.parse("amount >= 9.3e18"));
+        assertEquals(pFalse(), parser.parse("amount < -1e30"));
+        assertEquals(pFalse(), parser.parse("amount > 99999999999999999999"));
+        assertEquals(all, parser.parse("amount < 1e30"));
+        assertEquals(all, parser.parse("amount > -1e30"));
+        assertEquals(all, parser.parse("amount <= 99999999999999999999"));
+        assertEquals(betweenLong(AMOUNT, Long.MIN_VALUE, Long.MAX_VALUE - 1),
+                parser.parse("amount < 9223372036854775807"));
+        assertEquivalent(betweenDouble(SCORE, 1e20, Double.POSITIVE_INFINITY), "score >= 100000000000000000000");
+        try {
+            parser.parse("amount = 99999999999999999999");
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("requires an integral number"));
+        }
+    }
+
+    @Test
+    public void testSimplified() {
+        assertEquals(and(FLAGGED, eq(STATUS, "NEW")),
+                parser.parse("flagged and ((status = NEW)) and true and flagged"));
+        assertEquals(in(STATUS, Arrays.asList("NEW", "PAID", "SENT")),
+                parser.parse("status = NEW or status in (PAID, SENT)"));
+        assertEquals(betweenLong(AMOUNT, 1, 20), parser.parse("amount between 1 and 10 or amount between 5 and 20"));
+        assertEquals(pFalse(), parser.parse("flagged and not flagged"));
+    }
+
+    @Test
+    public void testErrors() {
+        for (String rule : new String[]{"", "(flagged", "flagged)", "flagged and", "status in A", "status in ()",
+                "status =", "status = 'A", "unknown", "amount between 1 or 2", "status < 1", "status between 1 and 2",
+                "amount = x", "flagged flagged", "status not = NEW", "amount > -", "not", "flagged or or flagged"}) {
+            try {
+                parser.parse(rule);
+                fail(rule);
+            } catch (IllegalArgumentException expected) {
+                assertTrue(expected.getMessage(), expected.getMessage().contains(" at "));
+            }
+        }
+        StringBuilder deep = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            deep.append('(');
+        }
+        try {
+            parser.parse(deep);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+import static org.junit.Assert.*;
+import static pa.util.function.Predicates.*;
+
+/**
+ * Tests of PredicatePlan class and Predicates.explain
+ *
+ * @author Grzegorz Krupinski
+ */
+public class PredicatePlanTest {
+
+    private static final Function<Integer, String> PARITY = i -> i % 2 == 0 ? "even" : "odd";
+    private static final ToLongFunction<Integer> VALUE = i -> i;
+    private static final Predicate<Integer> TENTH = i -> i % 10 == 0;
+
+    private final Attributes<Integer> attributes = new Attributes<Integer>()
+            .add("parity", PARITY)
+            .addLong("value", VALUE)
+            .addPredicate("tenth", TENTH);
+
+    private static void evaluate(Predicate<Integer> p, int count) {
+        for (int i = 0; i < count; i++) {
+            p.test(i);
+        }
+    }
+
+    @Test
+    public void testStructure() {
+        Predicate<Integer> p = or(and(eq(PARITY, "even"), in(PARITY, Arrays.asList("it's", null))),
+                not(TENTH), or(betweenLong(VALUE, 1, 5), betweenLong(VALUE, 7, 7)), pTrue());
+        assertEquals("or\n"
+                + "  and\n"
+                + "    eq parity = 'even'\n"
+                + "    in parity in (null, 'it''s')\n"
+                + "  not\n"
+                + "    predicate tenth\n"
+                + "  between value between 1 and 5 or = 7\n"
+                + "  true selectivity=1.000 (est.) cost=0.0 ns (est.)\n", explain(p, attributes).toString());
+        PredicatePlan plan = explain(xor(TENTH, TENTH.negate()));
+        assertEquals("xor", plan.getOperator());
+        assertEquals("predicate", plan.getChildren().get(0).getOperator());
+        assertTrue(plan.getChildren().get(0).getDetail().startsWith(getClass().getName()));
+        assertEquals("compiled", explain(compile(and(TENTH, TENTH.negate()))).getDetail());
+        assertEquals("key = 1", explain(eq(PARITY, 1)).getDetail());
+    }
+
+    @Test
+    public void testMeasured() {
+        Predicate<Integer> even = instrumented("even", eq(PARITY, "even"));
+        Predicate<Integer> tenth = instrumented("tenth", TENTH);
+        Predicate<Integer> and = and(even, tenth);
+        Predicate<Integer> or = instrumented("or", or(even, tenth));
+        evaluate(and, 1000);
+        evaluate(or, 1000);
+
+        PredicatePlan plan = explain(and, attributes);
+        assertFalse(plan.isMeasured());
+        assertEquals(0.05, plan.getSelectivity(), 1e-9);
+        PredicatePlan first = plan.getChildren().get(0);
+        assertTrue(first.isMeasured());
+        assertEquals("eq", first.getOperator());
+        assertEquals("even", first.getName());
+        assertEquals(2000, first.getInvocations());
+        assertEquals(0.5, first.getSelectivity(), 1e-9);
+        assertEquals(1000, plan.getChildren().get(1).getInvocations());
+        assertEquals(first.getMeanNanos() + 0.5 * plan.getChildren().get(1).getMeanNanos(), plan.getMeanNanos(),
+                1e-9);
+
+        PredicatePlan orPlan = explain(or, attributes);
+        assertEquals("or", orPlan.getName());
+        assertEquals(0.5, orPlan.getSelectivity(), 1e-9);
+        assertEquals(2, orPlan.getChildren().size());
+        assertTrue(orPlan.toString().startsWith("or [or] invocations=1000, selectivity=0.500 cost="));
+
+        PredicatePlan nested = explain(instrumented("outer", instrumented("inner", TENTH)));
+        assertEquals("instrumented", nested.getOperator());
+        assertEquals("inner", nested.getChildren().get(0).getName());
+    }
+
+    @Test
+    public void testEstimated() {
+        Predicate<Integer> adaptive = adaptiveAnd(i -> i % 2 == 0, i -> i % 5 == 0);
+        evaluate(adaptive, 100_000);
+        PredicatePlan plan = explain(adaptive);
+        assertEquals("adaptive and", plan.getOperator());
+        List<PredicatePlan> children = plan.getChildren();
+        assertEquals(2, children.size());
+        assertFalse(Double.isNaN(children.get(0).getSelectivity()));
+        assertFalse(Double.isNaN(children.get(1).getMeanNanos()));
+        assertEquals(0.1, plan.getSelectivity(), 0.05);
+        assertTrue(plan.toString().contains("(est.)"));
+
+        CachedPredicate<Integer> cached = cached(instrumented("tenth", TENTH), 100);
+        evaluate(cached, 50);
+        evaluate(cached, 50);
+        PredicatePlan cachedPlan = explain(cached);
+        assertEquals("cached", cachedPlan.getOperator());
+        assertEquals("hitRate=0.500, size=50", cachedPlan.getDetail());
+        assertEquals(0.1, cachedPlan.getSelectivity(), 1e-9);
+        assertEquals(0.5 * cachedPlan.getChildren().get(0).getMeanNanos(), cachedPlan.getMeanNanos(), 1e-9);
+
+        assertTrue(Double.isNaN(explain(and(TENTH, pTrue())).getSelectivity()));
+        assertEquals(0.0, explain(xand(pTrue(), pFalse())).getSelectivity(), 0.0);
+        assertEquals(1.0, explain(xand(pFalse(), pFalse())).getSelectivity(), 0.0);
+        assertEquals(1.0, explain(xor(pFalse(), pTrue())).getSelectivity(), 0.0);
+    }
+
+    @Test
+    public void testJson() {
+        assertEquals("{\"operator\":\"not\",\"measured\":false,\"children\":["
+                        + "{\"operator\":\"eq\",\"detail\":\"parity = '\\\"\\\\\\u0001'\",\"measured\":false}]}",
+                explain(not(eq(PARITY, "\"\\\u0001")), attributes).toJson());
+        Predicate<Integer> tenth = instrumented("tenth", TENTH);
+        evaluate(tenth, 10_000);
+        String json = explain(and(tenth, pFalse()), attributes).toJson();
+        assertTrue(json, json.startsWith("{\"operator\":\"and\",\"measured\":false,\"selectivity\":0.0,\"meanNanos\":"));
+        assertTrue(json, json.contains("{\"operator\":\"predicate\",\"detail\":\"tenth\",\"name\":\"tenth\","
+                + "\"invocations\":10000,\"measured\":true,\"selectivity\":0.1,\"meanNanos\":"));
+    }
+
+}
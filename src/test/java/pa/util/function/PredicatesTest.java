@@ -19,8 +19,16 @@ package pa.util.function;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
@@ -175,6 +183,215 @@ public class PredicatesTest {
         assertPredicate(expected, xor(equalsA, lengthOne));
     }
 
+    @Test
+    public void testXandExt() {
+        assertPredicate(Arrays.asList("A", "DD"), xand(equalsA, lengthOne, startsWithA));
+        assertPredicate(Arrays.asList("A", "B", "C", "DD"), xand(equalsA));
+        assertPredicate(Arrays.asList("B", "C"), xand(equalsA, startsWithA, lengthTwo));
+    }
+
+    @Test
+    public void testXorExt() {
+        assertPredicate(Arrays.asList("A", "DD"), xor(equalsA, lengthOne, lengthOne, lengthTwo));
+        assertPredicate(Arrays.asList("A", "B", "C"), xor(equalsA, lengthOne, startsWithA));
+        assertPredicate(Arrays.asList("A"), xor(equalsA));
+
+        Predicate<String> xor = xor(xor(equalsA, equalsB), equalsC);
+        assertTrue(xor instanceof XorPredicate);
+        assertEquals(3, ((XorPredicate<String>) xor).operands.length);
+        assertPredicate(Arrays.asList("A", "B", "C"), xor);
+    }
+
+    @Test
+    public void testXorXandEvaluateOnce() {
+        AtomicInteger count = new AtomicInteger();
+        Predicate<String> p1 = s -> count.incrementAndGet() > 0 && equalsA.test(s);
+        Predicate<String> p2 = s -> count.incrementAndGet() > 0 && lengthOne.test(s);
+
+        filterList(xor(p1, p2));
+        assertEquals(2 * list.size(), count.get());
+
+        count.set(0);
+        filterList(xand(p1, p2));
+        assertEquals(2 * list.size(), count.get());
+
+        count.set(0);
+        filterList(xor(p1, p2, p1, p2));
+        assertEquals(4 * list.size(), count.get());
+    }
+
+    @Test
+    public void testTestAll() {
+        Random random = new Random(7);
+        String[] batch = new String[300];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = list.get(random.nextInt(list.size()));
+        }
+        List<Predicate<String>> predicates = Arrays.asList(
+                equalsA,
+                not(equalsA),
+                and(lengthOne, not(equalsB), or(equalsA, equalsC)),
+                or(equalsA, nand(lengthOne, not(equalsC)), equalsB),
+                xor(equalsA, lengthOne, not(equalsC)),
+                xand(lengthOne, not(equalsA), equalsB),
+                nor(equalsA, and(lengthTwo, startsWithA)));
+        for (Predicate<String> p : predicates) {
+            for (int[] range : new int[][]{{0, 300}, {0, 64}, {5, 133}, {100, 100}, {299, 300}}) {
+                long[] bitmap = new long[5];
+                int count = testAll(p, batch, range[0], range[1], bitmap);
+                int expectedCount = 0;
+                for (int i = range[0]; i < range[1]; i++) {
+                    int bit = i - range[0];
+                    boolean expected = p.test(batch[i]);
+                    assertEquals(expected, (bitmap[bit >>> 6] & (1L << bit)) != 0);
+                    expectedCount += expected ? 1 : 0;
+                }
+                for (int bit = range[1] - range[0]; bit < 5 * 64; bit++) {
+                    assertEquals(0L, bitmap[bit >>> 6] & (1L << bit));
+                }
+                assertEquals(expectedCount, count);
+            }
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testTestAllShortBitmap() {
+        testAll(equalsA, new String[65], 0, 65, new long[1]);
+    }
+
+    @Test
+    public void testCompile() {
+        List<Predicate<String>> predicates = Arrays.asList(
+                and(equalsA, lengthOne),
+                or(equalsA, equalsB, not(lengthOne)),
+                nand(equalsA, or(lengthTwo, equalsB), pTrue()),
+                nor(equalsC, and(startsWithA, not(equalsB))),
+                xor(equalsA, lengthOne, not(equalsC), or(equalsB, pFalse())),
+                xand(lengthOne, not(equalsA), xor(equalsB, equalsC)),
+                not(xand(equalsA, startsWithA, and(lengthOne, pTrue()))),
+                cond(or(equalsA, xor(equalsB, lengthTwo)), and(lengthOne, xand(equalsA, startsWithA))),
+                and(pFalse(), equalsA),
+                or(pTrue(), equalsA),
+                and(equalsA, equalsA, instrumented("a", equalsA)));
+        for (Predicate<String> p : predicates) {
+            Predicate<String> compiled = compile(p);
+            assertNotEquals(p.getClass(), compiled.getClass());
+            assertEquals(filterList(p), filterList(compiled));
+        }
+        assertSame(equalsA, compile(equalsA));
+    }
+
+    @Test
+    public void testCompileManyOperands() {
+        Predicate<String>[] predicates = new Predicate[1000];
+        for (int i = 0; i < predicates.length; i++) {
+            String s = "X" + i;
+            predicates[i] = i % 2 == 0 ? x -> x.equals(s) : not(x -> x.equals(s));
+        }
+        Predicate<String> or = or(or(predicates), equalsC);
+        assertPredicate(Arrays.asList("A", "B", "C", "DD"), compile(or));
+        Predicate<String> xor = xor(predicates);
+        assertEquals(filterList(xor), filterList(compile(xor)));
+
+        Predicate<String>[] big = new Predicate[10_000];
+        Arrays.fill(big, equalsA);
+        Predicate<String> and = and(big);
+        assertSame(and, compile(and));
+    }
+
+    @Test
+    public void testInstrumented() {
+        Predicate<String> p = instrumented("rule", and(
+                instrumented("length", lengthOne),
+                not(instrumented("a", equalsA))));
+        assertPredicate(Arrays.asList("B", "C"), p);
+        testAll(p, list.toArray(new String[0]), 0, list.size(), new long[1]);
+
+        List<PredicateStats> stats = stats(p);
+        assertEquals(1, stats.size());
+        PredicateStats rule = stats.get(0);
+        assertEquals("rule", rule.getName());
+        assertEquals(8, rule.getInvocations());
+        assertEquals(4, rule.getTrueCount());
+        assertEquals(0.5, rule.getSelectivity(), 0.0);
+        assertEquals(2, rule.getChildren().size());
+
+        PredicateStats length = rule.getChildren().get(0);
+        assertEquals("length", length.getName());
+        assertEquals(8, length.getInvocations());
+        assertEquals(6, length.getTrueCount());
+        PredicateStats a = rule.getChildren().get(1);
+        assertEquals("a", a.getName());
+        assertEquals(6, a.getInvocations());
+        assertEquals(2, a.getTrueCount());
+
+        String rendered = rule.toString();
+        assertTrue(rendered.startsWith("rule: invocations=8, true=4 (50.0%)"));
+        assertTrue(rendered.contains("\n  length: invocations=8, true=6 (75.0%)"));
+        Locale locale = Locale.getDefault();
+        Locale.setDefault(Locale.GERMANY);
+        try {
+            rendered = rule.toString();
+        } finally {
+            Locale.setDefault(locale);
+        }
+        assertTrue(rendered.startsWith("rule: invocations=8, true=4 (50.0%), mean="));
+        assertTrue(rendered.matches("(?s)[^\n]*, mean=\\d+\\.\\d ns\n.*"));
+        assertTrue(stats(equalsA).isEmpty());
+    }
+
+    @Test
+    public void testSimplify() {
+        assertSame(equalsA, simplify(and(pTrue(), equalsA)));
+        assertSame(equalsA, simplify(or(pFalse(), equalsA, pFalse())));
+        assertEquals(pFalse(), simplify(and(pTrue(), equalsA, pFalse())));
+        assertEquals(pTrue(), simplify(nor(pFalse(), not(pTrue()))));
+        assertSame(equalsA, simplify(new NotPredicate<>(new NotPredicate<>(equalsA))));
+
+        assertEquals(or(not(equalsA), not(equalsB)), simplify(nand(equalsA, equalsB)));
+        assertEquals(and(not(equalsA), or(equalsB, not(equalsC))), simplify(nor(equalsA, and(not(equalsB), equalsC))));
+        assertEquals(or(equalsA, equalsB), simplify(or(equalsA, or(equalsB, equalsA))));
+
+        assertSame(equalsA, simplify(and(equalsA, or(equalsA, equalsB))));
+        assertSame(equalsA, simplify(or(equalsA, and(equalsB, equalsA))));
+        assertEquals(pFalse(), simplify(and(equalsA, lengthOne, not(equalsA))));
+        assertEquals(pTrue(), simplify(or(equalsA, not(equalsA))));
+
+        assertEquals(not(equalsA), simplify(xor(equalsA, pTrue(), equalsB, equalsB)));
+        assertEquals(xor(not(equalsA), equalsB), simplify(not(xor(equalsA, equalsB))));
+        assertEquals(xor(equalsA, equalsB), simplify(xor(not(equalsA), not(equalsB))));
+        assertEquals(and(equalsA, equalsB), simplify(xand(equalsA, pTrue(), equalsB)));
+        assertEquals(and(not(equalsA), not(equalsB)), simplify(xand(equalsA, pFalse(), equalsB)));
+        assertEquals(pFalse(), simplify(xand(equalsA, not(equalsA))));
+        assertEquals(not(xand(equalsA, equalsB)), simplify(not(xand(equalsA, equalsA, equalsB))));
+    }
+
+    @Test
+    public void testSimplifyXorNegatedOperandCancelsOut() {
+        // the negation of and(a, b) equals the second operand, so the pair cancels out: always false
+        Predicate<String> xor = xor(and(equalsA, lengthOne), or(not(equalsA), not(lengthOne)), pTrue());
+        assertEquals(pFalse(), simplify(xor));
+        assertEquals(filterList(xor), filterList(simplify(xor)));
+        Predicate<String> negated = not(xor(and(equalsA, lengthOne), or(not(equalsA), not(lengthOne)), equalsB));
+        assertEquals(filterList(negated), filterList(simplify(negated)));
+        assertEquals(equalsB, simplify(negated));
+    }
+
+    @Test
+    public void testSimplifyEquivalent() {
+        List<Predicate<String>> predicates = Arrays.asList(
+                and(pTrue(), or(equalsA, pFalse(), not(and(lengthOne, not(equalsB))))),
+                nand(xor(equalsA, pTrue(), lengthTwo), nor(equalsC, and(startsWithA, pTrue()))),
+                xand(not(equalsA), or(lengthOne, equalsA), not(xor(equalsB, equalsC, pFalse()))),
+                not(xand(equalsA, pFalse(), cond(equalsB, lengthTwo))),
+                adaptiveAnd(not(or(equalsA, equalsB)), pTrue(), lengthOne),
+                not(adaptiveOr(equalsA, and(lengthOne, equalsC))),
+                cond(or(equalsA, instrumented("b", equalsB)), and(lengthOne, pTrue())));
+        for (Predicate<String> p : predicates) {
+            assertEquals(filterList(p), filterList(simplify(p)));
+        }
+    }
+
     @Test
     public void testCond() {
         List<String> expected = Arrays.asList("A", "B", "C", "DD");
@@ -184,6 +401,91 @@ public class PredicatesTest {
         assertPredicate(expected, cond(lengthOne, equalsA));
     }
 
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testOper() {
+        Predicate<String> and = oper(Predicates::and, equalsA, lengthOne, startsWithA);
+        assertTrue(and instanceof AndPredicate);
+        assertEquals(3, ((AndPredicate<String>) and).operands.length);
+        assertPredicate(Arrays.asList("A"), and);
+
+        assertPredicate(Arrays.asList("A", "B", "C"), oper(Predicates::or, equalsA, equalsB, equalsC));
+    }
+
+    @Test
+    public void testFlatten() {
+        Predicate<String> and = and(and(equalsA, lengthOne), startsWithA);
+        assertTrue(and instanceof AndPredicate);
+        assertEquals(3, ((AndPredicate<String>) and).operands.length);
+        assertPredicate(Arrays.asList("A"), and);
+
+        Predicate<String> or = or(equalsA, or(equalsB, equalsC));
+        assertTrue(or instanceof OrPredicate);
+        assertEquals(3, ((OrPredicate<String>) or).operands.length);
+        assertPredicate(Arrays.asList("A", "B", "C"), or);
+
+        assertSame(equalsA, and(equalsA));
+        assertSame(equalsA, or(equalsA));
+        assertSame(equalsA, not(not(equalsA)));
+    }
+
+    @Test
+    public void testFlattenManyOperands() {
+        Predicate<String>[] predicates = new Predicate[100_000];
+        Arrays.fill(predicates, lengthOne);
+        assertPredicate(Arrays.asList("A", "B", "C"), and(predicates));
+        assertPredicate(Arrays.asList("A", "B", "C"), or(predicates));
+        assertPredicate(Arrays.asList("DD"), nand(predicates));
+        assertPredicate(Arrays.asList("DD"), nor(predicates));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testFlattenNullOperand() {
+        and(equalsA, null);
+    }
+
+    @Test
+    public void testEqIn() {
+        Function<String, Integer> length = String::length;
+        assertPredicate(Arrays.asList("A", "B", "C"), eq(length, 1));
+        assertPredicate(Arrays.asList("B", "DD"), in(Arrays.asList("B", "DD", "E")));
+        assertPredicate(Arrays.asList("DD"), in(length, Arrays.asList(2, 3)));
+        assertPredicate(Collections.emptyList(), in(Collections.emptyList()));
+        assertPredicate(list, not(eq(s -> null, "A")));
+        assertEquals(eq(length, 1), eq(length, 1));
+        assertNotEquals(eq(length, 1), eq(String::length, 1));
+    }
+
+    @Test
+    public void testOrFusesEq() {
+        Function<String, String> self = s -> s;
+        Predicate<String> other = s -> s.startsWith("D");
+        Predicate<String> or = or(eq(self, "A"), other, eq(self, "C"), in(self, Arrays.asList("X", "Y")));
+        assertPredicate(Arrays.asList("A", "C", "DD"), or);
+        Predicate<String>[] operands = ((OrPredicate<String>) or).operands;
+        assertEquals(2, operands.length);
+        assertEquals(new InPredicate<>(self, new HashSet<>(Arrays.asList("A", "C", "X", "Y"))), operands[0]);
+        assertSame(other, operands[1]);
+        assertEquals(in(self, Arrays.asList("A", "B")), or(eq(self, "A"), eq(self, "B")));
+        assertEquals(in(self, Arrays.asList("A", "B")), simplify(or(eq(self, "A"), and(eq(self, "B"), pTrue()))));
+    }
+
+    @Test
+    public void testBetween() {
+        ToLongFunction<String> length = String::length;
+        ToDoubleFunction<String> code = s -> s.charAt(0);
+        assertPredicate(Arrays.asList("DD"), betweenLong(length, 2, 5));
+        assertPredicate(Collections.emptyList(), betweenLong(length, 5, 2));
+        assertPredicate(Arrays.asList("B", "C"), betweenDouble(code, 'B', 'C'));
+        Predicate<String> or = or(betweenDouble(code, 'A', 'A'), betweenLong(length, 2, 2),
+                betweenDouble(code, 'C', 'C'), betweenDouble(code, 'B', 'B'));
+        assertPredicate(list, or);
+        Predicate<String>[] operands = ((OrPredicate<String>) or).operands;
+        assertEquals(2, operands.length);
+        assertEquals(betweenDouble(code, 'A', 'C'),
+                simplify(or(betweenDouble(code, 'A', 'B'), betweenDouble(code, 'B', 'C'))));
+    }
+
     @Test
     public void testCheckPredicatesCount() {
         checkPredicatesCount(1);
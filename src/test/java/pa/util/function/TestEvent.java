@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Event with attributes of every kind, used by tests of indexing, parsing and encoding of predicates
+ *
+ * @author Grzegorz Krupinski
+ */
+final class TestEvent {
+
+    static final String[] STATUSES = {"NEW", "PAID", "SENT", "CLOSED", "it's", null};
+
+    static final Function<TestEvent, String> STATUS = e -> e.status;
+    static final Function<TestEvent, Integer> PRIORITY = e -> e.priority;
+    static final ToLongFunction<TestEvent> AMOUNT = e -> e.amount;
+    static final ToDoubleFunction<TestEvent> SCORE = e -> e.score;
+    static final Predicate<TestEvent> FLAGGED = e -> e.flagged;
+
+    final String status;
+    final Integer priority;
+    final long amount;
+    final double score;
+    final boolean flagged;
+
+    TestEvent(String status, Integer priority, long amount, double score, boolean flagged) {
+        this.status = status;
+        this.priority = priority;
+        this.amount = amount;
+        this.score = score;
+        this.flagged = flagged;
+    }
+
+    TestEvent(String status, long amount, double score, boolean flagged) {
+        this(status, null, amount, score, flagged);
+    }
+
+    /**
+     * @return attributes status, priority, amount (long), score (double) and flagged (predicate)
+     */
+    static Attributes<TestEvent> attributes() {
+        return new Attributes<TestEvent>()
+                .add("status", STATUS)
+                .add("priority", PRIORITY)
+                .addLong("amount", AMOUNT)
+                .addDouble("score", SCORE)
+                .addPredicate("flagged", FLAGGED);
+    }
+
+    /**
+     * @return event with amount in [-50, 50) and score in tenths of [-1.5, 1.5), so rules hit their bounds
+     */
+    static TestEvent random(Random random) {
+        return new TestEvent(STATUSES[random.nextInt(STATUSES.length)], random.nextBoolean() ? random.nextInt(3) : null,
+                random.nextInt(100) - 50, (random.nextInt(30) - 15) / 10.0, random.nextBoolean());
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2018 Grzegorz Krupinski (grzegorz.krupinski@programming-automation.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package pa.util.function;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of Events of the multi-release jar - on Java 11+ they are Java Flight Recorder events
+ *
+ * @author Grzegorz Krupinski
+ */
+public class EventsIT {
+
+    private static final String SWALLOWED = "pa.util.function.SwallowedException";
+    private static final String SLOW = "pa.util.function.SlowPredicate";
+
+    private static final class Failing implements Supplier<String> {
+        @Override
+        public String get() {
+            throw new IllegalStateException("failed");
+        }
+    }
+
+    @Test
+    public void testVersionedClass() {
+        String resource = Events.class.getResource("Events.class").toString();
+        assertTrue(resource, resource.contains("META-INF/versions/11/"));
+    }
+
+    @Test
+    public void testSwallowedException() throws Exception {
+        nextWindow();
+        List<RecordedEvent> events = record(SWALLOWED, () -> assertNull(NullSafeUtils.get(new Failing())));
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals(Failing.class.getName(), event.getClass("supplierClass").getName());
+        assertEquals(IllegalStateException.class.getName(), event.getClass("exceptionType").getName());
+        assertEquals("failed", event.getString("message"));
+        assertTrue(event.getString("exceptionStack"),
+                event.getString("exceptionStack").startsWith(Failing.class.getName() + ".get("));
+        assertEquals(0, event.getLong("dropped"));
+        assertNotNull(event.getStackTrace());
+    }
+
+    @Test
+    public void testSlowPredicate() throws Exception {
+        Predicate<String> slow = Predicates.instrumented("slow", s -> {
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return s.isEmpty();
+        });
+        InstrumentedPredicate<String> instrumented = (InstrumentedPredicate<String>) slow;
+        List<RecordedEvent> events = record(SLOW, () -> {
+            while (instrumented.samples.sum() == 0) {
+                slow.test("");
+            }
+        });
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("slow", event.getString("predicate"));
+        assertTrue(event.getBoolean("result"));
+        assertEquals(0, event.getLong("dropped"));
+        assertTrue(event.getDuration().compareTo(Duration.ofMillis(1)) >= 0);
+    }
+
+    @Test
+    public void testRateLimit() throws Exception {
+        int total = 1000;
+        nextWindow();
+        List<RecordedEvent> events = record(SWALLOWED, () -> {
+            for (int i = 0; i < total; i++) {
+                NullSafeUtils.get(new Failing());
+            }
+            nextWindow();
+            NullSafeUtils.get(new Failing());
+        });
+        long dropped = 0;
+        for (RecordedEvent event : events) {
+            dropped += event.getLong("dropped");
+        }
+        // 100 events per second by default
+        assertTrue(events.size() + " events", events.size() >= 101 && events.size() < total);
+        assertEquals(total + 1, events.size() + dropped);
+    }
+
+    private static List<RecordedEvent> record(String name, Runnable action) throws IOException {
+        Path file = Files.createTempFile("events", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(name);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Waits for the next window of the rate limit
+     */
+    private static void nextWindow() {
+        long window = System.nanoTime() / 1_000_000_000L;
+        while (System.nanoTime() / 1_000_000_000L == window) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+
+}